@@ -92,6 +92,14 @@ public class DeployMojo extends AbstractFunctionMojo {
     @Parameter(property = "deploymentType")
     protected String deploymentType;
 
+    /**
+     * Boolean flag to skip deployment if the staging directory is not changed since last incremental deployment.
+     * @since 1.25.0
+     */
+    @JsonProperty
+    @Parameter(property = "functions.incrementalDeploy", defaultValue = "false")
+    protected boolean incrementalDeploy;
+
     @Override
     @AzureOperation("user/functionapp.deploy_app")
     protected void doExecute() throws Throwable {
@@ -210,7 +218,9 @@ public class DeployMojo extends AbstractFunctionMojo {
     private void deployArtifact(final FunctionAppBase<?, ?, ?> target) {
         final File file = new File(getDeploymentStagingDirectoryPath());
         final FunctionDeployType type = StringUtils.isEmpty(deploymentType) ? null : FunctionDeployType.fromString(deploymentType);
-        new DeployFunctionAppTask(target, file, type).doExecute();
+        final DeployFunctionAppTask task = new DeployFunctionAppTask(target, file, type);
+        task.setIncremental(incrementalDeploy);
+        task.doExecute();
     }
 
     protected void validateArtifactCompileVersion() throws AzureExecutionException {
@@ -14,6 +14,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.microsoft.azure.maven.model.DeploymentResource;
+import com.microsoft.azure.toolkit.lib.appservice.function.core.IncrementalStaging;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
 import com.microsoft.azure.toolkit.lib.common.logging.Log;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
@@ -108,6 +109,21 @@ public class PackageMojo extends AbstractFunctionMojo {
     @Parameter(property = "functions.skipInstallExtensions", defaultValue = "false")
     protected Boolean skipInstallExtensions;
 
+    /**
+     * Boolean flag to only update the outputs in staging directory whose inputs (classes, dependencies, host.json etc.)
+     * changed since last build, dependencies are hard linked instead of copied where the file system allows.
+     * @since 1.25.0
+     */
+    @Parameter(property = "functions.incrementalStaging", defaultValue = "false")
+    protected boolean incrementalStaging;
+
+    /**
+     * Boolean flag to search functions in dependencies too, only classes of the project itself are searched by default.
+     * @since 1.25.0
+     */
+    @Parameter(property = "functions.scanDependencies", defaultValue = "false")
+    protected boolean scanDependencies;
+
     @Override
     @AzureOperation("user/functionapp.package")
     protected void doExecute() throws AzureExecutionException {
@@ -115,6 +131,11 @@ public class PackageMojo extends AbstractFunctionMojo {
         validateFunctionCompatibility();
         promptCompileInfo();
 
+        final Map<String, String> fingerprint = incrementalStaging ? getStagingFingerprint() : null;
+        if (IncrementalStaging.skipIfUpToDate(new File(getDeploymentStagingDirectoryPath()), fingerprint)) {
+            return;
+        }
+
         final AnnotationHandler annotationHandler = getAnnotationHandler();
 
         final Set<Method> methods;
@@ -154,9 +175,22 @@ public class PackageMojo extends AbstractFunctionMojo {
 
         installExtension(functionCoreToolsHandler, bindingClasses);
 
+        IncrementalStaging.save(new File(getDeploymentStagingDirectoryPath()), fingerprint);
         Log.info(BUILD_SUCCESS);
     }
 
+    protected Map<String, String> getStagingFingerprint() throws AzureExecutionException {
+        final List<File> inputs = new ArrayList<>(getStagingDependencies());
+        inputs.add(outputDirectory);
+        inputs.add(getArtifactFile());
+        inputs.add(getHostJsonFile());
+        inputs.add(getLocalSettingsJsonFile());
+        final Map<String, String> fingerprint = IncrementalStaging.fingerprint(inputs);
+        fingerprint.put("skipInstallExtensions", String.valueOf(skipInstallExtensions));
+        fingerprint.put("scanDependencies", String.valueOf(scanDependencies));
+        return fingerprint;
+    }
+
     //endregion
 
     //region Process annotations
@@ -173,7 +207,8 @@ public class PackageMojo extends AbstractFunctionMojo {
             Log.debug("ClassPath to resolve: " + getTargetClassUrl());
             final List<URL> dependencyWithTargetClass = getDependencyArtifactUrls();
             dependencyWithTargetClass.add(getTargetClassUrl());
-            functions = handler.findFunctions(dependencyWithTargetClass);
+            final List<URL> scanUrls = scanDependencies ? dependencyWithTargetClass : Collections.singletonList(getTargetClassUrl());
+            functions = handler.findFunctions(scanUrls, dependencyWithTargetClass);
         } catch (NoClassDefFoundError e) {
             // fallback to reflect through artifact url, for shaded project(fat jar)
             Log.debug("ClassPath to resolve: " + getArtifactUrl());
@@ -274,7 +309,11 @@ public class PackageMojo extends AbstractFunctionMojo {
         Log.info(SAVE_FUNCTION_JSON + functionName);
         final File functionJsonFile = Paths.get(getDeploymentStagingDirectoryPath(),
                 functionName, FUNCTION_JSON).toFile();
-        writeObjectToFile(objectWriter, config, functionJsonFile);
+        if (incrementalStaging) {
+            IncrementalStaging.writeIfChanged(functionJsonFile, objectWriter.writeValueAsBytes(config));
+        } else {
+            writeObjectToFile(objectWriter, config, functionJsonFile);
+        }
         Log.info(SAVE_SUCCESS + functionJsonFile.getAbsolutePath());
     }
 
@@ -283,7 +322,7 @@ public class PackageMojo extends AbstractFunctionMojo {
         Log.info(SAVING_HOST_JSON);
         final File sourceHostJsonFile = getHostJsonFile();
         final File destHostJsonFile = Paths.get(getDeploymentStagingDirectoryPath(), HOST_JSON).toFile();
-        copyFilesWithDefaultContent(sourceHostJsonFile, destHostJsonFile, DEFAULT_HOST_JSON);
+        copyFilesWithDefaultContent(sourceHostJsonFile, destHostJsonFile, DEFAULT_HOST_JSON, incrementalStaging);
         Log.info(SAVE_SUCCESS + destHostJsonFile.getAbsolutePath());
     }
 
@@ -292,14 +331,20 @@ public class PackageMojo extends AbstractFunctionMojo {
         Log.info(SAVING_LOCAL_SETTINGS_JSON);
         final File sourceLocalSettingsJsonFile = getLocalSettingsJsonFile();
         final File destLocalSettingsJsonFile = Paths.get(getDeploymentStagingDirectoryPath(), LOCAL_SETTINGS_JSON).toFile();
-        copyFilesWithDefaultContent(sourceLocalSettingsJsonFile, destLocalSettingsJsonFile, DEFAULT_LOCAL_SETTINGS_JSON);
+        copyFilesWithDefaultContent(sourceLocalSettingsJsonFile, destLocalSettingsJsonFile, DEFAULT_LOCAL_SETTINGS_JSON, incrementalStaging);
         Log.info(SAVE_SUCCESS + destLocalSettingsJsonFile.getAbsolutePath());
     }
 
-    private static void copyFilesWithDefaultContent(File source, File dest, String defaultContent)
+    private static void copyFilesWithDefaultContent(File source, File dest, String defaultContent, boolean incremental)
             throws IOException {
         if (source != null && source.exists()) {
-            FileUtils.copyFile(source, dest);
+            if (incremental) {
+                IncrementalStaging.copyIfChanged(source, dest);
+            } else {
+                FileUtils.copyFile(source, dest);
+            }
+        } else if (incremental) {
+            IncrementalStaging.writeIfChanged(dest, defaultContent.getBytes(Charset.defaultCharset()));
         } else {
             FileUtils.write(dest, defaultContent, Charset.defaultCharset());
         }
@@ -330,20 +375,36 @@ public class PackageMojo extends AbstractFunctionMojo {
         Log.info("");
         Log.info(COPY_JARS + stagingDirectory);
         final File libFolder = Paths.get(stagingDirectory, "lib").toFile();
+        final List<File> dependencies = getStagingDependencies();
+        if (incrementalStaging) {
+            final int updated = IncrementalStaging.syncFiles(dependencies, libFolder);
+            IncrementalStaging.linkOrCopyIfChanged(getArtifactFile(), new File(stagingDirectory, getArtifactFile().getName()));
+            Log.info(String.format("%d of %d dependencies updated.", updated, dependencies.size()));
+            Log.info(COPY_SUCCESS);
+            return;
+        }
         if (libFolder.exists()) {
             FileUtils.cleanDirectory(libFolder);
         }
+        for (final File dependency : dependencies) {
+            copyFileToDirectory(dependency, libFolder);
+        }
+        copyFileToDirectory(getArtifactFile(), new File(stagingDirectory));
+        Log.info(COPY_SUCCESS);
+    }
+
+    /**
+     * @return runtime dependencies to be copied to the lib folder, excluding the azure functions java (core) library.
+     */
+    protected List<File> getStagingDependencies() {
         final Set<Artifact> artifacts = project.getArtifacts();
         final String libraryToExclude = artifacts.stream()
                 .filter(artifact -> StringUtils.equalsAnyIgnoreCase(artifact.getArtifactId(), AZURE_FUNCTIONS_JAVA_CORE_LIBRARY))
                 .map(Artifact::getArtifactId).findFirst().orElse(AZURE_FUNCTIONS_JAVA_LIBRARY);
-        for (final Artifact artifact : artifacts) {
-            if (!StringUtils.equalsIgnoreCase(artifact.getArtifactId(), libraryToExclude)) {
-                copyFileToDirectory(artifact.getFile(), libFolder);
-            }
-        }
-        copyFileToDirectory(getArtifactFile(), new File(stagingDirectory));
-        Log.info(COPY_SUCCESS);
+        return artifacts.stream()
+                .filter(artifact -> !StringUtils.equalsIgnoreCase(artifact.getArtifactId(), libraryToExclude))
+                .map(Artifact::getFile)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -45,6 +45,7 @@ public class PackageMojoTest extends MojoTestBase {
         doNothing().when(mojoSpy).trackFunctionProperties(any());
         doNothing().when(mojoSpy).copyJarsToStageDirectory();
         doNothing().when(mojoSpy).validateFunctionCompatibility();
+        doReturn("target/azure-functions").when(mojoSpy).getDeploymentStagingDirectoryPath();
         mojoSpy.doExecute();
     }
 
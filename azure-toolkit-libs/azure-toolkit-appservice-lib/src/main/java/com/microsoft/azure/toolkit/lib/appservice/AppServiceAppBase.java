@@ -29,11 +29,13 @@ import com.microsoft.azure.toolkit.lib.appservice.utils.AppServiceUtils;
 import com.microsoft.azure.toolkit.lib.appservice.utils.Utils;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResource;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
+import com.microsoft.azure.toolkit.lib.common.model.AbstractAzServiceSubscription;
 import com.microsoft.azure.toolkit.lib.common.model.AzResource;
 import com.microsoft.azure.toolkit.lib.common.model.Deletable;
 import com.microsoft.azure.toolkit.lib.common.model.Region;
 import com.microsoft.azure.toolkit.lib.common.model.Startable;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
+import com.microsoft.azure.toolkit.lib.common.utils.StreamingLogReader;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import reactor.core.publisher.Flux;
@@ -135,9 +137,17 @@ public abstract class AppServiceAppBase<
         return Optional.ofNullable(this.getFullRemote()).map(WebAppBase::diagnosticLogsConfig).map(AppServiceUtils::fromWebAppDiagnosticLogs).orElse(null);
     }
 
+    /**
+     * stream all logs(application and http logs) from kudu, read without blocking any thread per stream.
+     */
     @Nonnull
     public Flux<String> streamAllLogsAsync() {
-        return Optional.ofNullable(this.getFullRemote()).map(WebAppBase::streamAllLogsAsync).orElseGet(Flux::empty);
+        final WebAppBase remote = this.getFullRemote();
+        if (Objects.isNull(remote)) {
+            return Flux.empty();
+        }
+        final String url = AppServiceKuduClient.getKuduHost(remote) + "/api/logstream";
+        return StreamingLogReader.readLines(AppServiceKuduClient.getAadHttpPipeline(remote, AbstractAzServiceSubscription.getStreamingPipelineHttpClient()), url);
     }
 
     @Nonnull
@@ -8,6 +8,8 @@ import com.azure.resourcemanager.appservice.models.AppSetting;
 import com.azure.resourcemanager.appservice.models.FunctionApp;
 import com.azure.resourcemanager.appservice.models.FunctionDeploymentSlot;
 import com.azure.resourcemanager.appservice.models.WebAppBase;
+import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.BlobServiceClientBuilder;
 import com.microsoft.azure.storage.CloudStorageAccount;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import org.apache.commons.lang3.StringUtils;
@@ -30,6 +32,31 @@ class DeployUtils {
      * @return StorageAccount specified in AzureWebJobsStorage
      */
     static CloudStorageAccount getCloudStorageAccount(final WebAppBase functionApp) {
+        final String connectionString = getStorageConnectionString(functionApp);
+        try {
+            return CloudStorageAccount.parse(connectionString);
+        } catch (final AzureToolkitRuntimeException e) {
+            throw e;
+        } catch (InvalidKeyException | URISyntaxException | RuntimeException e) {
+            throw new AzureToolkitRuntimeException(INVALID_STORAGE_CONNECTION_STRING, e);
+        }
+    }
+
+    /**
+     * Get blob service client of the storage account specified within AzureWebJobsStorage for function app/slot
+     * @param functionApp target function/slot, using WebAppBase here which is the base class for function app/slot in sdk
+     * @return BlobServiceClient authorized by the connection string in AzureWebJobsStorage
+     */
+    static BlobServiceClient getBlobServiceClient(final WebAppBase functionApp) {
+        final String connectionString = getStorageConnectionString(functionApp);
+        try {
+            return new BlobServiceClientBuilder().connectionString(connectionString).buildClient();
+        } catch (RuntimeException e) {
+            throw new AzureToolkitRuntimeException(INVALID_STORAGE_CONNECTION_STRING, e);
+        }
+    }
+
+    private static String getStorageConnectionString(final WebAppBase functionApp) {
         // Call functionApp.getSiteAppSettings() to get the app settings with key vault reference
         final String connectionString = Optional.ofNullable(functionApp.getSiteAppSettings())
                 .map(map -> map.get(INTERNAL_STORAGE_KEY))
@@ -39,13 +66,7 @@ class DeployUtils {
         if (StringUtils.isEmpty(connectionString)) {
             throw new AzureToolkitRuntimeException(INTERNAL_STORAGE_NOT_FOUND);
         }
-        try {
-            return CloudStorageAccount.parse(connectionString);
-        } catch (final AzureToolkitRuntimeException e) {
-            throw e;
-        } catch (InvalidKeyException | URISyntaxException | RuntimeException e) {
-            throw new AzureToolkitRuntimeException(INVALID_STORAGE_CONNECTION_STRING, e);
-        }
+        return connectionString;
     }
 
     static void updateFunctionAppSetting(final WebAppBase deployTarget, final String key, final String value) {
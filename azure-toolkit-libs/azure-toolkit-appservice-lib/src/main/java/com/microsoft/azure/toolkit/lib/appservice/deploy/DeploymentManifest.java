@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.deploy;
+
+import com.azure.core.util.FluxUtil;
+import com.microsoft.azure.toolkit.lib.appservice.AppServiceAppBase;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * content hash manifest of a deployed artifact: sha256 of every file in a directory or every entry of an archive
+ * (zip/war/jar/ear), and a digest of them all. the manifest of the last successful deployment is kept locally under
+ * {@code ~/.azure/azure-toolkit/deployments} and mirrored to the app via VFS, so that a deployment of unchanged
+ * content can be skipped.
+ */
+@Data
+@Slf4j
+@NoArgsConstructor
+public class DeploymentManifest {
+    private static final Path LOCAL_DIR = Paths.get(System.getProperty("user.home"), ".azure", "azure-toolkit", "deployments");
+    private static final String REMOTE_DIR = "site/azure-toolkit/deployments/";
+    private static final List<String> ARCHIVE_EXTENSIONS = Arrays.asList("zip", "war", "jar", "ear");
+
+    private String digest;
+    private Map<String, String> entries = new TreeMap<>();
+
+    @Nonnull
+    public static DeploymentManifest of(@Nonnull File artifact, @Nonnull String... excludes) {
+        final Set<String> excluded = new HashSet<>(Arrays.asList(excludes));
+        final DeploymentManifest manifest = new DeploymentManifest();
+        try {
+            if (artifact.isDirectory()) {
+                final Path root = artifact.toPath();
+                try (Stream<Path> files = Files.walk(root)) {
+                    for (final Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                        final String name = FilenameUtils.separatorsToUnix(root.relativize(file).toString());
+                        if (!excluded.contains(name)) {
+                            try (InputStream in = Files.newInputStream(file)) {
+                                manifest.entries.put(name, DigestUtils.sha256Hex(in));
+                            }
+                        }
+                    }
+                }
+            } else if (ARCHIVE_EXTENSIONS.contains(FilenameUtils.getExtension(artifact.getName()).toLowerCase())) {
+                try (ZipFile zip = new ZipFile(artifact)) {
+                    for (final Enumeration<? extends ZipEntry> e = zip.entries(); e.hasMoreElements(); ) {
+                        final ZipEntry entry = e.nextElement();
+                        if (!entry.isDirectory() && !excluded.contains(entry.getName())) {
+                            try (InputStream in = zip.getInputStream(entry)) {
+                                manifest.entries.put(entry.getName(), DigestUtils.sha256Hex(in));
+                            }
+                        }
+                    }
+                }
+            } else {
+                try (InputStream in = Files.newInputStream(artifact.toPath())) {
+                    manifest.entries.put(artifact.getName(), DigestUtils.sha256Hex(in));
+                }
+            }
+        } catch (IOException e) {
+            throw new AzureToolkitRuntimeException(String.format("failed to compute content hash of '%s'", artifact.getAbsolutePath()), e);
+        }
+        manifest.digest = DigestUtils.sha256Hex(manifest.entries.entrySet().stream()
+            .map(entry -> entry.getKey() + "=" + entry.getValue()).collect(Collectors.joining("\n")));
+        return manifest;
+    }
+
+    /**
+     * @return names of entries which are added, changed or removed compared with {@code previous}.
+     */
+    @Nonnull
+    public Set<String> diff(@Nullable DeploymentManifest previous) {
+        final Map<String, String> origin = Optional.ofNullable(previous).map(DeploymentManifest::getEntries).orElseGet(TreeMap::new);
+        final Set<String> result = this.entries.entrySet().stream()
+            .filter(entry -> !Objects.equals(origin.get(entry.getKey()), entry.getValue()))
+            .map(Map.Entry::getKey).collect(Collectors.toSet());
+        origin.keySet().stream().filter(name -> !this.entries.containsKey(name)).forEach(result::add);
+        return result;
+    }
+
+    /**
+     * @param key identifies the artifact deployed to the app, e.g. deploy type and target path.
+     * @return true if both the local manifest and the one mirrored in the app match this manifest.
+     */
+    public boolean isDeployedTo(@Nonnull AppServiceAppBase<?, ?, ?> app, @Nonnull String key) {
+        final String name = getManifestName(app, key);
+        final DeploymentManifest local = readLocal(name);
+        if (Objects.isNull(local) || !StringUtils.equals(local.digest, this.digest)) {
+            log.debug("[{}]:{} changed({} entries) since last deployment", app.getName(), key, this.diff(local).size());
+            return false;
+        }
+        final DeploymentManifest remote = readRemote(app, name);
+        return Objects.nonNull(remote) && StringUtils.equals(remote.digest, this.digest);
+    }
+
+    /**
+     * save as the manifest of the last successful deployment of {@code key} to {@code app}.
+     */
+    public void saveAsDeployedTo(@Nonnull AppServiceAppBase<?, ?, ?> app, @Nonnull String key) {
+        final String name = getManifestName(app, key);
+        final String json = JsonUtils.toJson(this);
+        try {
+            Files.createDirectories(LOCAL_DIR);
+            FileUtils.writeStringToFile(LOCAL_DIR.resolve(name).toFile(), json, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.debug("[{}]:failed to save local deployment manifest of {}", app.getName(), key, e);
+        }
+        try {
+            app.uploadFileToPath(json, REMOTE_DIR + name);
+        } catch (RuntimeException e) {
+            log.debug("[{}]:failed to mirror deployment manifest of {} to app", app.getName(), key, e);
+        }
+    }
+
+    @Nullable
+    private static DeploymentManifest readLocal(@Nonnull String name) {
+        final File file = LOCAL_DIR.resolve(name).toFile();
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            return JsonUtils.fromJson(FileUtils.readFileToString(file, StandardCharsets.UTF_8), DeploymentManifest.class);
+        } catch (IOException | RuntimeException e) {
+            log.debug("failed to read local deployment manifest {}", file, e);
+            return null;
+        }
+    }
+
+    @Nullable
+    private static DeploymentManifest readRemote(@Nonnull AppServiceAppBase<?, ?, ?> app, @Nonnull String name) {
+        try {
+            return Optional.ofNullable(FluxUtil.collectBytesInByteBufferStream(app.getFileContent(REMOTE_DIR + name)).block())
+                .filter(bytes -> bytes.length > 0)
+                .map(bytes -> JsonUtils.fromJson(new String(bytes, StandardCharsets.UTF_8), DeploymentManifest.class))
+                .orElse(null);
+        } catch (RuntimeException e) { // not found, or the file api is not available
+            log.debug("[{}]:failed to read deployment manifest {} from app", app.getName(), name, e);
+            return null;
+        }
+    }
+
+    @Nonnull
+    private static String getManifestName(@Nonnull AppServiceAppBase<?, ?, ?> app, @Nonnull String key) {
+        return DigestUtils.sha256Hex(app.getId().toLowerCase() + "|" + key) + ".json";
+    }
+}
@@ -5,76 +5,74 @@
 package com.microsoft.azure.toolkit.lib.appservice.deploy;
 
 import com.azure.resourcemanager.appservice.models.WebAppBase;
-import com.microsoft.azure.storage.CloudStorageAccount;
-import com.microsoft.azure.storage.StorageException;
-import com.microsoft.azure.storage.blob.BlobContainerPermissions;
-import com.microsoft.azure.storage.blob.BlobContainerPublicAccessType;
-import com.microsoft.azure.storage.blob.CloudBlobClient;
-import com.microsoft.azure.storage.blob.CloudBlobContainer;
-import com.microsoft.azure.storage.blob.CloudBlockBlob;
-import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.models.BlobContainerAccessPolicies;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.sas.BlobSasPermission;
+import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
-import com.microsoft.azure.toolkit.lib.legacy.function.AzureStorageHelper;
+import com.microsoft.azure.toolkit.lib.storage.blob.BlobTransferService;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
-import java.net.URISyntaxException;
-import java.time.Period;
+import java.time.OffsetDateTime;
+import java.util.Objects;
 
 import static com.microsoft.azure.toolkit.lib.legacy.function.Constants.APP_SETTING_WEBSITE_RUN_FROM_PACKAGE;
 
 public class RunFromBlobFunctionDeployHandler implements IFunctionDeployHandler {
     private static final int SAS_EXPIRE_DATE_BY_YEAR = 10;
+    private static final int SAS_START_RESERVE_MINUTE = 5;
     private static final String DEPLOYMENT_PACKAGE_CONTAINER = "java-functions-run-from-packages";
     private static final String FAILED_TO_GET_FUNCTION_APP_ARTIFACT_CONTAINER = "Failed to get Function App artifact container";
     private static final String UPDATE_ACCESS_LEVEL_TO_PRIVATE = "The blob container '%s' access level was updated to be private";
 
     @Override
     public void deploy(File file, WebAppBase target) {
-        final CloudStorageAccount storageAccount = DeployUtils.getCloudStorageAccount(target);
+        final BlobServiceClient storageAccount = DeployUtils.getBlobServiceClient(target);
         try {
-            final CloudBlockBlob blob = deployArtifactToAzureStorage(target, file, storageAccount);
-            final String sasToken = AzureStorageHelper.getSASToken(blob, Period.ofYears(SAS_EXPIRE_DATE_BY_YEAR));
+            final BlobClient blob = deployArtifactToAzureStorage(target, file, storageAccount);
+            final OffsetDateTime now = OffsetDateTime.now();
+            final BlobServiceSasSignatureValues values = new BlobServiceSasSignatureValues(now.plusYears(SAS_EXPIRE_DATE_BY_YEAR),
+                new BlobSasPermission().setReadPermission(true)).setStartTime(now.minusMinutes(SAS_START_RESERVE_MINUTE));
+            final String sasToken = String.format("%s?%s", blob.getBlobUrl(), blob.generateSas(values));
             DeployUtils.updateFunctionAppSetting(target, APP_SETTING_WEBSITE_RUN_FROM_PACKAGE, sasToken);
-        } catch (AzureExecutionException e) {
+        } catch (BlobStorageException e) {
             throw new AzureToolkitRuntimeException("Failed to upload package to azure storage", e);
         }
     }
 
-    private CloudBlockBlob deployArtifactToAzureStorage(WebAppBase deployTarget, File zipPackage, CloudStorageAccount storageAccount)
-            throws AzureExecutionException {
+    private BlobClient deployArtifactToAzureStorage(WebAppBase deployTarget, File zipPackage, BlobServiceClient storageAccount) {
         AzureMessager.getMessager().info(String.format(DEPLOY_START, deployTarget.name()));
-        final CloudBlobContainer container = getOrCreateArtifactContainer(storageAccount);
+        final BlobContainerClient container = getOrCreateArtifactContainer(storageAccount);
         final String blobName = getBlobName(deployTarget, zipPackage);
-        final CloudBlockBlob blob = AzureStorageHelper.uploadFileAsBlob(zipPackage, storageAccount,
-                container.getName(), blobName, BlobContainerPublicAccessType.OFF);
+        final BlobClient blob = container.getBlobClient(blobName);
+        BlobTransferService.getInstance().upload(zipPackage.toPath(), blob.getBlockBlobClient(), true);
         AzureMessager.getMessager().info(String.format(DEPLOY_FINISH, deployTarget.defaultHostname()));
         return blob;
     }
 
-    private CloudBlobContainer getOrCreateArtifactContainer(final CloudStorageAccount storageAccount) {
-        final CloudBlobClient blobContainer = storageAccount.createCloudBlobClient();
+    private BlobContainerClient getOrCreateArtifactContainer(final BlobServiceClient storageAccount) {
         try {
-            final CloudBlobContainer container = blobContainer.getContainerReference(DEPLOYMENT_PACKAGE_CONTAINER);
-            if (!container.exists()) {
-                container.createIfNotExists(BlobContainerPublicAccessType.OFF, null, null);
-            } else {
+            final BlobContainerClient container = storageAccount.getBlobContainerClient(DEPLOYMENT_PACKAGE_CONTAINER);
+            if (!container.createIfNotExists()) { // avoid the race between checking existence and creating
                 updateContainerPublicAccessLevel(container);
             }
             return container;
-        } catch (URISyntaxException | StorageException e) {
+        } catch (BlobStorageException e) {
             throw new AzureToolkitRuntimeException(FAILED_TO_GET_FUNCTION_APP_ARTIFACT_CONTAINER, e);
         }
     }
 
-    private void updateContainerPublicAccessLevel(final CloudBlobContainer container) throws StorageException {
-        final BlobContainerPermissions permissions = container.downloadPermissions();
-        if (permissions.getPublicAccess() == BlobContainerPublicAccessType.OFF) {
+    private void updateContainerPublicAccessLevel(final BlobContainerClient container) {
+        final BlobContainerAccessPolicies policies = container.getAccessPolicy();
+        if (Objects.isNull(policies.getBlobAccessType())) {
             return;
         }
-        permissions.setPublicAccess(BlobContainerPublicAccessType.OFF);
-        container.uploadPermissions(permissions);
+        container.setAccessPolicy(null, policies.getIdentifiers());
         AzureMessager.getMessager().info(String.format(UPDATE_ACCESS_LEVEL_TO_PRIVATE, DEPLOYMENT_PACKAGE_CONTAINER));
     }
 
@@ -15,8 +15,11 @@ import com.azure.core.annotation.PathParam;
 import com.azure.core.annotation.Post;
 import com.azure.core.annotation.Put;
 import com.azure.core.annotation.ServiceInterface;
+import com.azure.core.credential.TokenCredential;
+import com.azure.core.http.HttpClient;
 import com.azure.core.http.HttpPipeline;
 import com.azure.core.http.HttpPipelineBuilder;
+import com.azure.core.http.policy.BearerTokenAuthenticationPolicy;
 import com.azure.core.http.policy.HttpPipelinePolicy;
 import com.azure.core.http.rest.Response;
 import com.azure.core.http.rest.RestProxy;
@@ -24,15 +27,19 @@ import com.azure.core.http.rest.StreamResponse;
 import com.azure.core.management.serializer.SerializerFactory;
 import com.azure.resourcemanager.appservice.models.KuduAuthenticationPolicy;
 import com.azure.resourcemanager.appservice.models.WebAppBase;
+import com.azure.resourcemanager.resources.fluentcore.arm.ResourceId;
 import com.azure.resourcemanager.resources.fluentcore.policy.AuthenticationPolicy;
 import com.azure.resourcemanager.resources.fluentcore.policy.AuxiliaryAuthenticationPolicy;
 import com.azure.resourcemanager.resources.fluentcore.policy.ProviderRegistrationPolicy;
+import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.appservice.AppServiceAppBase;
 import com.microsoft.azure.toolkit.lib.appservice.model.AppServiceFile;
 import com.microsoft.azure.toolkit.lib.appservice.model.CommandOutput;
 import com.microsoft.azure.toolkit.lib.appservice.model.ProcessInfo;
 import com.microsoft.azure.toolkit.lib.appservice.model.TunnelStatus;
 import com.microsoft.azure.toolkit.lib.appservice.utils.Utils;
+import com.microsoft.azure.toolkit.lib.auth.Account;
+import com.microsoft.azure.toolkit.lib.auth.AzureAccount;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
 import lombok.Data;
@@ -64,15 +71,7 @@ public class AppServiceKuduClient implements IFileClient, IProcessClient {
     public static AppServiceKuduClient getClient(@Nonnull WebAppBase webAppBase, @Nonnull AppServiceAppBase<?, ?, ?> appService) {
         // refers : https://github.com/Azure/azure-sdk-for-java/blob/master/sdk/resourcemanager/azure-resourcemanager-appservice/src/main/java/
         // com/azure/resourcemanager/appservice/implementation/KuduClient.java
-        if (webAppBase.defaultHostname() == null) {
-            throw new AzureToolkitRuntimeException("Cannot initialize kudu client before web app is created");
-        }
-        String host = webAppBase.defaultHostname().toLowerCase(Locale.ROOT)
-            .replace("http://", "")
-            .replace("https://", "");
-        String[] parts = host.split("\\.", 2);
-        host = parts[0] + ".scm." + parts[1];
-        host = "https://" + host;
+        final String host = getKuduHost(webAppBase);
 
         final List<HttpPipelinePolicy> policies = Utils.getPolicyFromPipeline(webAppBase.manager().httpPipeline(), policy ->
                 !(policy instanceof AuthenticationPolicy || policy instanceof ProviderRegistrationPolicy || policy instanceof AuxiliaryAuthenticationPolicy));
@@ -87,6 +86,36 @@ public class AppServiceKuduClient implements IFileClient, IProcessClient {
         return new AppServiceKuduClient(host, kuduService, appService);
     }
 
+    /**
+     * @return pipeline to kudu of the app authenticated by AAD tokens of the signed-in account, which works even if basic
+     * auth publishing credentials of the app are disabled.
+     */
+    @Nonnull
+    public static HttpPipeline getAadHttpPipeline(@Nonnull WebAppBase webAppBase, @Nonnull HttpClient httpClient) {
+        final List<HttpPipelinePolicy> policies = Utils.getPolicyFromPipeline(webAppBase.manager().httpPipeline(), policy ->
+                !(policy instanceof AuthenticationPolicy || policy instanceof ProviderRegistrationPolicy || policy instanceof AuxiliaryAuthenticationPolicy));
+        final Account account = Azure.az(AzureAccount.class).account();
+        final String scope = StringUtils.removeEnd(account.getEnvironment().getManagementEndpoint(), "/") + "/.default";
+        final TokenCredential credential = account.getTokenCredential(ResourceId.fromString(webAppBase.id()).subscriptionId());
+        policies.add(new BearerTokenAuthenticationPolicy(credential, scope));
+        return new HttpPipelineBuilder()
+                .policies(policies.toArray(new HttpPipelinePolicy[0]))
+                .httpClient(httpClient)
+                .build();
+    }
+
+    @Nonnull
+    public static String getKuduHost(@Nonnull WebAppBase webAppBase) {
+        if (webAppBase.defaultHostname() == null) {
+            throw new AzureToolkitRuntimeException("Cannot initialize kudu client before web app is created");
+        }
+        final String host = webAppBase.defaultHostname().toLowerCase(Locale.ROOT)
+            .replace("http://", "")
+            .replace("https://", "");
+        final String[] parts = host.split("\\.", 2);
+        return "https://" + parts[0] + ".scm." + parts[1];
+    }
+
     public Flux<ByteBuffer> getFileContent(final String path) {
         final String fixedPath = StringUtils.removeStart(path, HOME_PREFIX);
         return this.kuduService.getFileContent(host, fixedPath).flatMapMany(StreamResponse::getValue);
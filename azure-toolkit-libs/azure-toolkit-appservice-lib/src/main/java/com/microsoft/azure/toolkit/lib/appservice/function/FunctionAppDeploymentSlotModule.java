@@ -54,6 +54,12 @@ public class FunctionAppDeploymentSlotModule extends AbstractAzResourceModule<Fu
         return new FunctionAppDeploymentSlot(name, this);
     }
 
+    @Nullable
+    @Override
+    protected Object getRemoteFingerprint(@Nonnull WebSiteBase remote) {
+        return getInnerModelFingerprint(remote);
+    }
+
     @Nonnull
     @Override
     public String getResourceTypeName() {
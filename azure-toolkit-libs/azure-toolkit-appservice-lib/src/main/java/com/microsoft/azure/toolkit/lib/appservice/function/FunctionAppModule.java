@@ -58,6 +58,12 @@ public class FunctionAppModule extends AbstractAzResourceModule<FunctionApp, App
         return new FunctionApp(name, Objects.requireNonNull(resourceGroupName), this);
     }
 
+    @Nullable
+    @Override
+    protected Object getRemoteFingerprint(@Nonnull WebSiteBase remote) {
+        return getInnerModelFingerprint(remote);
+    }
+
     @Nonnull
     @Override
     public String getResourceTypeName() {
@@ -31,6 +31,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -94,6 +95,10 @@ public class AzureFunctionPackager extends AzureFunctionPackagerBase {
 
     @AzureOperation(name = "function.prepare_staging_folder")
     public void packageProject(FunctionProject project, boolean installExtension, String funcPath) {
+        final Map<String, String> fingerprint = project.isIncrementalStaging() ? getStagingFingerprint(project, installExtension, funcPath) : null;
+        if (IncrementalStaging.skipIfUpToDate(project.getStagingFolder(), fingerprint)) {
+            return;
+        }
         final List<FunctionMethod> methods = findAnnotatedMethodsInner(project);
 
         if (methods.isEmpty()) {
@@ -119,12 +124,24 @@ public class AzureFunctionPackager extends AzureFunctionPackagerBase {
             if (isInstallingExtensionNeeded(!installExtension, project, bindingEnums)) {
                 installExtensionStep(project, funcPath);
             }
+            IncrementalStaging.save(project.getStagingFolder(), fingerprint);
             AzureMessager.getMessager().info(BUILD_SUCCESS);
         } catch (IOException e) {
             throw new AzureToolkitRuntimeException("Cannot perform IO operations due to error:" + e.getMessage(), e);
         }
     }
 
+    private static Map<String, String> getStagingFingerprint(FunctionProject project, boolean installExtension, String funcPath) {
+        final List<File> inputs = new ArrayList<>(project.getDependencies());
+        inputs.add(project.getClassesOutputDirectory());
+        inputs.add(project.getArtifactFile());
+        inputs.add(ObjectUtils.firstNonNull(project.getHostJsonFile(), new File(project.getBaseDirectory(), HOST_JSON)));
+        inputs.add(ObjectUtils.firstNonNull(project.getLocalSettingsJsonFile(), new File(project.getBaseDirectory(), LOCAL_SETTINGS_JSON)));
+        final Map<String, String> fingerprint = IncrementalStaging.fingerprint(inputs);
+        fingerprint.put("installExtension", installExtension + ":" + funcPath);
+        return fingerprint;
+    }
+
     @AzureOperation(name = "function.list_function_methods", params = {"project.getName()"})
     private List<FunctionMethod> findAnnotatedMethodsInner(FunctionProject project) {
         AzureMessager.getMessager().info(LINE_FEED + SEARCH_FUNCTIONS);
@@ -182,7 +199,11 @@ public class AzureFunctionPackager extends AzureFunctionPackagerBase {
         AzureMessager.getMessager().info(SAVE_FUNCTION_JSON + functionName);
         final File functionJsonFile = Paths.get(project.getStagingFolder().getAbsolutePath(),
             functionName, FUNCTION_JSON).toFile();
-        writeObjectToFile(objectWriter, config, functionJsonFile);
+        if (project.isIncrementalStaging()) {
+            IncrementalStaging.writeIfChanged(functionJsonFile, objectWriter.writeValueAsBytes(config));
+        } else {
+            writeObjectToFile(objectWriter, config, functionJsonFile);
+        }
         AzureMessager.getMessager().info(SAVE_SUCCESS + functionJsonFile.getAbsolutePath());
     }
 
@@ -190,7 +211,7 @@ public class AzureFunctionPackager extends AzureFunctionPackagerBase {
         AzureMessager.getMessager().info(LINE_FEED + SAVING_HOST_JSON);
         final File sourceHostJsonFile = ObjectUtils.firstNonNull(project.getHostJsonFile(), new File(project.getBaseDirectory(), HOST_JSON));
         final File destHostJsonFile = Paths.get(project.getStagingFolder().getAbsolutePath(), HOST_JSON).toFile();
-        copyFilesWithDefaultContent(sourceHostJsonFile, destHostJsonFile, DEFAULT_HOST_JSON);
+        copyFilesWithDefaultContent(sourceHostJsonFile, destHostJsonFile, DEFAULT_HOST_JSON, project.isIncrementalStaging());
         AzureMessager.getMessager().info(SAVE_SUCCESS + destHostJsonFile.getAbsolutePath());
     }
 
@@ -198,14 +219,20 @@ public class AzureFunctionPackager extends AzureFunctionPackagerBase {
         AzureMessager.getMessager().info(LINE_FEED + SAVING_LOCAL_SETTINGS_JSON);
         final File sourceLocalSettingsJsonFile = ObjectUtils.firstNonNull(project.getLocalSettingsJsonFile(), new File(project.getBaseDirectory(), LOCAL_SETTINGS_JSON));
         final File destLocalSettingsJsonFile = Paths.get(project.getStagingFolder().getAbsolutePath(), LOCAL_SETTINGS_JSON).toFile();
-        copyFilesWithDefaultContent(sourceLocalSettingsJsonFile, destLocalSettingsJsonFile, DEFAULT_LOCAL_SETTINGS_JSON);
+        copyFilesWithDefaultContent(sourceLocalSettingsJsonFile, destLocalSettingsJsonFile, DEFAULT_LOCAL_SETTINGS_JSON, project.isIncrementalStaging());
         AzureMessager.getMessager().info(SAVE_SUCCESS + destLocalSettingsJsonFile.getAbsolutePath());
     }
 
-    private static void copyFilesWithDefaultContent(File source, File dest, String defaultContent)
+    private static void copyFilesWithDefaultContent(File source, File dest, String defaultContent, boolean incremental)
         throws IOException {
         if (source != null && source.exists()) {
-            FileUtils.copyFile(source, dest);
+            if (incremental) {
+                IncrementalStaging.copyIfChanged(source, dest);
+            } else {
+                FileUtils.copyFile(source, dest);
+            }
+        } else if (incremental) {
+            IncrementalStaging.writeIfChanged(dest, defaultContent.getBytes(Charset.defaultCharset()));
         } else {
             FileUtils.write(dest, defaultContent, Charset.defaultCharset());
         }
@@ -231,6 +258,13 @@ public class AzureFunctionPackager extends AzureFunctionPackagerBase {
         final String stagingDirectory = project.getStagingFolder().getAbsolutePath();
         AzureMessager.getMessager().info(LINE_FEED + COPY_JARS + stagingDirectory);
         final File libFolder = Paths.get(stagingDirectory, "lib").toFile();
+        if (project.isIncrementalStaging()) {
+            final int updated = IncrementalStaging.syncFiles(project.getDependencies(), libFolder);
+            IncrementalStaging.linkOrCopyIfChanged(project.getArtifactFile(), new File(stagingDirectory, project.getArtifactFile().getName()));
+            AzureMessager.getMessager().info(String.format("%d of %d dependencies updated.", updated, project.getDependencies().size()));
+            AzureMessager.getMessager().info(COPY_SUCCESS);
+            return;
+        }
         if (libFolder.exists()) {
             FileUtils.cleanDirectory(libFolder);
         }
@@ -25,6 +25,11 @@ public abstract class FunctionProject {
     private File hostJsonFile;
     private File localSettingsJsonFile;
 
+    /**
+     * only update outputs whose inputs changed since last staging, see {@link IncrementalStaging}
+     */
+    private boolean incrementalStaging;
+
     public abstract List<FunctionMethod> findAnnotatedMethods();
 
     public abstract void installExtension(String funcPath);
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.appservice.function.core;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * helpers of incremental function staging: inputs (classes, host.json...) are fingerprinted by path and content hash
+ * (jars by path, size and modification time), the fingerprint of the last successful staging is kept next to (not in)
+ * the staging folder, so that unchanged staging folders are not regenerated. outputs are only rewritten when their content changes
+ * and dependencies are hard linked instead of copied where the file system allows.
+ */
+@Slf4j
+public class IncrementalStaging {
+    public static final String STAGING_UP_TO_DATE = "Classes, dependencies and configurations are not changed since last build, skip staging.";
+    private static final String FINGERPRINT_SUFFIX = ".fingerprint.json";
+
+    /**
+     * @param inputs files or directories(all files in them are included), missing ones are recorded as missing.
+     */
+    @Nonnull
+    public static Map<String, String> fingerprint(@Nonnull Collection<File> inputs) {
+        final Map<String, String> result = new TreeMap<>();
+        for (final File input : inputs) {
+            if (Objects.isNull(input)) {
+                continue;
+            }
+            if (input.isDirectory()) {
+                try (Stream<Path> files = Files.walk(input.toPath())) {
+                    files.filter(Files::isRegularFile).map(Path::toFile).forEach(f -> result.put(getKey(f), getStamp(f)));
+                } catch (IOException e) {
+                    result.put(getKey(input), "unreadable");
+                }
+            } else {
+                result.put(getKey(input), input.isFile() ? getStamp(input) : "missing");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * called before staging: the fingerprint of the last staging is always invalidated unless staging is skipped, since
+     * the staging folder is about to be regenerated and a failure in the middle must not leave it "up-to-date".
+     *
+     * @param fingerprint fingerprint of current inputs, null if incremental staging is disabled.
+     * @return true if {@code stagingFolder} is up-to-date and staging should be skipped.
+     */
+    public static boolean skipIfUpToDate(@Nonnull File stagingFolder, @Nullable Map<String, String> fingerprint) {
+        if (Objects.nonNull(fingerprint) && isUpToDate(stagingFolder, fingerprint)) {
+            AzureMessager.getMessager().info(STAGING_UP_TO_DATE);
+            return true;
+        }
+        invalidate(stagingFolder);
+        return false;
+    }
+
+    public static boolean isUpToDate(@Nonnull File stagingFolder, @Nonnull Map<String, String> fingerprint) {
+        final File file = getFingerprintFile(stagingFolder);
+        if (!stagingFolder.isDirectory() || !file.isFile()) {
+            return false;
+        }
+        try {
+            final Map<String, String> previous = JsonUtils.fromJson(FileUtils.readFileToString(file, StandardCharsets.UTF_8),
+                new TypeReference<TreeMap<String, String>>() {
+                });
+            return Objects.equals(previous, fingerprint);
+        } catch (IOException | RuntimeException e) {
+            log.debug("failed to read staging fingerprint {}", file, e);
+            return false;
+        }
+    }
+
+    /**
+     * save as the fingerprint of the last successful staging, nothing is saved if {@code fingerprint} is null.
+     */
+    public static void save(@Nonnull File stagingFolder, @Nullable Map<String, String> fingerprint) {
+        if (Objects.isNull(fingerprint)) {
+            return;
+        }
+        final File file = getFingerprintFile(stagingFolder);
+        try {
+            FileUtils.writeStringToFile(file, JsonUtils.toJson(fingerprint), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.debug("failed to save staging fingerprint {}", file, e);
+        }
+    }
+
+    /**
+     * forget the last successful staging, called before (re)generating the staging folder.
+     */
+    public static void invalidate(@Nonnull File stagingFolder) {
+        FileUtils.deleteQuietly(getFingerprintFile(stagingFolder));
+    }
+
+    /**
+     * @return true if {@code dest} is written, false if it has the same content already.
+     */
+    public static boolean writeIfChanged(@Nonnull File dest, @Nonnull byte[] content) throws IOException {
+        if (dest.isFile() && dest.length() == content.length && Arrays.equals(Files.readAllBytes(dest.toPath()), content)) {
+            return false;
+        }
+        FileUtils.writeByteArrayToFile(dest, content);
+        return true;
+    }
+
+    /**
+     * @return true if {@code dest} is written, false if it has the same content already.
+     */
+    public static boolean copyIfChanged(@Nonnull File source, @Nonnull File dest) throws IOException {
+        if (dest.isFile() && FileUtils.contentEquals(source, dest)) {
+            return false;
+        }
+        FileUtils.copyFile(source, dest);
+        return true;
+    }
+
+    /**
+     * make {@code dir} contain exactly {@code files}(by file name): files of same size and modification time are kept,
+     * others are hard linked(or copied if linking is not supported) and files not in {@code files} are removed.
+     *
+     * @return number of files linked or copied.
+     */
+    public static int syncFiles(@Nonnull Collection<File> files, @Nonnull File dir) throws IOException {
+        Files.createDirectories(dir.toPath());
+        final Set<String> names = new HashSet<>();
+        int updated = 0;
+        for (final File file : files) {
+            names.add(file.getName());
+            if (linkOrCopyIfChanged(file, new File(dir, file.getName()))) {
+                updated++;
+            }
+        }
+        final File[] existing = Optional.ofNullable(dir.listFiles()).orElse(new File[0]);
+        for (final File file : existing) {
+            if (!names.contains(file.getName())) {
+                FileUtils.forceDelete(file);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * @return true if {@code dest} is linked or copied, false if it is up-to-date already.
+     */
+    public static boolean linkOrCopyIfChanged(@Nonnull File source, @Nonnull File dest) throws IOException {
+        if (Objects.equals(source.getCanonicalFile(), dest.getCanonicalFile())) {
+            return false;
+        }
+        if (dest.isFile() && dest.length() == source.length() && dest.lastModified() == source.lastModified()) {
+            return false;
+        }
+        Files.createDirectories(dest.getParentFile().toPath());
+        Files.deleteIfExists(dest.toPath());
+        try {
+            Files.createLink(dest.toPath(), source.toPath());
+        } catch (IOException | UnsupportedOperationException | SecurityException e) { // e.g. across file systems
+            log.debug("failed to link {} to {}, copy instead", dest, source, e);
+            Files.copy(source.toPath(), dest.toPath(), StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
+    }
+
+    @Nonnull
+    private static File getFingerprintFile(@Nonnull File stagingFolder) {
+        final File folder = stagingFolder.getAbsoluteFile();
+        return new File(folder.getParentFile(), "." + folder.getName() + FINGERPRINT_SUFFIX);
+    }
+
+    @Nonnull
+    private static String getKey(@Nonnull File file) {
+        return FilenameUtils.separatorsToUnix(file.getAbsolutePath());
+    }
+
+    /**
+     * content hash, so that rebuilt but unchanged classes are still up-to-date. jars(mostly dependencies, which are
+     * large and rarely rewritten in place) are stamped by size and modification time instead.
+     */
+    @Nonnull
+    private static String getStamp(@Nonnull File file) {
+        if (StringUtils.endsWithIgnoreCase(file.getName(), ".jar")) {
+            return file.length() + ":" + file.lastModified();
+        }
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            return DigestUtils.sha256Hex(in);
+        } catch (IOException e) {
+            return "unreadable";
+        }
+    }
+}
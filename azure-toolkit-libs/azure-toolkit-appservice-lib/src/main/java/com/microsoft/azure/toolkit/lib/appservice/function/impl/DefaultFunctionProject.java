@@ -13,12 +13,9 @@ import com.microsoft.azure.toolkit.lib.legacy.function.handlers.CommandHandler;
 import com.microsoft.azure.toolkit.lib.legacy.function.handlers.CommandHandlerImpl;
 import com.microsoft.azure.toolkit.lib.legacy.function.handlers.FunctionCoreToolsHandler;
 import com.microsoft.azure.toolkit.lib.legacy.function.handlers.FunctionCoreToolsHandlerImpl;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.ClassUtils;
-import org.reflections.Reflections;
-import org.reflections.scanners.Scanners;
-import org.reflections.util.ConfigurationBuilder;
 
 import javax.annotation.Nonnull;
 import java.lang.annotation.Annotation;
@@ -38,10 +35,13 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import static com.microsoft.azure.toolkit.lib.appservice.function.core.AzureFunctionsAnnotationConstants.FUNCTION_NAME;
-
 @Slf4j
 public class DefaultFunctionProject extends FunctionProject {
+    /**
+     * whether to search functions in dependencies too, only classes of the project itself are scanned by default.
+     */
+    @Setter
+    private boolean scanDependencies = false;
 
     @Override
     public List<FunctionMethod> findAnnotatedMethods() {
@@ -51,11 +51,13 @@ public class DefaultFunctionProject extends FunctionProject {
                 log.debug("ClassPath to resolve: " + getTargetClassUrl());
                 final List<URL> dependencyWithTargetClass = getDependencyArtifactUrls();
                 dependencyWithTargetClass.add(getTargetClassUrl());
-                methods = findFunctions(dependencyWithTargetClass);
+                final List<URL> scanUrls = scanDependencies ? dependencyWithTargetClass : Collections.singletonList(getTargetClassUrl());
+                methods = findFunctions(scanUrls, dependencyWithTargetClass);
             } catch (NoClassDefFoundError e) {
                 // fallback to reflect through artifact url, for shaded project(fat jar)
                 log.debug("ClassPath to resolve: " + getArtifactUrl());
-                methods = findFunctions(Collections.singletonList(getArtifactUrl()));
+                final List<URL> artifactUrl = Collections.singletonList(getArtifactUrl());
+                methods = findFunctions(artifactUrl, artifactUrl);
             }
             return methods.stream().map(DefaultFunctionProject::create).collect(Collectors.toList());
         } catch (MalformedURLException e) {
@@ -95,15 +97,8 @@ public class DefaultFunctionProject extends FunctionProject {
         return urlList;
     }
 
-    private static Set<Method> findFunctions(final List<URL> urls) {
-        try {
-            final ClassLoader classLoader = getClassLoader(urls);
-            final Class<?> functionNameAnnotation = ClassUtils.getClass(classLoader, FUNCTION_NAME);
-            final ConfigurationBuilder builder = new ConfigurationBuilder().addUrls(urls).setScanners(Scanners.MethodsAnnotated).addClassLoaders(classLoader);
-            return new Reflections(builder).getMethodsAnnotatedWith((Class<? extends Annotation>) functionNameAnnotation);
-        } catch (ClassNotFoundException e) {
-            throw new AzureToolkitRuntimeException(e);
-        }
+    private static Set<Method> findFunctions(final List<URL> scanUrls, final List<URL> classPathUrls) {
+        return FunctionClassScanner.findFunctions(scanUrls, getClassLoader(classPathUrls));
     }
 
     private static ClassLoader getClassLoader(final List<URL> urlList) {
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.appservice.function.impl;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.MethodInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ClassUtils;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static com.microsoft.azure.toolkit.lib.appservice.function.core.AzureFunctionsAnnotationConstants.FUNCTION_NAME;
+
+/**
+ * finds functions by reading class files(directories or jars) with javassist instead of loading and reflecting every
+ * class on the class path, only classes declaring {@code @FunctionName} methods are loaded afterwards (without being
+ * initialized) to build the function model. class files are read in parallel.
+ */
+@Slf4j
+public class FunctionClassScanner {
+    private static final String CLASS_SUFFIX = ".class";
+
+    /**
+     * @param urls directories or jars to scan
+     * @return sorted names of classes declaring methods annotated with {@code @FunctionName}
+     */
+    @Nonnull
+    public static Set<String> scan(@Nonnull final Collection<URL> urls) {
+        final Set<String> result = new ConcurrentSkipListSet<>();
+        for (final URL url : urls) {
+            final File file = toFile(url);
+            if (file.isDirectory()) {
+                scanDirectory(file.toPath(), result);
+            } else if (file.isFile()) {
+                scanJar(file, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param scanUrls    directories or jars to scan for functions
+     * @param classLoader class loader to load the function classes and their dependencies
+     * @return methods annotated with {@code @FunctionName}
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public static Set<Method> findFunctions(@Nonnull final Collection<URL> scanUrls, @Nonnull final ClassLoader classLoader) {
+        final Set<String> classes = scan(scanUrls);
+        log.debug("{} class(es) declaring functions found in {}", classes.size(), scanUrls);
+        if (classes.isEmpty()) {
+            return Collections.emptySet();
+        }
+        try {
+            final Class<? extends Annotation> functionName = (Class<? extends Annotation>) ClassUtils.getClass(classLoader, FUNCTION_NAME);
+            final Set<Method> result = new LinkedHashSet<>();
+            for (final String name : classes) {
+                final Class<?> clazz = Class.forName(name, false, classLoader);
+                Arrays.stream(clazz.getDeclaredMethods()).filter(m -> m.isAnnotationPresent(functionName)).forEach(result::add);
+            }
+            return result;
+        } catch (final ClassNotFoundException e) {
+            throw new AzureToolkitRuntimeException(e);
+        }
+    }
+
+    private static void scanDirectory(@Nonnull final Path root, @Nonnull final Set<String> result) {
+        try (Stream<Path> files = Files.walk(root)) {
+            final List<Path> classFiles = files.filter(f -> f.getFileName().toString().endsWith(CLASS_SUFFIX))
+                .filter(Files::isRegularFile).collect(Collectors.toList());
+            classFiles.parallelStream().forEach(f -> {
+                try (InputStream in = Files.newInputStream(f)) {
+                    scanClass(in, f.toString(), result);
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (final IOException | UncheckedIOException e) {
+            throw new AzureToolkitRuntimeException(String.format("failed to scan functions in '%s'", root), e);
+        }
+    }
+
+    private static void scanJar(@Nonnull final File jar, @Nonnull final Set<String> result) {
+        try (ZipFile zip = new ZipFile(jar)) {
+            final List<? extends ZipEntry> entries = zip.stream()
+                .filter(e -> !e.isDirectory() && e.getName().endsWith(CLASS_SUFFIX) && !e.getName().startsWith("META-INF/"))
+                .collect(Collectors.toList());
+            entries.parallelStream().forEach(e -> {
+                try (InputStream in = zip.getInputStream(e)) {
+                    scanClass(in, e.getName(), result);
+                } catch (final IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (final IOException | UncheckedIOException e) {
+            throw new AzureToolkitRuntimeException(String.format("failed to scan functions in '%s'", jar), e);
+        }
+    }
+
+    private static void scanClass(@Nonnull final InputStream in, @Nonnull final String path, @Nonnull final Set<String> result) throws IOException {
+        final ClassFile classFile;
+        try {
+            classFile = new ClassFile(new DataInputStream(new BufferedInputStream(in)));
+        } catch (final RuntimeException | IOException e) { // e.g. class files of unsupported versions
+            log.debug("skip invalid class file {}", path, e);
+            return;
+        }
+        for (final MethodInfo method : classFile.getMethods()) {
+            final AnnotationsAttribute annotations = (AnnotationsAttribute) method.getAttribute(AnnotationsAttribute.visibleTag);
+            if (Objects.nonNull(annotations) && Objects.nonNull(annotations.getAnnotation(FUNCTION_NAME))) {
+                result.add(classFile.getName());
+                return;
+            }
+        }
+    }
+
+    @Nonnull
+    private static File toFile(@Nonnull final URL url) {
+        try {
+            return Paths.get(url.toURI()).toFile();
+        } catch (final URISyntaxException | IllegalArgumentException e) {
+            return new File(url.getFile());
+        }
+    }
+}
@@ -51,6 +51,12 @@ public class AppServicePlanModule extends AbstractAzResourceModule<AppServicePla
         return new AppServicePlan(name, Objects.requireNonNull(resourceGroupName), this);
     }
 
+    @Nullable
+    @Override
+    protected Object getRemoteFingerprint(@Nonnull com.azure.resourcemanager.appservice.models.AppServicePlan remote) {
+        return getInnerModelFingerprint(remote);
+    }
+
     @Nonnull
     @Override
     public String getResourceTypeName() {
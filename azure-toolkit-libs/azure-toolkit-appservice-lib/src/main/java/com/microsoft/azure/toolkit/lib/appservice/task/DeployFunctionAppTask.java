@@ -5,19 +5,21 @@
 package com.microsoft.azure.toolkit.lib.appservice.task;
 
 import com.azure.core.management.exception.ManagementException;
+import com.microsoft.azure.toolkit.lib.appservice.deploy.DeploymentManifest;
 import com.microsoft.azure.toolkit.lib.appservice.entity.FunctionEntity;
 import com.microsoft.azure.toolkit.lib.appservice.function.FunctionApp;
 import com.microsoft.azure.toolkit.lib.appservice.function.FunctionAppBase;
 import com.microsoft.azure.toolkit.lib.appservice.model.FunctionDeployType;
+import com.microsoft.azure.toolkit.lib.appservice.utils.ZipPackager;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
 import com.microsoft.azure.toolkit.lib.common.operation.OperationContext;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
+import lombok.Setter;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.zeroturnaround.zip.ZipUtil;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import reactor.util.retry.Retry;
@@ -26,7 +28,6 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
@@ -63,6 +64,11 @@ public class DeployFunctionAppTask extends AzureTask<FunctionAppBase<?, ?, ?>> {
     private final File stagingDirectory;
     private final FunctionDeployType deployType;
     private final IAzureMessager messager;
+    /**
+     * skip deployment if the content of staging directory is not changed since the last successful incremental deployment.
+     */
+    @Setter
+    private boolean incremental = false;
 
     public DeployFunctionAppTask(@Nonnull FunctionAppBase<?, ?, ?> target, @Nonnull File stagingFolder, @Nullable FunctionDeployType deployType) {
         this(target, stagingFolder, deployType, AzureMessager.getMessager());
@@ -96,6 +102,13 @@ public class DeployFunctionAppTask extends AzureTask<FunctionAppBase<?, ?, ?>> {
 
     private void deployArtifact() {
         messager.info(DEPLOY_START);
+        final String manifestKey = "function:" + Optional.ofNullable(deployType).map(Enum::name).orElse("default");
+        final DeploymentManifest manifest = incremental ? DeploymentManifest.of(stagingDirectory, LOCAL_SETTINGS_FILE) : null;
+        if (Objects.nonNull(manifest) && manifest.isDeployedTo(target, manifestKey)) {
+            messager.info("Skip deployment since the staging directory is not changed since last deployment.");
+            OperationContext.action().setTelemetryProperty("deploy-skipped", String.valueOf(true));
+            return;
+        }
         // For ftp deploy, we need to upload entire staging directory not the zipped package
         final File file = deployType == FunctionDeployType.FTP ? stagingDirectory : packageStagingDirectory();
         final long startTime = System.currentTimeMillis();
@@ -105,6 +118,7 @@ public class DeployFunctionAppTask extends AzureTask<FunctionAppBase<?, ?, ?>> {
             target.deploy(file, deployType);
         }
         OperationContext.action().setTelemetryProperty("deploy-cost", String.valueOf(System.currentTimeMillis() - startTime));
+        Optional.ofNullable(manifest).ifPresent(m -> m.saveAsDeployedTo(target, manifestKey));
         if (!StringUtils.equalsIgnoreCase(target.getStatus(), RUNNING)) {
             target.start();
         }
@@ -113,10 +127,7 @@ public class DeployFunctionAppTask extends AzureTask<FunctionAppBase<?, ?, ?>> {
 
     private File packageStagingDirectory() {
         try {
-            final File zipFile = Files.createTempFile("azure-functions", ".zip").toFile();
-            ZipUtil.pack(stagingDirectory, zipFile);
-            ZipUtil.removeEntry(zipFile, LOCAL_SETTINGS_FILE);
-            return zipFile;
+            return ZipPackager.pack(stagingDirectory, name -> !StringUtils.equals(name, LOCAL_SETTINGS_FILE));
         } catch (IOException e) {
             throw new AzureToolkitRuntimeException("Failed to package function to deploy", e);
         }
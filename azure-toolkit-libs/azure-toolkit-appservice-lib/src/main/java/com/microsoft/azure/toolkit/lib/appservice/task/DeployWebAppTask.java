@@ -5,8 +5,11 @@
 
 package com.microsoft.azure.toolkit.lib.appservice.task;
 
+import com.azure.core.exception.HttpResponseException;
+import com.microsoft.azure.toolkit.lib.appservice.deploy.DeploymentManifest;
 import com.microsoft.azure.toolkit.lib.appservice.model.CsmDeploymentStatus;
 import com.microsoft.azure.toolkit.lib.appservice.model.DeployOptions;
+import com.microsoft.azure.toolkit.lib.appservice.model.DeployType;
 import com.microsoft.azure.toolkit.lib.appservice.model.DeploymentBuildStatus;
 import com.microsoft.azure.toolkit.lib.appservice.model.ErrorEntity;
 import com.microsoft.azure.toolkit.lib.appservice.model.KuduDeploymentResult;
@@ -18,21 +21,38 @@ import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import com.microsoft.azure.toolkit.lib.common.operation.OperationContext;
+import com.microsoft.azure.toolkit.lib.common.operation.OperationThreadContext;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
 import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+@Slf4j
 public class DeployWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
     private static final String SKIP_DEPLOYMENT_FOR_DOCKER_APP_SERVICE = "Skip deployment for docker webapp, " +
             "you can navigate to %s to access your docker webapp.";
@@ -42,6 +62,10 @@ public class DeployWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
     private static final String START_APP_DONE = "Successfully started Web App.";
     private static final int DEFAULT_DEPLOYMENT_STATUS_REFRESH_INTERVAL = 10;
     private static final int DEFAULT_DEPLOYMENT_STATUS_MAX_REFRESH_TIMES = 20;
+    private static final int DEFAULT_DEPLOY_PARALLELISM = 1;
+    private static final int DEFAULT_DEPLOY_MAX_ATTEMPTS = 3;
+    private static final int DEPLOY_RETRY_MIN_BACKOFF = 5;
+    private static final List<DeployType> INDEPENDENT_DEPLOY_TYPES = Arrays.asList(DeployType.STATIC, DeployType.JAR_LIB, DeployType.SCRIPT, DeployType.SCRIPT_STARTUP);
 
     private final WebAppBase<?, ?, ?> webApp;
     private final List<WebAppArtifact> artifacts;
@@ -53,6 +77,27 @@ public class DeployWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
     private long deploymentStatusRefreshInterval = DEFAULT_DEPLOYMENT_STATUS_REFRESH_INTERVAL;
     @Setter
     private long deploymentStatusMaxRefreshTimes = DEFAULT_DEPLOYMENT_STATUS_MAX_REFRESH_TIMES;
+    /**
+     * max number of independent artifacts (static files, libs and scripts) deployed concurrently, 1(by default) to
+     * deploy one by one. kudu may reject concurrent deployments with 409 while another one holds the deployment lock,
+     * which is retried.
+     */
+    @Setter
+    private int deployParallelism = DEFAULT_DEPLOY_PARALLELISM;
+    /**
+     * max attempts of deploying an artifact when the deployment fails for transient (network/5xx/429) errors.
+     */
+    @Setter
+    private int deployMaxAttempts = DEFAULT_DEPLOY_MAX_ATTEMPTS;
+    /**
+     * skip artifacts whose content is not changed since the last successful incremental deployment.
+     */
+    @Setter
+    private boolean incremental = false;
+    /**
+     * whether an app artifact (war/jar/ear/zip), which may clean what's deployed before, is deployed in this run.
+     */
+    private volatile boolean appDeployed = false;
 
     public DeployWebAppTask(WebAppBase<?, ?, ?> webApp, List<WebAppArtifact> artifacts) {
         this(webApp, artifacts, false);
@@ -92,16 +137,130 @@ public class DeployWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
         final List<WebAppArtifact> artifactsOneDeploy = this.artifacts.stream()
                 .filter(artifact -> artifact.getDeployType() != null)
                 .collect(Collectors.toList());
-        if (isWaitDeploymentComplete()) {
-            final AtomicReference<KuduDeploymentResult> reference = new AtomicReference<>();
-            artifactsOneDeploy.forEach(resource -> reference.set(webApp.pushDeploy(resource.getDeployType(), resource.getFile(),
-                    DeployOptions.builder().path(resource.getPath()).restartSite(restartSite).trackDeployment(true).build())));
-            trackDeployment(webApp, reference);
-        } else {
-            artifactsOneDeploy.forEach(resource -> webApp.deploy(resource.getDeployType(), resource.getFile(),
-                    DeployOptions.builder().path(resource.getPath()).restartSite(restartSite).build()));
+        final boolean waitDeploymentComplete = isWaitDeploymentComplete();
+        final List<KuduDeploymentResult> results = Collections.synchronizedList(new ArrayList<>());
+        final DeployStats stats = new DeployStats();
+        this.appDeployed = false;
+        // artifacts are deployed in the given order, only consecutive independent artifacts are deployed concurrently,
+        // since app artifacts (war/jar/ear/zip) may override/clean what's deployed before them.
+        for (final List<WebAppArtifact> group : groupArtifacts(artifactsOneDeploy)) {
+            if (group.size() > 1) {
+                // restart the site once after the whole group is deployed instead of once per artifact.
+                runConcurrently(group, deployParallelism, artifact -> deployArtifact(artifact, false, waitDeploymentComplete, results, stats));
+                if (restartSite) {
+                    webApp.restart();
+                }
+            } else {
+                group.forEach(artifact -> deployArtifact(artifact, restartSite, waitDeploymentComplete, results, stats));
+            }
+        }
+        if (waitDeploymentComplete && !results.isEmpty()) {
+            // deployments are tracked concurrently, each of them polls its status by interval.
+            final List<KuduDeploymentResult> deployments = new ArrayList<>(results);
+            runConcurrently(deployments, deployments.size(), result -> trackDeployment(webApp, result));
         }
         OperationContext.action().setTelemetryProperty("deploy-cost", String.valueOf(System.currentTimeMillis() - startTime));
+        OperationContext.action().setTelemetryProperty("deploy-artifacts", String.valueOf(artifactsOneDeploy.size()));
+        OperationContext.action().setTelemetryProperty("deploy-skipped", String.valueOf(stats.skipped.get()));
+        OperationContext.action().setTelemetryProperty("deploy-size", String.valueOf(stats.bytes.get()));
+        OperationContext.action().setTelemetryProperty("deploy-throughput", String.valueOf(stats.bytes.get() * 1000 / 1024 / Math.max(stats.millis.get(), 1)));
+    }
+
+    /**
+     * run {@code action} on each of {@code items} concurrently, each in its own operation context derived from the
+     * current one. all items are run even if some of them fail, and the first failure is rethrown.
+     */
+    private static <T> void runConcurrently(@Nonnull final List<T> items, int concurrency, @Nonnull final Consumer<T> action) {
+        final List<Pair<T, OperationThreadContext>> tasks = items.stream()
+            .map(item -> Pair.of(item, OperationThreadContext.current().derive())).collect(Collectors.toList());
+        final Queue<RuntimeException> failures = new ConcurrentLinkedQueue<>();
+        Flux.fromIterable(tasks)
+            .flatMap(task -> Mono.fromRunnable(() -> task.getRight().run(() -> {
+                try {
+                    action.accept(task.getLeft());
+                } catch (final RuntimeException e) { // `OperationThreadContext.run` swallows exceptions
+                    failures.add(e);
+                }
+            })).subscribeOn(Schedulers.boundedElastic()), Math.max(concurrency, 1))
+            .then().block();
+        Optional.ofNullable(failures.peek()).ifPresent(e -> {
+            throw e;
+        });
+    }
+
+    @Nonnull
+    private List<List<WebAppArtifact>> groupArtifacts(@Nonnull List<WebAppArtifact> artifacts) {
+        final List<List<WebAppArtifact>> groups = new ArrayList<>();
+        List<WebAppArtifact> independents = new ArrayList<>();
+        for (final WebAppArtifact artifact : artifacts) {
+            if (deployParallelism > 1 && INDEPENDENT_DEPLOY_TYPES.contains(artifact.getDeployType())) {
+                independents.add(artifact);
+                continue;
+            }
+            if (!independents.isEmpty()) {
+                groups.add(independents);
+                independents = new ArrayList<>();
+            }
+            groups.add(Collections.singletonList(artifact));
+        }
+        if (!independents.isEmpty()) {
+            groups.add(independents);
+        }
+        return groups;
+    }
+
+    private void deployArtifact(@Nonnull final WebAppArtifact artifact, boolean restart, boolean trackDeployment, @Nonnull final List<KuduDeploymentResult> results,
+                                @Nonnull final DeployStats stats) {
+        final DeployOptions options = DeployOptions.builder().path(artifact.getPath()).restartSite(restart).trackDeployment(trackDeployment).build();
+        final String manifestKey = String.format("%s:%s:%s", artifact.getDeployType().getValue(), artifact.getPath(), artifact.getFile().getName());
+        final DeploymentManifest manifest = incremental ? DeploymentManifest.of(artifact.getFile()) : null;
+        // unchanged artifacts are redeployed once an app artifact is deployed, since it may have cleaned them.
+        if (Objects.nonNull(manifest) && !this.appDeployed && isDeployed(manifest, manifestKey)) {
+            this.messager.info(AzureString.format("Skip deploying (%s) since it's not changed since last deployment.", artifact.getFile().getName()));
+            stats.skipped.incrementAndGet();
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        final KuduDeploymentResult result = Mono.fromCallable(() -> {
+                if (trackDeployment) {
+                    return webApp.pushDeploy(artifact.getDeployType(), artifact.getFile(), options);
+                }
+                webApp.deploy(artifact.getDeployType(), artifact.getFile(), options);
+                return null;
+            })
+            .retryWhen(Retry.backoff(Math.max(deployMaxAttempts, 1) - 1, Duration.ofSeconds(DEPLOY_RETRY_MIN_BACKOFF))
+                .filter(DeployWebAppTask::isTransientError)
+                .doBeforeRetry(signal -> this.messager.warning(AzureString.format("Failed to deploy (%s), retrying(%s)...",
+                    artifact.getFile().getName(), String.valueOf(signal.totalRetries() + 1))))
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+            .block();
+        if (Objects.nonNull(result)) {
+            results.add(result);
+        }
+        if (!INDEPENDENT_DEPLOY_TYPES.contains(artifact.getDeployType())) {
+            this.appDeployed = true;
+        }
+        Optional.ofNullable(manifest).ifPresent(m -> saveDeployed(m, manifestKey));
+        final long cost = Math.max(System.currentTimeMillis() - start, 1);
+        final long kbps = artifact.getFile().length() * 1000 / 1024 / cost;
+        log.debug("[{}]:deployed {} in {}ms ({}KB/s)", webApp.getName(), artifact.getFile().getName(), cost, kbps);
+        stats.bytes.addAndGet(artifact.getFile().length());
+        stats.millis.addAndGet(cost);
+    }
+
+    protected boolean isDeployed(@Nonnull final DeploymentManifest manifest, @Nonnull final String key) {
+        return manifest.isDeployedTo(webApp, key);
+    }
+
+    protected void saveDeployed(@Nonnull final DeploymentManifest manifest, @Nonnull final String key) {
+        manifest.saveAsDeployedTo(webApp, key);
+    }
+
+    private static boolean isTransientError(@Nullable final Throwable t) {
+        // 409 is returned when the deployment lock of the site is held by another deployment.
+        return ExceptionUtils.getThrowableList(t).stream().anyMatch(e -> e instanceof IOException ||
+            (e instanceof HttpResponseException && Optional.ofNullable(((HttpResponseException) e).getResponse())
+                .map(r -> r.getStatusCode() == 409 || r.getStatusCode() == 429 || r.getStatusCode() >= 500).orElse(false)));
     }
 
     private boolean isWaitDeploymentComplete() {
@@ -116,11 +275,7 @@ public class DeployWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
         return Optional.ofNullable(this.waitDeploymentComplete).orElseGet(() -> webApp.getRuntime().isLinux());
     }
 
-    private void trackDeployment(final WebAppBase<?, ?, ?> target, final AtomicReference<KuduDeploymentResult> resultReference) {
-        final KuduDeploymentResult kuduDeploymentResult = resultReference.get();
-        if (kuduDeploymentResult == null) {
-            return;
-        }
+    private void trackDeployment(final WebAppBase<?, ?, ?> target, @Nonnull final KuduDeploymentResult kuduDeploymentResult) {
         final CsmDeploymentStatus status = Mono.fromCallable(() -> getDeploymentStatus(target, kuduDeploymentResult))
                 .delayElement(Duration.ofSeconds(deploymentStatusRefreshInterval))
                 .subscribeOn(Schedulers.boundedElastic())
@@ -152,6 +307,15 @@ public class DeployWebAppTask extends AzureTask<WebAppBase<?, ?, ?>> {
         return deploymentStatus;
     }
 
+    /**
+     * counts and sizes only, no artifact names/paths.
+     */
+    private static class DeployStats {
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong millis = new AtomicLong();
+    }
+
     private static void startAppService(WebAppBase<?, ?, ?> target) {
         if (!target.getFormalStatus().isRunning()) {
             AzureMessager.getMessager().info(START_APP);
@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.appservice.utils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FilenameUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * packs a directory into a zip in one pass: excluded entries are filtered out on the way, small entries are deflated
+ * in parallel(and written in order), large ones are deflated while being written(with a data descriptor) so that no
+ * entry is held in memory as a whole, already compressed entries(e.g. jars) are stored without being deflated again.
+ * unix permissions are kept in the external attributes on posix file systems.
+ * packages which need zip64(more than 65535 entries or 4GB) are packed sequentially by {@link ZipOutputStream}, which
+ * doesn't keep permissions.
+ */
+@Slf4j
+public class ZipPackager {
+    private static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<>(Arrays.asList(
+        "jar", "war", "ear", "zip", "gz", "tgz", "bz2", "xz", "7z", "png", "jpg", "jpeg", "gif", "woff", "woff2"));
+    private static final int MAX_ENTRIES = 0xFFFF;
+    private static final long MAX_SIZE = 0xFFFFFFFFL;
+    private static final int VERSION = 20;
+    private static final int UNIX = 3 << 8; // "version made by" of which external attributes contain unix mode
+    private static final int UTF8_FLAG = 0x0800;
+    private static final int DATA_DESCRIPTOR_FLAG = 0x0008;
+    /**
+     * entries larger than this are deflated while being written instead of in memory.
+     */
+    static final int MAX_IN_MEMORY_ENTRY_SIZE = 1024 * 1024;
+
+    /**
+     * @param filter accepts relative paths(separated by '/', directories end with '/') of entries to pack.
+     */
+    @Nonnull
+    public static File pack(@Nonnull File directory, @Nonnull Predicate<String> filter) throws IOException {
+        final File zipFile = Files.createTempFile(directory.getName(), ".zip").toFile();
+        try (OutputStream out = Files.newOutputStream(zipFile.toPath())) {
+            pack(directory, out, filter);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(zipFile.toPath());
+            throw e;
+        }
+        return zipFile;
+    }
+
+    /**
+     * write zip of {@code directory} to {@code out}, {@code out} is not closed.
+     *
+     * @param filter accepts relative paths(separated by '/', directories end with '/') of entries to pack.
+     */
+    public static void pack(@Nonnull File directory, @Nonnull OutputStream out, @Nonnull Predicate<String> filter) throws IOException {
+        final Path root = directory.toPath();
+        final List<Entry> entries;
+        try (Stream<Path> files = Files.walk(root)) {
+            entries = files.filter(p -> !p.equals(root)).map(p -> new Entry(p, getName(root, p)))
+                .filter(e -> filter.test(e.name)).collect(Collectors.toList());
+        }
+        final long total = entries.stream().mapToLong(e -> e.directory ? 0 : e.path.toFile().length()).sum();
+        if (entries.size() >= MAX_ENTRIES || total >= MAX_SIZE / 2) { // leave room for headers and incompressible entries
+            log.debug("pack {} entries({} bytes) of {} sequentially", entries.size(), total, directory);
+            packSequentially(entries, out);
+        } else {
+            packInParallel(entries, out);
+        }
+    }
+
+    private static void packInParallel(@Nonnull List<Entry> entries, @Nonnull OutputStream output) throws IOException {
+        final int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        final AtomicInteger counter = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            final Thread thread = new Thread(r, "azure-toolkit-zip-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final CountingOutputStream out = new CountingOutputStream(new BufferedOutputStream(new NonClosingOutputStream(output), 64 * 1024));
+        final ByteArrayOutputStream directory = new ByteArrayOutputStream();
+        final Deque<Future<Entry>> window = new ArrayDeque<>();
+        try {
+            int next = 0;
+            while (next < entries.size() || !window.isEmpty()) {
+                while (next < entries.size() && window.size() < threads * 2) { // bounds the entries(<= MAX_IN_MEMORY_ENTRY_SIZE) compressed in memory
+                    final Entry entry = entries.get(next++);
+                    window.add(executor.submit(entry::prepare));
+                }
+                final Entry entry = window.poll().get();
+                entry.offset = out.count;
+                if (entry.streaming) {
+                    writeStreaming(out, entry);
+                } else {
+                    writeLocalHeader(out, entry);
+                    if (entry.data != null) {
+                        out.write(entry.data);
+                    } else if (!entry.directory) {
+                        Files.copy(entry.path, out);
+                    }
+                }
+                entry.data = null;
+                writeCentralHeader(directory, entry);
+            }
+            final long directoryOffset = out.count;
+            directory.writeTo(out);
+            writeEnd(out, entries.size(), directory.size(), directoryOffset);
+            out.flush();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted when packing zip");
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void packSequentially(@Nonnull List<Entry> entries, @Nonnull OutputStream output) throws IOException {
+        final ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(new NonClosingOutputStream(output), 64 * 1024));
+        for (final Entry entry : entries) {
+            final ZipEntry zipEntry = new ZipEntry(entry.name);
+            zipEntry.setTime(entry.path.toFile().lastModified());
+            if (!entry.directory && entry.isCompressed()) {
+                zipEntry.setMethod(ZipEntry.STORED);
+                zipEntry.setSize(Files.size(entry.path));
+                zipEntry.setCompressedSize(zipEntry.getSize());
+                zipEntry.setCrc(crc(entry.path));
+            }
+            out.putNextEntry(zipEntry);
+            if (!entry.directory) {
+                Files.copy(entry.path, out);
+            }
+            out.closeEntry();
+        }
+        out.finish();
+        out.flush();
+    }
+
+    /**
+     * deflate the entry directly into {@code out}, crc and sizes follow the content in a data descriptor.
+     */
+    private static void writeStreaming(@Nonnull CountingOutputStream out, @Nonnull Entry entry) throws IOException {
+        writeLocalHeader(out, entry);
+        final long start = out.count;
+        final CRC32 crc32 = new CRC32();
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try (InputStream in = new CheckedInputStream(Files.newInputStream(entry.path), crc32);
+             DeflaterOutputStream deflating = new DeflaterOutputStream(new NonClosingOutputStream(out), deflater, 64 * 1024)) {
+            final byte[] buffer = new byte[64 * 1024];
+            for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                deflating.write(buffer, 0, n);
+            }
+            deflating.finish();
+            entry.size = deflater.getBytesRead();
+        } finally {
+            deflater.end();
+        }
+        entry.crc = crc32.getValue();
+        entry.compressedSize = out.count - start;
+        writeInt(out, 0x08074b50);
+        writeInt(out, entry.crc);
+        writeInt(out, entry.compressedSize);
+        writeInt(out, entry.size);
+    }
+
+    private static void writeLocalHeader(@Nonnull OutputStream out, @Nonnull Entry entry) throws IOException {
+        writeInt(out, 0x04034b50);
+        writeShort(out, VERSION);
+        writeShort(out, entry.getFlags());
+        writeShort(out, entry.method);
+        writeInt(out, entry.dosTime);
+        writeInt(out, entry.crc);
+        writeInt(out, entry.compressedSize);
+        writeInt(out, entry.size);
+        writeShort(out, entry.nameBytes.length);
+        writeShort(out, 0);
+        out.write(entry.nameBytes);
+    }
+
+    private static void writeCentralHeader(@Nonnull OutputStream out, @Nonnull Entry entry) throws IOException {
+        writeInt(out, 0x02014b50);
+        writeShort(out, entry.mode > 0 ? UNIX | VERSION : VERSION);
+        writeShort(out, VERSION);
+        writeShort(out, entry.getFlags());
+        writeShort(out, entry.method);
+        writeInt(out, entry.dosTime);
+        writeInt(out, entry.crc);
+        writeInt(out, entry.compressedSize);
+        writeInt(out, entry.size);
+        writeShort(out, entry.nameBytes.length);
+        writeShort(out, 0); // extra
+        writeShort(out, 0); // comment
+        writeShort(out, 0); // disk
+        writeShort(out, 0); // internal attributes
+        writeInt(out, (long) entry.mode << 16 | (entry.directory ? 0x10 : 0)); // external attributes: unix mode and dos directory flag
+        writeInt(out, entry.offset);
+        out.write(entry.nameBytes);
+    }
+
+    private static void writeEnd(@Nonnull OutputStream out, int entries, long directorySize, long directoryOffset) throws IOException {
+        writeInt(out, 0x06054b50);
+        writeShort(out, 0);
+        writeShort(out, 0);
+        writeShort(out, entries);
+        writeShort(out, entries);
+        writeInt(out, directorySize);
+        writeInt(out, directoryOffset);
+        writeShort(out, 0);
+    }
+
+    private static void writeShort(@Nonnull OutputStream out, int value) throws IOException {
+        out.write(value & 0xFF);
+        out.write((value >>> 8) & 0xFF);
+    }
+
+    private static void writeInt(@Nonnull OutputStream out, long value) throws IOException {
+        writeShort(out, (int) (value & 0xFFFF));
+        writeShort(out, (int) ((value >>> 16) & 0xFFFF));
+    }
+
+    private static long crc(@Nonnull Path path) throws IOException {
+        final CRC32 crc = new CRC32();
+        final byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(path)) {
+            for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                crc.update(buffer, 0, n);
+            }
+        }
+        return crc.getValue();
+    }
+
+    @Nonnull
+    private static String getName(@Nonnull Path root, @Nonnull Path path) {
+        final String name = FilenameUtils.separatorsToUnix(root.relativize(path).toString());
+        return Files.isDirectory(path) ? name + "/" : name;
+    }
+
+    private static int getUnixMode(@Nonnull Path path, boolean directory) {
+        try {
+            final Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(path);
+            int mode = directory ? 0040000 : 0100000;
+            for (final PosixFilePermission permission : permissions) {
+                mode |= 1 << (8 - permission.ordinal()); // OWNER_READ(0400) ... OTHERS_EXECUTE(0001)
+            }
+            return mode;
+        } catch (final UnsupportedOperationException | IOException e) { // e.g. on windows
+            return 0;
+        }
+    }
+
+    private static long toDosTime(long millis) {
+        final LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+        if (time.getYear() < 1980) {
+            return (1 << 21) | (1 << 16); // 1980-01-01 00:00:00
+        }
+        return (long) (time.getYear() - 1980) << 25 | (long) time.getMonthValue() << 21 | (long) time.getDayOfMonth() << 16 |
+            (long) time.getHour() << 11 | (long) time.getMinute() << 5 | (long) time.getSecond() >> 1;
+    }
+
+    private static class Entry {
+        private final Path path;
+        private final String name;
+        private final byte[] nameBytes;
+        private final boolean directory;
+        private int method = ZipEntry.STORED;
+        private long dosTime;
+        private long crc;
+        private long size;
+        private long compressedSize;
+        private long offset;
+        private int mode; // unix file type and permissions, 0 if unknown
+        private boolean streaming; // deflated while being written
+        @Nullable
+        private byte[] data; // compressed content, null if the file is copied as is when writing
+
+        private Entry(@Nonnull Path path, @Nonnull String name) {
+            this.path = path;
+            this.name = name;
+            this.nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            this.directory = name.endsWith("/");
+        }
+
+        private boolean isCompressed() {
+            return COMPRESSED_EXTENSIONS.contains(FilenameUtils.getExtension(this.name).toLowerCase());
+        }
+
+        private int getFlags() {
+            return this.streaming ? UTF8_FLAG | DATA_DESCRIPTOR_FLAG : UTF8_FLAG;
+        }
+
+        /**
+         * compute crc/sizes and deflate the content if needed, invoked in parallel.
+         */
+        private Entry prepare() throws IOException {
+            this.dosTime = toDosTime(this.path.toFile().lastModified());
+            this.mode = getUnixMode(this.path, this.directory);
+            if (this.directory) {
+                return this;
+            }
+            if (this.isCompressed()) {
+                this.crc = crc(this.path);
+                this.size = Files.size(this.path);
+                this.compressedSize = this.size;
+                return this;
+            }
+            if (Files.size(this.path) > MAX_IN_MEMORY_ENTRY_SIZE) {
+                this.method = ZipEntry.DEFLATED;
+                this.streaming = true;
+                return this;
+            }
+            final byte[] content = Files.readAllBytes(this.path);
+            final CRC32 crc32 = new CRC32();
+            crc32.update(content);
+            final ByteArrayOutputStream deflated = new ByteArrayOutputStream(Math.max(32, content.length / 2));
+            final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            try (DeflaterOutputStream out = new DeflaterOutputStream(deflated, deflater)) {
+                out.write(content);
+            } finally {
+                deflater.end();
+            }
+            this.crc = crc32.getValue();
+            this.size = content.length;
+            if (deflated.size() < content.length) {
+                this.method = ZipEntry.DEFLATED;
+                this.data = deflated.toByteArray();
+            } else { // not compressible
+                this.data = content;
+            }
+            this.compressedSize = this.data.length;
+            return this;
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(@Nonnull OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            this.out.write(b);
+            this.count++;
+        }
+
+        @Override
+        public void write(@Nonnull byte[] b, int off, int len) throws IOException {
+            this.out.write(b, off, len);
+            this.count += len;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class NonClosingOutputStream extends OutputStream {
+        private final OutputStream out;
+
+        @Override
+        public void write(int b) throws IOException {
+            this.out.write(b);
+        }
+
+        @Override
+        public void write(@Nonnull byte[] b, int off, int len) throws IOException {
+            this.out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.out.flush();
+        }
+    }
+}
@@ -58,6 +58,12 @@ public class WebAppDeploymentSlotModule extends AbstractAzResourceModule<WebAppD
         return new WebAppDeploymentSlot(name, this);
     }
 
+    @Nullable
+    @Override
+    protected Object getRemoteFingerprint(@Nonnull WebSiteBase remote) {
+        return getInnerModelFingerprint(remote);
+    }
+
     @Nonnull
     @Override
     public String getResourceTypeName() {
@@ -61,6 +61,12 @@ public class WebAppModule extends AbstractAzResourceModule<WebApp, AppServiceSer
         return new WebApp(name, Objects.requireNonNull(resourceGroupName), this);
     }
 
+    @Nullable
+    @Override
+    protected Object getRemoteFingerprint(@Nonnull WebSiteBase remote) {
+        return getInnerModelFingerprint(remote);
+    }
+
     @Nonnull
     @Override
     public String getResourceTypeName() {
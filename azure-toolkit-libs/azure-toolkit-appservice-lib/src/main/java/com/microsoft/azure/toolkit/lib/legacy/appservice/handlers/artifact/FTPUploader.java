@@ -8,31 +8,78 @@ package com.microsoft.azure.toolkit.lib.legacy.appservice.handlers.artifact;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
+import com.microsoft.azure.toolkit.lib.common.operation.OperationThreadContext;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.net.ftp.FTP;
 import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPReply;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
- * Utility class to upload directory to FTP server
+ * Utility class to upload files/directory to FTP server. files are uploaded concurrently through a bounded pool of
+ * connections, and each file is retried on its own (resuming the partial transfer of a failed attempt with {@code REST}
+ * where possible, the resumed file is verified afterwards).
  */
 @Slf4j
+@Getter
+@Setter
 public class FTPUploader {
+    public static final int DEFAULT_CONNECTIONS = 4;
     public static final String UPLOAD_START = "Uploading files to FTP server: ";
-    public static final String UPLOAD_SUCCESS = "Successfully uploaded files to FTP server: ";
-    public static final String UPLOAD_FAILURE = "Failed to upload files to FTP server, retrying immediately (%d/%d)";
-    public static final String UPLOAD_RETRY_FAILURE = "Failed to upload files to FTP server after %d retries...";
+    public static final String UPLOAD_SUCCESS = "Successfully uploaded files to FTP server: %s (%d uploaded, %d unchanged skipped)";
+    public static final String UPLOAD_FILE_FAILURE = "Failed to upload file %s, retrying (%d/%d): %s";
+    public static final String UPLOAD_RETRY_FAILURE = "Failed to upload %d file(s) to FTP server after %d retries: %s";
     public static final String UPLOAD_DIR_START = "Uploading directory: %s --> %s";
     public static final String UPLOAD_DIR_FINISH = "Successfully uploaded directory: %s --> %s";
-    public static final String UPLOAD_DIR_FAILURE = "Failed to upload directory: %s --> %s";
-    public static final String UPLOAD_DIR = "%s[DIR] %s --> %s";
-    public static final String UPLOAD_FILE = "%s[FILE] %s --> %s";
-    public static final String UPLOAD_FILE_REPLY = "%s.......Reply Message : %s";
+    public static final String UPLOAD_FILE = "[FILE] %s --> %s";
+    private static final String PATH_SEPARATOR = "/";
+
+    /**
+     * max number of FTP connections used at the same time.
+     */
+    private int connections = DEFAULT_CONNECTIONS;
+
+    /**
+     * skip files already present on the server with the same size and a newer modification time (as listed by
+     * {@code MLSD}). off by default, since a changed file of the same size would be skipped too.
+     */
+    private boolean skipUnchanged = false;
 
     /**
      * Upload directory to specified FTP server with retries.
@@ -40,98 +87,152 @@ public class FTPUploader {
     public void uploadDirectoryWithRetries(final String ftpServer, final String username, final String password,
                                            final String sourceDirectory, final String targetDirectory,
                                            final int maxRetryCount) throws AzureExecutionException {
-        int retryCount = 0;
-        while (retryCount < maxRetryCount) {
-            retryCount++;
-            final IAzureMessager messager = AzureMessager.getMessager();
-            messager.info(UPLOAD_START + ftpServer);
-            if (uploadDirectory(ftpServer, username, password, sourceDirectory, targetDirectory)) {
-                messager.success(UPLOAD_SUCCESS + ftpServer);
-                return;
-            } else {
-                messager.warning(String.format(UPLOAD_FAILURE, retryCount, maxRetryCount));
-            }
-        }
-        // Reaching here means all retries failed.
-        throw new AzureExecutionException(String.format(UPLOAD_RETRY_FAILURE, maxRetryCount));
+        final Map<String, File> files = new TreeMap<>();
+        collectFiles(new File(sourceDirectory), StringUtils.removeEnd(targetDirectory, PATH_SEPARATOR), files);
+        AzureMessager.getMessager().info(String.format(UPLOAD_DIR_START, sourceDirectory, targetDirectory));
+        uploadFilesWithRetries(ftpServer, username, password, files, maxRetryCount);
+        AzureMessager.getMessager().success(String.format(UPLOAD_DIR_FINISH, sourceDirectory, targetDirectory));
     }
 
     /**
-     * Upload directory to specified FTP server without retries.
+     * Upload files to specified FTP server, each file is retried at most {@code maxRetryCount} times.
      *
-     * @return Boolean to indicate whether uploading is successful.
+     * @param files absolute remote path -> local file
      */
-    protected boolean uploadDirectory(final String ftpServer, final String username, final String password,
-                                      final String sourceDirectoryPath, final String targetDirectoryPath) {
+    public void uploadFilesWithRetries(final String ftpServer, final String username, final String password,
+                                       final Map<String, File> files, final int maxRetryCount) throws AzureExecutionException {
         final IAzureMessager messager = AzureMessager.getMessager();
+        messager.info(UPLOAD_START + ftpServer);
         log.debug("FTP username: " + username);
-        try {
-            final FTPClient ftpClient = getFTPClient(ftpServer, username, password);
-
-            messager.info(String.format(UPLOAD_DIR_START, sourceDirectoryPath, targetDirectoryPath));
-            uploadDirectory(ftpClient, sourceDirectoryPath, targetDirectoryPath, "");
-            messager.success(String.format(UPLOAD_DIR_FINISH, sourceDirectoryPath, targetDirectoryPath));
-
-            ftpClient.disconnect();
-            return true;
-        } catch (Exception e) {
-            log.debug(e.getMessage(), e);
-            messager.error(String.format(UPLOAD_DIR_FAILURE, sourceDirectoryPath, targetDirectoryPath));
+        final AtomicInteger uploaded = new AtomicInteger();
+        final AtomicInteger skipped = new AtomicInteger();
+        final Queue<String> failures = new ConcurrentLinkedQueue<>();
+        try (ConnectionPool pool = new ConnectionPool(() -> getFTPClient(ftpServer, username, password))) {
+            final Set<String> directories = new TreeSet<>();
+            files.keySet().forEach(path -> directories.add(getParent(path)));
+            final Map<String, Map<String, FTPFile>> remoteFiles = prepareDirectories(pool, directories, maxRetryCount);
+            // each file is uploaded in its own operation context derived from the current one.
+            final List<Pair<Map.Entry<String, File>, OperationThreadContext>> tasks = files.entrySet().stream()
+                .map(entry -> Pair.of(entry, OperationThreadContext.current().derive())).collect(Collectors.toList());
+            Flux.fromIterable(tasks)
+                .flatMap(task -> Mono.fromRunnable(() -> task.getRight().run(() -> {
+                    final String path = task.getLeft().getKey();
+                    final File file = task.getLeft().getValue();
+                    final FTPFile remote = remoteFiles.getOrDefault(getParent(path), Collections.emptyMap()).get(getName(path));
+                    try {
+                        if (this.skipUnchanged && isUpToDate(file, remote)) {
+                            log.debug("skip uploading unchanged file {} --> {}", file, path);
+                            skipped.incrementAndGet();
+                        } else if (uploadFileWithRetries(pool, file, path, maxRetryCount)) {
+                            uploaded.incrementAndGet();
+                        } else {
+                            failures.add(file.getAbsolutePath());
+                        }
+                    } catch (final RuntimeException e) { // `OperationThreadContext.run` swallows exceptions
+                        log.debug("failed to upload file {} --> {}", file, path, e);
+                        failures.add(file.getAbsolutePath());
+                    }
+                })).subscribeOn(Schedulers.boundedElastic()), Math.max(1, this.connections))
+                .blockLast();
+        } catch (final IOException e) {
+            throw new AzureExecutionException(String.format("Failed to connect to FTP server %s: %s", ftpServer, e.getMessage()), e);
         }
-
-        return false;
+        if (!failures.isEmpty()) {
+            throw new AzureExecutionException(String.format(UPLOAD_RETRY_FAILURE, failures.size(), maxRetryCount, failures));
+        }
+        messager.success(String.format(UPLOAD_SUCCESS, ftpServer, uploaded.get(), skipped.get()));
     }
 
     /**
-     * Recursively upload a directory to FTP server with the provided FTP client object.
+     * create missing directories and list existing ones (if {@link #skipUnchanged} and {@code MLSD} is supported) on a
+     * single connection.
+     *
+     * @return remote directory -> files in it
      */
-    protected void uploadDirectory(final FTPClient ftpClient, final String sourceDirectoryPath,
-                                   final String targetDirectoryPath, final String logPrefix) throws IOException {
-        final IAzureMessager messager = AzureMessager.getMessager();
-        messager.info(String.format(UPLOAD_DIR, logPrefix, sourceDirectoryPath, targetDirectoryPath));
-        final File sourceDirectory = new File(sourceDirectoryPath);
-        final File[] files = sourceDirectory.listFiles();
-        if (files == null || files.length == 0) {
-            messager.info(String.format("%sEmpty directory at %s", logPrefix, sourceDirectoryPath));
-            return;
-        }
-
-        // Make sure target directory exists
-        final boolean isTargetDirectoryExist = ftpClient.changeWorkingDirectory(targetDirectoryPath);
-        if (!isTargetDirectoryExist) {
-            ftpClient.makeDirectory(targetDirectoryPath);
+    @Nonnull
+    protected Map<String, Map<String, FTPFile>> prepareDirectories(@Nonnull final ConnectionPool pool, @Nonnull final Collection<String> directories,
+                                                                   final int maxRetryCount) throws IOException {
+        for (int retry = 1; ; retry++) {
+            final FTPClient client = pool.borrow();
+            try {
+                final Map<String, Map<String, FTPFile>> result = new HashMap<>();
+                final Set<String> created = new HashSet<>();
+                for (final String directory : directories) {
+                    if (this.skipUnchanged && client.changeWorkingDirectory(directory)) {
+                        result.put(directory, listFiles(client, directory));
+                    }
+                    makeDirectories(client, directory, created);
+                }
+                pool.release(client);
+                return result;
+            } catch (final IOException e) {
+                pool.discard(client);
+                if (retry >= maxRetryCount) {
+                    throw e;
+                }
+                log.debug("failed to prepare remote directories, retrying ({}/{})", retry, maxRetryCount, e);
+            }
         }
+    }
 
-        final String nextLevelPrefix = logPrefix + "..";
-        for (final File file : files) {
-            if (file.isFile()) {
-                uploadFile(ftpClient, file.getAbsolutePath(), targetDirectoryPath, nextLevelPrefix);
-            } else {
-                uploadDirectory(ftpClient, Paths.get(sourceDirectoryPath, file.getName()).toString(),
-                    targetDirectoryPath + "/" + file.getName(), nextLevelPrefix);
+    /**
+     * @return whether the file is uploaded successfully.
+     */
+    protected boolean uploadFileWithRetries(@Nonnull final ConnectionPool pool, @Nonnull final File file, @Nonnull final String path,
+                                            final int maxRetryCount) {
+        final AtomicLong transferred = new AtomicLong(); // bytes of the file sent to the server by the last failed attempt
+        boolean resumed = false;
+        for (int retry = 1; retry <= maxRetryCount; retry++) {
+            // resume the partial transfer of last failed attempt, unless it was a resumed one (server may not support REST)
+            final long sent = resumed ? 0 : transferred.get();
+            transferred.set(0);
+            resumed = false;
+            FTPClient client = null;
+            try {
+                client = pool.borrow();
+                final long offset = sent > 0 ? getResumeOffset(client, path, file, sent) : 0;
+                resumed = offset > 0;
+                uploadFile(client, file, path, offset, transferred);
+                if (resumed) {
+                    verifyUploadedFile(client, file, path);
+                }
+                pool.release(client);
+                return true;
+            } catch (final IOException e) {
+                Optional.ofNullable(client).ifPresent(pool::discard);
+                log.debug("failed to upload file {} --> {}", file, path, e);
+                if (retry < maxRetryCount) {
+                    AzureMessager.getMessager().warning(String.format(UPLOAD_FILE_FAILURE, file.getName(), retry, maxRetryCount, e.getMessage()));
+                }
             }
         }
+        AzureMessager.getMessager().error(String.format("Failed to upload file %s after %d retries", file.getAbsolutePath(), maxRetryCount));
+        return false;
     }
 
     /**
-     * Upload a single file to FTP server with the provided FTP client object.
+     * Upload a single file to FTP server with the provided FTP client object, starting from {@code offset} of the file.
+     *
+     * @param transferred set to the end offset of the bytes sent to the server, even if the upload fails.
      */
-    protected void uploadFile(final FTPClient ftpClient, final String sourceFilePath, final String targetFilePath,
-                              final String logPrefix) throws IOException {
-        final IAzureMessager messager = AzureMessager.getMessager();
-        messager.info(String.format(UPLOAD_FILE, logPrefix, sourceFilePath, targetFilePath));
-        final File sourceFile = new File(sourceFilePath);
-        try (final InputStream is = new FileInputStream(sourceFile)) {
-            ftpClient.changeWorkingDirectory(targetFilePath);
-            ftpClient.storeFile(sourceFile.getName(), is);
-
-            final int replyCode = ftpClient.getReplyCode();
-            final String replyMessage = ftpClient.getReplyString();
-            if (isCommandFailed(replyCode)) {
-                messager.error(String.format(UPLOAD_FILE_REPLY, logPrefix, replyMessage));
-                throw new IOException("Failed to upload file: " + sourceFilePath);
-            } else {
-                messager.info(String.format(UPLOAD_FILE_REPLY, logPrefix, replyMessage));
+    protected void uploadFile(@Nonnull final FTPClient ftpClient, @Nonnull final File sourceFile, @Nonnull final String targetFilePath,
+                              final long offset, @Nonnull final AtomicLong transferred) throws IOException {
+        AzureMessager.getMessager().info(String.format(UPLOAD_FILE, sourceFile.getAbsolutePath(), targetFilePath));
+        try (final InputStream fis = new FileInputStream(sourceFile)) {
+            if (offset > 0) {
+                log.debug("resume uploading {} from offset {}", targetFilePath, offset);
+                IOUtils.skipFully(fis, offset);
+                ftpClient.setRestartOffset(offset);
+            }
+            // bytes are only read after `STOR` is accepted by the server
+            final CountingInputStream is = new CountingInputStream(fis);
+            try {
+                final boolean succeeded = ftpClient.storeFile(targetFilePath, is);
+                if (!succeeded || isCommandFailed(ftpClient.getReplyCode())) {
+                    throw new IOException(StringUtils.trim(ftpClient.getReplyString()));
+                }
+            } finally {
+                transferred.set(is.getByteCount() > 0 ? offset + is.getByteCount() : 0);
             }
         }
     }
@@ -146,9 +247,150 @@ public class FTPUploader {
         return ftpClient;
     }
 
-    private boolean isCommandFailed(final int replyCode) {
+    /**
+     * @param sent end offset of the bytes sent to the server by the last failed attempt.
+     * @return size of the partially uploaded remote file, or 0 if there is nothing to resume from, e.g. the remote
+     * file is larger than what was sent, which means it's not (only) written by the last attempt.
+     */
+    private static long getResumeOffset(@Nonnull final FTPClient client, @Nonnull final String path, @Nonnull final File file,
+                                        final long sent) throws IOException {
+        final long size = NumberUtils.toLong(StringUtils.trim(client.getSize(path)), 0);
+        return size > 0 && size <= sent && size < file.length() ? size : 0;
+    }
+
+    /**
+     * verify size and, if the server supports {@code XMD5}, md5 of a resumed upload, which is restarted from the
+     * beginning if it doesn't match.
+     */
+    private static void verifyUploadedFile(@Nonnull final FTPClient client, @Nonnull final File file, @Nonnull final String path) throws IOException {
+        final long size = NumberUtils.toLong(StringUtils.trim(client.getSize(path)), -1);
+        if (size != file.length()) {
+            throw new IOException(String.format("size of resumed upload %s mismatches: %d (expected %d)", path, size, file.length()));
+        }
+        if (client.hasFeature("XMD5") && FTPReply.isPositiveCompletion(client.sendCommand("XMD5", path))) {
+            final String md5;
+            try (final InputStream is = new FileInputStream(file)) {
+                md5 = DigestUtils.md5Hex(is);
+            }
+            if (!StringUtils.containsIgnoreCase(client.getReplyString(), md5)) {
+                throw new IOException(String.format("md5 of resumed upload %s mismatches: %s", path, StringUtils.trim(client.getReplyString())));
+            }
+        }
+    }
+
+    @Nonnull
+    private static Map<String, FTPFile> listFiles(@Nonnull final FTPClient client, @Nonnull final String directory) throws IOException {
+        final FTPFile[] files = client.mlistDir(directory);
+        if (!FTPReply.isPositiveCompletion(client.getReplyCode()) || Objects.isNull(files)) {
+            return Collections.emptyMap(); // MLSD is not supported, nothing can be skipped.
+        }
+        final Map<String, FTPFile> result = new HashMap<>();
+        for (final FTPFile file : files) {
+            if (Objects.nonNull(file) && file.isFile()) {
+                result.put(file.getName(), file);
+            }
+        }
+        return result;
+    }
+
+    private static void makeDirectories(@Nonnull final FTPClient client, @Nonnull final String directory, @Nonnull final Set<String> created)
+        throws IOException {
+        if (StringUtils.isBlank(directory) || created.contains(directory)) {
+            return;
+        }
+        if (!client.changeWorkingDirectory(directory)) {
+            makeDirectories(client, getParent(directory), created);
+            if (!client.makeDirectory(directory) && !client.changeWorkingDirectory(directory)) {
+                throw new IOException(String.format("Failed to create directory %s: %s", directory, StringUtils.trim(client.getReplyString())));
+            }
+        }
+        created.add(directory);
+    }
+
+    private static void collectFiles(@Nonnull final File directory, @Nonnull final String target, @Nonnull final Map<String, File> result) {
+        final File[] files = Optional.ofNullable(directory.listFiles()).orElse(new File[0]);
+        for (final File file : files) {
+            if (file.isFile()) {
+                result.put(target + PATH_SEPARATOR + file.getName(), file);
+            } else if (file.isDirectory()) {
+                collectFiles(file, target + PATH_SEPARATOR + file.getName(), result);
+            }
+        }
+    }
+
+    private static boolean isUpToDate(@Nonnull final File file, @Nullable final FTPFile remote) {
+        // remote modification time(MLSD) is of seconds precision
+        return Objects.nonNull(remote) && Objects.nonNull(remote.getTimestamp()) && remote.getSize() == file.length() &&
+            remote.getTimestamp().getTimeInMillis() >= file.lastModified() / 1000 * 1000;
+    }
+
+    @Nonnull
+    private static String getParent(@Nonnull final String path) {
+        return StringUtils.substringBeforeLast(path, PATH_SEPARATOR);
+    }
+
+    @Nonnull
+    private static String getName(@Nonnull final String path) {
+        return StringUtils.substringAfterLast(path, PATH_SEPARATOR);
+    }
+
+    private static boolean isCommandFailed(final int replyCode) {
         // https://en.wikipedia.org/wiki/List_of_FTP_server_return_codes
         // 2xx means command has been successfully completed
         return replyCode >= 300;
     }
+
+    /**
+     * idle connections are reused, broken ones are discarded. the number of connections is bounded by the number of
+     * concurrent borrowers.
+     */
+    @RequiredArgsConstructor
+    protected static class ConnectionPool implements Closeable {
+        private final ConnectionFactory factory;
+        private final Queue<FTPClient> idle = new ConcurrentLinkedQueue<>();
+
+        @Nonnull
+        public FTPClient borrow() throws IOException {
+            FTPClient client;
+            while ((client = idle.poll()) != null) {
+                if (client.isConnected()) {
+                    return client;
+                }
+            }
+            return factory.create();
+        }
+
+        public void release(@Nonnull final FTPClient client) {
+            idle.offer(client);
+        }
+
+        public void discard(@Nonnull final FTPClient client) {
+            disconnect(client);
+        }
+
+        @Override
+        public void close() {
+            FTPClient client;
+            while ((client = idle.poll()) != null) {
+                disconnect(client);
+            }
+        }
+
+        private static void disconnect(@Nonnull final FTPClient client) {
+            try {
+                if (client.isConnected()) {
+                    client.logout();
+                    client.disconnect();
+                }
+            } catch (final IOException e) {
+                log.debug("failed to disconnect from FTP server", e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    protected interface ConnectionFactory {
+        @Nonnull
+        FTPClient create() throws IOException;
+    }
 }
@@ -17,6 +17,13 @@ import java.util.Set;
 public interface AnnotationHandler {
     Set<Method> findFunctions(final List<URL> urls);
 
+    /**
+     * search functions only in {@code scanUrls}, while classes are resolved against all {@code classPathUrls}.
+     */
+    default Set<Method> findFunctions(final List<URL> scanUrls, final List<URL> classPathUrls) {
+        return findFunctions(classPathUrls);
+    }
+
     Map<String, FunctionConfiguration> generateConfigurations(final Set<Method> methods) throws AzureExecutionException;
 
     FunctionConfiguration generateConfiguration(final Method method) throws AzureExecutionException;
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.deploy;
+
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class DeploymentManifestTest {
+    private File root;
+
+    @Before
+    public void setUp() throws IOException {
+        this.root = Files.createTempDirectory("deployment-manifest").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(this.root);
+    }
+
+    @Test
+    public void sameContentSameDigest() throws IOException {
+        final File dir = new File(this.root, "dir");
+        write(new File(dir, "index.html"), "<html></html>");
+        write(new File(dir, "WEB-INF/web.xml"), "<web-app/>");
+        final File war = zip(new File(this.root, "app.war"), "index.html", "<html></html>", "WEB-INF/web.xml", "<web-app/>");
+
+        final DeploymentManifest fromDir = DeploymentManifest.of(dir);
+        final DeploymentManifest fromWar = DeploymentManifest.of(war);
+        Assert.assertEquals(new HashSet<>(Arrays.asList("index.html", "WEB-INF/web.xml")), fromDir.getEntries().keySet());
+        Assert.assertEquals(fromDir.getEntries(), fromWar.getEntries());
+        Assert.assertEquals(fromDir.getDigest(), fromWar.getDigest());
+        Assert.assertEquals(fromDir.getDigest(), DeploymentManifest.of(dir).getDigest());
+
+        write(new File(dir, "index.html"), "<html>changed</html>");
+        Assert.assertNotEquals(fromDir.getDigest(), DeploymentManifest.of(dir).getDigest());
+    }
+
+    @Test
+    public void excludeEntries() throws IOException {
+        final File dir = new File(this.root, "dir");
+        write(new File(dir, "app.jar"), "app");
+        final DeploymentManifest manifest = DeploymentManifest.of(dir);
+        write(new File(dir, "local.settings.json"), "{}");
+        Assert.assertEquals(manifest.getDigest(), DeploymentManifest.of(dir, "local.settings.json").getDigest());
+        Assert.assertNotEquals(manifest.getDigest(), DeploymentManifest.of(dir).getDigest());
+    }
+
+    @Test
+    public void plainFile() throws IOException {
+        final File script = write(new File(this.root, "startup.sh"), "java -jar app.jar");
+        final DeploymentManifest manifest = DeploymentManifest.of(script);
+        Assert.assertEquals(1, manifest.getEntries().size());
+        Assert.assertTrue(manifest.getEntries().containsKey("startup.sh"));
+        try {
+            DeploymentManifest.of(new File(this.root, "missing.jar"));
+            Assert.fail("missing artifact should fail");
+        } catch (final AzureToolkitRuntimeException ignored) {
+        }
+    }
+
+    @Test
+    public void diff() throws IOException {
+        final File dir = new File(this.root, "dir");
+        write(new File(dir, "kept.txt"), "kept");
+        write(new File(dir, "changed.txt"), "v1");
+        write(new File(dir, "removed.txt"), "removed");
+        final DeploymentManifest previous = DeploymentManifest.of(dir);
+        write(new File(dir, "changed.txt"), "v2");
+        write(new File(dir, "added.txt"), "added");
+        Assert.assertTrue(new File(dir, "removed.txt").delete());
+        final DeploymentManifest current = DeploymentManifest.of(dir);
+        Assert.assertEquals(new HashSet<>(Arrays.asList("changed.txt", "added.txt", "removed.txt")), current.diff(previous));
+        Assert.assertEquals(current.getEntries().keySet(), current.diff(null));
+        Assert.assertTrue(current.diff(current).isEmpty());
+    }
+
+    @Test
+    public void serialize() throws IOException {
+        final File dir = new File(this.root, "dir");
+        write(new File(dir, "index.html"), "<html></html>");
+        final DeploymentManifest manifest = DeploymentManifest.of(dir);
+        Assert.assertEquals(manifest, JsonUtils.fromJson(JsonUtils.toJson(manifest), DeploymentManifest.class));
+    }
+
+    private static File write(File file, String content) throws IOException {
+        FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static File zip(File file, String... entries) throws IOException {
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            out.putNextEntry(new ZipEntry("WEB-INF/"));
+            out.closeEntry();
+            for (int i = 0; i < entries.length; i += 2) {
+                out.putNextEntry(new ZipEntry(entries[i]));
+                out.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.function.core;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+public class IncrementalStagingTest {
+    private File root;
+
+    @Before
+    public void setUp() throws IOException {
+        this.root = Files.createTempDirectory("incremental-staging").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(this.root);
+    }
+
+    @Test
+    public void fingerprintInputs() throws IOException {
+        final File classes = new File(this.root, "classes");
+        final File clazz = write("classes/com/example/Function.class", "v1");
+        final File hostJson = write("host.json", "{}");
+        final File missing = new File(this.root, "local.settings.json");
+        final Map<String, String> fingerprint = IncrementalStaging.fingerprint(Arrays.asList(classes, hostJson, missing, null));
+        Assert.assertEquals(3, fingerprint.size());
+        Assert.assertEquals("missing", fingerprint.get(missing.getAbsolutePath().replace('\\', '/')));
+        Assert.assertEquals(fingerprint, IncrementalStaging.fingerprint(Arrays.asList(classes, hostJson, missing)));
+
+        // recompiled but unchanged
+        FileUtils.writeStringToFile(clazz, "v1", StandardCharsets.UTF_8);
+        Assert.assertTrue(clazz.setLastModified(clazz.lastModified() + 2000));
+        Assert.assertEquals(fingerprint, IncrementalStaging.fingerprint(Arrays.asList(classes, hostJson, missing)));
+
+        FileUtils.writeStringToFile(clazz, "v2", StandardCharsets.UTF_8); // same size
+        Assert.assertNotEquals(fingerprint, IncrementalStaging.fingerprint(Arrays.asList(classes, hostJson, missing)));
+    }
+
+    @Test
+    public void saveAndInvalidate() throws IOException {
+        final File staging = new File(this.root, "staging");
+        final Map<String, String> fingerprint = IncrementalStaging.fingerprint(Collections.singletonList(write("host.json", "{}")));
+        Assert.assertFalse(IncrementalStaging.isUpToDate(staging, fingerprint));
+        IncrementalStaging.save(staging, fingerprint);
+        Assert.assertFalse("staging folder is missing", IncrementalStaging.isUpToDate(staging, fingerprint));
+        Assert.assertTrue(staging.mkdirs());
+        Assert.assertTrue(IncrementalStaging.isUpToDate(staging, fingerprint));
+        Assert.assertEquals("fingerprint should be kept out of the staging folder", 0, staging.list().length);
+        Assert.assertFalse(IncrementalStaging.isUpToDate(staging, Collections.singletonMap("host.json", "0:0")));
+        IncrementalStaging.invalidate(staging);
+        Assert.assertFalse(IncrementalStaging.isUpToDate(staging, fingerprint));
+    }
+
+    @Test
+    public void skipIfUpToDate() throws IOException {
+        final File staging = new File(this.root, "staging");
+        Assert.assertTrue(staging.mkdirs());
+        final Map<String, String> fingerprint = IncrementalStaging.fingerprint(Collections.singletonList(write("host.json", "{}")));
+        Assert.assertFalse(IncrementalStaging.skipIfUpToDate(staging, fingerprint));
+        IncrementalStaging.save(staging, fingerprint);
+        Assert.assertTrue(IncrementalStaging.skipIfUpToDate(staging, fingerprint));
+        Assert.assertTrue(IncrementalStaging.isUpToDate(staging, fingerprint));
+
+        // staging without incremental staging invalidates the last fingerprint and saves none
+        Assert.assertFalse(IncrementalStaging.skipIfUpToDate(staging, null));
+        IncrementalStaging.save(staging, null);
+        Assert.assertFalse(IncrementalStaging.isUpToDate(staging, fingerprint));
+    }
+
+    @Test
+    public void writeOnlyIfChanged() throws IOException {
+        final File dest = new File(this.root, "out/function.json");
+        final byte[] content = "{\"bindings\":[]}".getBytes(StandardCharsets.UTF_8);
+        Assert.assertTrue(IncrementalStaging.writeIfChanged(dest, content));
+        final long modified = dest.lastModified();
+        Assert.assertFalse(IncrementalStaging.writeIfChanged(dest, content));
+        Assert.assertEquals(modified, dest.lastModified());
+        Assert.assertTrue(IncrementalStaging.writeIfChanged(dest, "{}".getBytes(StandardCharsets.UTF_8)));
+
+        final File source = write("host.json", "{}");
+        Assert.assertFalse(IncrementalStaging.copyIfChanged(source, dest));
+        FileUtils.writeStringToFile(source, "{\"version\":\"2.0\"}", StandardCharsets.UTF_8);
+        Assert.assertTrue(IncrementalStaging.copyIfChanged(source, dest));
+        Assert.assertEquals("{\"version\":\"2.0\"}", FileUtils.readFileToString(dest, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void syncDependencies() throws IOException {
+        final File lib = new File(this.root, "staging/lib");
+        final File a = write("repo/a.jar", "a");
+        final File b = write("repo/b.jar", "b");
+        final File stale = write("staging/lib/stale.jar", "stale");
+        Assert.assertEquals(2, IncrementalStaging.syncFiles(Arrays.asList(a, b), lib));
+        Assert.assertFalse(stale.exists());
+        Assert.assertEquals("a", FileUtils.readFileToString(new File(lib, "a.jar"), StandardCharsets.UTF_8));
+        Assert.assertEquals("unchanged dependencies should be kept", 0, IncrementalStaging.syncFiles(Arrays.asList(a, b), lib));
+
+        Assert.assertTrue(b.delete());
+        final File b2 = write("repo/b.jar", "b2");
+        Assert.assertTrue(b2.setLastModified(b2.lastModified() + 2000));
+        Assert.assertEquals(1, IncrementalStaging.syncFiles(Arrays.asList(a, b2), lib));
+        Assert.assertEquals("b2", FileUtils.readFileToString(new File(lib, "b.jar"), StandardCharsets.UTF_8));
+        Assert.assertEquals("removing files is not counted", 0, IncrementalStaging.syncFiles(Collections.singletonList(a), lib));
+        Assert.assertArrayEquals(new String[]{"a.jar"}, lib.list());
+    }
+
+    private File write(String path, String content) throws IOException {
+        final File file = new File(this.root, path);
+        FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.function.impl;
+
+import com.microsoft.azure.functions.annotation.FunctionName;
+import com.microsoft.azure.toolkit.lib.legacy.function.handlers.AnnotationHandlerImplTest;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * microbenchmark of function discovery: {@link FunctionClassScanner} against the reflections based scanning it
+ * replaced. not run by surefire, run with {@code main(jar-or-directory...)}, the test classes are scanned if no path
+ * is given.
+ */
+public class FunctionClassScannerBenchmark {
+    private static final int ITERATIONS = 20;
+
+    public static void main(String[] args) throws Exception {
+        final List<URL> urls = new ArrayList<>();
+        for (final String arg : args) {
+            urls.add(new File(arg).toURI().toURL());
+        }
+        if (urls.isEmpty()) {
+            urls.add(ClasspathHelper.forClass(AnnotationHandlerImplTest.class));
+        }
+        final ClassLoader classLoader = new URLClassLoader(urls.toArray(new URL[0]), FunctionClassScannerBenchmark.class.getClassLoader());
+        for (int round = 0; round < 3; round++) { // the first round warms up
+            final String prefix = round == 0 ? "(warmup) " : "";
+            measure(prefix + "reflections", () -> new Reflections(new ConfigurationBuilder().addUrls(urls)
+                .setScanners(Scanners.MethodsAnnotated).addClassLoaders(classLoader)).getMethodsAnnotatedWith(FunctionName.class));
+            measure(prefix + "FunctionClassScanner", () -> FunctionClassScanner.findFunctions(urls, classLoader));
+        }
+    }
+
+    private static void measure(String name, Supplier<Set<Method>> discovery) {
+        int found = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            found = discovery.get().size();
+        }
+        final long micros = (System.nanoTime() - start) / 1000 / ITERATIONS;
+        System.out.printf("%-32s %,10d us/op (%d functions)%n", name, micros, found);
+    }
+}
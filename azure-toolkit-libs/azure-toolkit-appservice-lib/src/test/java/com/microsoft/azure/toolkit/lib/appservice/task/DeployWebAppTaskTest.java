@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.task;
+
+import com.microsoft.azure.toolkit.lib.appservice.model.CsmDeploymentStatus;
+import com.microsoft.azure.toolkit.lib.appservice.model.DeployOptions;
+import com.microsoft.azure.toolkit.lib.appservice.model.DeployType;
+import com.microsoft.azure.toolkit.lib.appservice.model.DeploymentBuildStatus;
+import com.microsoft.azure.toolkit.lib.appservice.model.KuduDeploymentResult;
+import com.microsoft.azure.toolkit.lib.appservice.model.Runtime;
+import com.microsoft.azure.toolkit.lib.appservice.model.WebAppArtifact;
+import com.microsoft.azure.toolkit.lib.appservice.webapp.WebApp;
+import com.microsoft.azure.toolkit.lib.common.model.AzResourceBase;
+import com.microsoft.azure.toolkit.lib.common.model.AzResourceModule;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class DeployWebAppTaskTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private WebApp webApp;
+    private List<String> events;
+
+    @BeforeClass
+    public static void init() {
+        // `AzResource.NONE` and `AzResourceModule.NONE` refer to each other, the module must be initialized first.
+        Assert.assertNotNull(AzResourceModule.NONE);
+    }
+
+    @Before
+    public void setUp() {
+        this.events = Collections.synchronizedList(new ArrayList<>());
+        this.webApp = Mockito.mock(WebApp.class);
+        Mockito.when(webApp.getName()).thenReturn("app");
+        Mockito.when(webApp.getRuntime()).thenReturn(Runtime.LINUX_JAVA17);
+        Mockito.when(webApp.getFormalStatus()).thenReturn(AzResourceBase.FormalStatus.RUNNING);
+    }
+
+    @Test
+    public void deployIndependentArtifactsConcurrently() throws IOException {
+        final CountDownLatch allStarted = new CountDownLatch(3);
+        Mockito.doAnswer(invocation -> {
+            final File file = invocation.getArgument(1);
+            allStarted.countDown();
+            // blocks forever if the 3 artifacts were deployed one by one
+            Assert.assertTrue("artifacts should be deployed concurrently", allStarted.await(10, TimeUnit.SECONDS));
+            events.add(file.getName());
+            return null;
+        }).when(webApp).deploy(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(DeployOptions.class));
+
+        final DeployWebAppTask task = new DeployWebAppTask(webApp, Arrays.asList(
+            artifact(DeployType.STATIC, "a.html"), artifact(DeployType.JAR_LIB, "b.jar"), artifact(DeployType.SCRIPT, "c.sh")), false, false);
+        task.setDeployParallelism(3);
+        task.doExecute();
+        Assert.assertEquals(3, events.size());
+    }
+
+    @Test
+    public void deployAppArtifactsInOrder() throws IOException {
+        Mockito.doAnswer(invocation -> {
+            final File file = invocation.getArgument(1);
+            events.add("start:" + file.getName());
+            Thread.sleep(50);
+            events.add("end:" + file.getName());
+            return null;
+        }).when(webApp).deploy(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(DeployOptions.class));
+
+        final DeployWebAppTask task = new DeployWebAppTask(webApp, Arrays.asList(artifact(DeployType.STATIC, "a.html"),
+            artifact(DeployType.STATIC, "b.html"), artifact(DeployType.WAR, "app.war"), artifact(DeployType.STATIC, "c.html")), false, false);
+        task.setDeployParallelism(4);
+        task.doExecute();
+        final int warStart = events.indexOf("start:app.war");
+        final int warEnd = events.indexOf("end:app.war");
+        Assert.assertTrue("war should be deployed after all artifacts before it", events.indexOf("end:a.html") < warStart && events.indexOf("end:b.html") < warStart);
+        Assert.assertEquals("war should be deployed alone", warStart + 1, warEnd);
+        Assert.assertTrue(events.indexOf("start:c.html") > warEnd);
+    }
+
+    @Test
+    public void restartOnceForConcurrentArtifacts() throws IOException {
+        final DeployWebAppTask task = new DeployWebAppTask(webApp, Arrays.asList(artifact(DeployType.STATIC, "a.html"),
+            artifact(DeployType.STATIC, "b.html")), true, false);
+        task.setDeployParallelism(2);
+        task.doExecute();
+        Mockito.verify(webApp, Mockito.times(2)).deploy(ArgumentMatchers.any(), ArgumentMatchers.any(),
+            ArgumentMatchers.argThat((DeployOptions options) -> !options.getRestartSite()));
+        Mockito.verify(webApp).restart();
+    }
+
+    @Test
+    public void failIfAnyConcurrentArtifactFails() throws IOException {
+        Mockito.doAnswer(invocation -> {
+            final File file = invocation.getArgument(1);
+            if (file.getName().equals("b.html")) {
+                throw new IllegalStateException("failed to deploy b.html");
+            }
+            events.add(file.getName());
+            return null;
+        }).when(webApp).deploy(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(DeployOptions.class));
+
+        final DeployWebAppTask task = new DeployWebAppTask(webApp, Arrays.asList(artifact(DeployType.STATIC, "a.html"),
+            artifact(DeployType.STATIC, "b.html"), artifact(DeployType.STATIC, "c.html")), false, false);
+        task.setDeployParallelism(3);
+        try {
+            task.doExecute();
+            Assert.fail("failure of any artifact should fail the deployment");
+        } catch (final RuntimeException e) {
+            Assert.assertTrue(ExceptionUtils.getThrowableList(e).stream().anyMatch(t -> "failed to deploy b.html".equals(t.getMessage())));
+        }
+        Assert.assertEquals(Arrays.asList("a.html", "c.html"), events.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void trackDeploymentsConcurrently() throws IOException {
+        Mockito.when(webApp.pushDeploy(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+            .thenAnswer(invocation -> KuduDeploymentResult.builder().deploymentId(((File) invocation.getArgument(1)).getName()).build());
+        Mockito.when(webApp.getDeploymentStatus(ArgumentMatchers.anyString())).thenAnswer(invocation -> CsmDeploymentStatus.builder()
+            .deploymentId(invocation.getArgument(0)).status(DeploymentBuildStatus.RUNTIME_SUCCESSFUL).build());
+
+        final DeployWebAppTask task = new DeployWebAppTask(webApp, Arrays.asList(artifact(DeployType.STATIC, "a.html"),
+            artifact(DeployType.STATIC, "b.html"), artifact(DeployType.STATIC, "c.html")));
+        task.setDeployParallelism(3);
+        task.setDeploymentStatusRefreshInterval(1);
+        final long start = System.currentTimeMillis();
+        task.doExecute();
+        final long cost = System.currentTimeMillis() - start;
+        Mockito.verify(webApp, Mockito.times(3)).getDeploymentStatus(ArgumentMatchers.anyString());
+        Assert.assertTrue("deployments should be tracked concurrently, but took " + cost + "ms", cost < 2500);
+    }
+
+    @Test
+    public void redeployUnchangedArtifactsAfterAppArtifact() throws IOException {
+        final DeployWebAppTask task = Mockito.spy(new DeployWebAppTask(webApp, Arrays.asList(artifact(DeployType.STATIC, "a.html"),
+            artifact(DeployType.WAR, "app.war"), artifact(DeployType.STATIC, "b.html"), artifact(DeployType.JAR_LIB, "c.jar")), false, false));
+        task.setIncremental(true);
+        // only the war is changed
+        Mockito.doAnswer(invocation -> !((String) invocation.getArgument(1)).contains("app.war"))
+            .when(task).isDeployed(ArgumentMatchers.any(), ArgumentMatchers.anyString());
+        Mockito.doNothing().when(task).saveDeployed(ArgumentMatchers.any(), ArgumentMatchers.anyString());
+        task.doExecute();
+        Mockito.verify(webApp, Mockito.never()).deploy(ArgumentMatchers.any(), ArgumentMatchers.eq(new File(folder.getRoot(), "a.html")),
+            ArgumentMatchers.any(DeployOptions.class));
+        // the war may have cleaned what's deployed before, so nothing after it is skipped.
+        for (final String name : Arrays.asList("app.war", "b.html", "c.jar")) {
+            Mockito.verify(webApp).deploy(ArgumentMatchers.any(), ArgumentMatchers.eq(new File(folder.getRoot(), name)), ArgumentMatchers.any(DeployOptions.class));
+            Mockito.verify(task).saveDeployed(ArgumentMatchers.any(), ArgumentMatchers.contains(name));
+        }
+    }
+
+    @Test
+    public void skipUnchangedArtifacts() throws IOException {
+        final DeployWebAppTask task = Mockito.spy(new DeployWebAppTask(webApp, Arrays.asList(artifact(DeployType.WAR, "app.war"),
+            artifact(DeployType.STATIC, "a.html"), artifact(DeployType.STATIC, "b.html")), false, false));
+        task.setIncremental(true);
+        // only b.html is changed
+        Mockito.doAnswer(invocation -> !((String) invocation.getArgument(1)).contains("b.html"))
+            .when(task).isDeployed(ArgumentMatchers.any(), ArgumentMatchers.anyString());
+        Mockito.doNothing().when(task).saveDeployed(ArgumentMatchers.any(), ArgumentMatchers.anyString());
+        task.doExecute();
+        Mockito.verify(webApp).deploy(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(DeployOptions.class));
+        Mockito.verify(webApp).deploy(ArgumentMatchers.any(), ArgumentMatchers.eq(new File(folder.getRoot(), "b.html")), ArgumentMatchers.any(DeployOptions.class));
+    }
+
+    private WebAppArtifact artifact(DeployType type, String name) throws IOException {
+        final File file = folder.newFile(name);
+        if (name.endsWith(".war") || name.endsWith(".jar")) {
+            try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+                out.putNextEntry(new ZipEntry("index.html"));
+                out.closeEntry();
+            }
+        }
+        return WebAppArtifact.builder().deployType(type).file(file).build();
+    }
+}
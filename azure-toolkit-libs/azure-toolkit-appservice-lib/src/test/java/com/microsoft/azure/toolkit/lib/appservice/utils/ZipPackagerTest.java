@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.appservice.utils;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+public class ZipPackagerTest {
+    private Path root;
+
+    @Before
+    public void setUp() throws IOException {
+        this.root = Files.createTempDirectory("zip-packager");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(this.root.toFile());
+    }
+
+    @Test
+    public void packFilteredEntries() throws IOException {
+        write("index.html", "<html></html>".getBytes(StandardCharsets.UTF_8));
+        write("lib/app.jar", new byte[]{1, 2, 3});
+        write("node_modules/a/index.js", "module.exports = 1;".getBytes(StandardCharsets.UTF_8));
+        final File zip = ZipPackager.pack(this.root.toFile(), name -> !name.startsWith("node_modules/"));
+        try (ZipFile file = new ZipFile(zip)) {
+            Assert.assertNull(file.getEntry("node_modules/a/index.js"));
+            Assert.assertNotNull(file.getEntry("lib/"));
+            Assert.assertEquals("<html></html>", read(file, "index.html"));
+            final ZipEntry jar = file.getEntry("lib/app.jar");
+            Assert.assertEquals("already compressed entries should be stored", ZipEntry.STORED, jar.getMethod());
+            Assert.assertArrayEquals(new byte[]{1, 2, 3}, IOUtils.toByteArray(file.getInputStream(jar)));
+        } finally {
+            Files.delete(zip.toPath());
+        }
+    }
+
+    @Test
+    public void streamLargeEntries() throws IOException {
+        final byte[] large = new byte[ZipPackager.MAX_IN_MEMORY_ENTRY_SIZE * 3 + 17];
+        final Random random = new Random(0);
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) ('a' + random.nextInt(4)); // compressible
+        }
+        final byte[] incompressible = new byte[ZipPackager.MAX_IN_MEMORY_ENTRY_SIZE * 2];
+        random.nextBytes(incompressible);
+        write("data/model.bin", large);
+        write("data/random.bin", incompressible);
+        write("small.txt", "small".getBytes(StandardCharsets.UTF_8));
+        final File zip = ZipPackager.pack(this.root.toFile(), name -> true);
+        try (ZipFile file = new ZipFile(zip)) {
+            final ZipEntry entry = file.getEntry("data/model.bin");
+            Assert.assertEquals(ZipEntry.DEFLATED, entry.getMethod());
+            Assert.assertEquals(large.length, entry.getSize());
+            Assert.assertTrue(entry.getCompressedSize() < large.length);
+            Assert.assertArrayEquals(large, IOUtils.toByteArray(file.getInputStream(entry)));
+            Assert.assertArrayEquals(incompressible, IOUtils.toByteArray(file.getInputStream(file.getEntry("data/random.bin"))));
+            Assert.assertEquals("small", read(file, "small.txt"));
+        } finally {
+            Files.delete(zip.toPath());
+        }
+        // entries after a streamed one(with data descriptor) must still be readable sequentially
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ZipPackager.pack(this.root.toFile(), out, name -> true);
+        final Map<String, Integer> sizes = new HashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry e = in.getNextEntry(); e != null; e = in.getNextEntry()) {
+                sizes.put(e.getName(), IOUtils.toByteArray(in).length);
+            }
+        }
+        Assert.assertEquals(Integer.valueOf(large.length), sizes.get("data/model.bin"));
+        Assert.assertEquals(Integer.valueOf(5), sizes.get("small.txt"));
+    }
+
+    @Test
+    public void keepUnixPermissions() throws IOException {
+        Assume.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        final Path script = write("bin/startup.sh", "#!/bin/sh".getBytes(StandardCharsets.UTF_8));
+        Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwxr-x---"));
+        final Path large = write("bin/large.dat", new byte[ZipPackager.MAX_IN_MEMORY_ENTRY_SIZE + 1]);
+        Files.setPosixFilePermissions(large, PosixFilePermissions.fromString("rw-------"));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ZipPackager.pack(this.root.toFile(), out, name -> true);
+        final Map<String, Integer> modes = readUnixModes(out.toByteArray());
+        Assert.assertEquals(Integer.valueOf(0100750), modes.get("bin/startup.sh"));
+        Assert.assertEquals(Integer.valueOf(0100600), modes.get("bin/large.dat"));
+        Assert.assertEquals(0040000, modes.get("bin/") & 0170000);
+    }
+
+    private Path write(String name, byte[] content) throws IOException {
+        final Path path = this.root.resolve(name);
+        Files.createDirectories(path.getParent());
+        return Files.write(path, content);
+    }
+
+    private static String read(ZipFile file, String name) throws IOException {
+        try (InputStream in = file.getInputStream(file.getEntry(name))) {
+            return IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * read unix modes from external attributes of central directory headers made by unix.
+     */
+    private static Map<String, Integer> readUnixModes(byte[] zip) {
+        final ByteBuffer buffer = ByteBuffer.wrap(zip).order(ByteOrder.LITTLE_ENDIAN);
+        final int end = zip.length - 22; // no comment
+        Assert.assertEquals(0x06054b50, buffer.getInt(end));
+        final int entries = buffer.getShort(end + 10) & 0xFFFF;
+        int offset = buffer.getInt(end + 16);
+        final Map<String, Integer> modes = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+            Assert.assertEquals(0x02014b50, buffer.getInt(offset));
+            final int madeBy = buffer.getShort(offset + 4) & 0xFFFF;
+            final int nameLength = buffer.getShort(offset + 28) & 0xFFFF;
+            final int extraLength = buffer.getShort(offset + 30) & 0xFFFF;
+            final int commentLength = buffer.getShort(offset + 32) & 0xFFFF;
+            final long attributes = buffer.getInt(offset + 38) & 0xFFFFFFFFL;
+            final String name = new String(zip, offset + 46, nameLength, StandardCharsets.UTF_8);
+            if (madeBy >> 8 == 3) {
+                modes.put(name, (int) (attributes >>> 16));
+            }
+            offset += 46 + nameLength + extraLength + commentLength;
+        }
+        return modes;
+    }
+}
@@ -7,64 +7,174 @@ package com.microsoft.azure.toolkit.lib.legacy.appservice.handlers.artifact;
 
 import com.microsoft.azure.toolkit.lib.common.exception.AzureExecutionException;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
 
-import static org.mockito.Mockito.verifyNoMoreInteractions;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
 
 @RunWith(MockitoJUnitRunner.class)
 public class FTPUploaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private FTPUploader ftpUploader = null;
+    private File source = null;
 
     @Before
-    public void setUp() {
+    public void setUp() throws IOException {
         MockitoAnnotations.initMocks(this);
         ftpUploader = new FTPUploader();
+        ftpUploader.setConnections(1);
+        source = folder.newFolder("source");
+        FileUtils.writeStringToFile(new File(source, "sub/a.txt"), "hello world", StandardCharsets.UTF_8);
     }
 
     @Test
     public void uploadDirectoryWithRetries() throws Exception {
         final FTPUploader uploaderSpy = Mockito.spy(ftpUploader);
+        final FTPClient ftpClient = Mockito.mock(FTPClient.class);
+        Mockito.doReturn(ftpClient).when(uploaderSpy).getFTPClient(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+        Mockito.doReturn(true).when(ftpClient).makeDirectory(ArgumentMatchers.anyString());
 
         // Failure
+        Mockito.doReturn(false).when(ftpClient).storeFile(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class));
         AzureExecutionException exception = null;
-        Mockito.doReturn(false).when(uploaderSpy).uploadDirectory(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyString());
         try {
-            uploaderSpy.uploadDirectoryWithRetries("ftpServer", "username", "password", "sourceDir", "targetDir", 1);
+            uploaderSpy.uploadDirectoryWithRetries("ftpServer", "username", "password", source.getAbsolutePath(), "/site/wwwroot", 2);
         } catch (AzureExecutionException e) {
             exception = e;
         } finally {
             Assert.assertNotNull(exception);
         }
+        Mockito.verify(ftpClient, Mockito.times(2)).storeFile(ArgumentMatchers.eq("/site/wwwroot/sub/a.txt"), ArgumentMatchers.any(InputStream.class));
+        Mockito.verify(ftpClient).makeDirectory("/site/wwwroot/sub");
 
         // Success
-        Mockito.doReturn(true).when(uploaderSpy).uploadDirectory(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyString());
-        uploaderSpy.uploadDirectoryWithRetries("ftpServer", "username", "password", "sourceDir", "targetDir", 1);
+        Mockito.doReturn(true).when(ftpClient).storeFile(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class));
+        uploaderSpy.uploadDirectoryWithRetries("ftpServer", "username", "password", source.getAbsolutePath(), "/site/wwwroot", 2);
+        Mockito.verify(ftpClient, Mockito.times(3)).storeFile(ArgumentMatchers.eq("/site/wwwroot/sub/a.txt"), ArgumentMatchers.any(InputStream.class));
+    }
+
+    @Test
+    public void uploadDirectorySkipUnchanged() throws Exception {
+        ftpUploader.setSkipUnchanged(true);
+        final FTPUploader uploaderSpy = Mockito.spy(ftpUploader);
+        final FTPClient ftpClient = mockUnchangedRemote(uploaderSpy);
+
+        uploaderSpy.uploadDirectoryWithRetries("ftpServer", "username", "password", source.getAbsolutePath(), "/site/wwwroot", 1);
+        Mockito.verify(ftpClient, Mockito.never()).storeFile(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class));
+        Mockito.verify(ftpClient, Mockito.never()).makeDirectory(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    public void uploadDirectoryOverwriteByDefault() throws Exception {
+        final FTPUploader uploaderSpy = Mockito.spy(ftpUploader);
+        final FTPClient ftpClient = mockUnchangedRemote(uploaderSpy);
+        Mockito.doReturn(true).when(ftpClient).storeFile(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class));
+
+        // same size and newer remote timestamp, but content may differ
+        uploaderSpy.uploadDirectoryWithRetries("ftpServer", "username", "password", source.getAbsolutePath(), "/site/wwwroot", 1);
+        Mockito.verify(ftpClient).storeFile(ArgumentMatchers.eq("/site/wwwroot/sub/a.txt"), ArgumentMatchers.any(InputStream.class));
+        Mockito.verify(ftpClient, Mockito.never()).mlistDir(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    public void uploadFileResumeOnRetry() throws Exception {
+        final FTPUploader uploaderSpy = Mockito.spy(ftpUploader);
+        final FTPClient ftpClient = mockClient(uploaderSpy);
+        Mockito.doAnswer(invocation -> {
+            IOUtils.read(invocation.getArgument(1, InputStream.class), new byte[5]);
+            throw new IOException("connection reset");
+        }).doReturn(true).when(ftpClient).storeFile(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class));
+        Mockito.doReturn("5").doReturn("11").when(ftpClient).getSize("/site/wwwroot/sub/a.txt");
+
+        uploaderSpy.uploadDirectoryWithRetries("ftpServer", "username", "password", source.getAbsolutePath(), "/site/wwwroot", 2);
+        Mockito.verify(ftpClient).setRestartOffset(5);
+        Mockito.verify(ftpClient, Mockito.times(2)).storeFile(ArgumentMatchers.eq("/site/wwwroot/sub/a.txt"), ArgumentMatchers.any(InputStream.class));
     }
 
     @Test
-    public void uploadDirectory() throws Exception {
+    public void uploadFileRestartIfResumedSizeMismatches() throws Exception {
         final FTPUploader uploaderSpy = Mockito.spy(ftpUploader);
+        final FTPClient ftpClient = mockClient(uploaderSpy);
+        Mockito.doAnswer(invocation -> {
+            IOUtils.read(invocation.getArgument(1, InputStream.class), new byte[5]);
+            throw new IOException("connection reset");
+        }).doReturn(true).when(ftpClient).storeFile(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class));
+        Mockito.doReturn("5").doReturn("16").when(ftpClient).getSize("/site/wwwroot/sub/a.txt");
+
+        uploaderSpy.uploadDirectoryWithRetries("ftpServer", "username", "password", source.getAbsolutePath(), "/site/wwwroot", 3);
+        Mockito.verify(ftpClient).setRestartOffset(5);
+        Mockito.verify(ftpClient, Mockito.times(3)).storeFile(ArgumentMatchers.eq("/site/wwwroot/sub/a.txt"), ArgumentMatchers.any(InputStream.class));
+    }
+
+    @Test
+    public void uploadFileRestartIfNothingSent() throws Exception {
+        final FTPUploader uploaderSpy = Mockito.spy(ftpUploader);
+        final FTPClient ftpClient = mockClient(uploaderSpy);
+        // first attempt fails before `STOR` (e.g. PASV), the remote still holds the file of last deployment
+        Mockito.doThrow(new IOException("failed to enter passive mode")).doReturn(true)
+            .when(ftpClient).storeFile(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class));
+        Mockito.lenient().doReturn("5").when(ftpClient).getSize("/site/wwwroot/sub/a.txt");
+
+        uploaderSpy.uploadDirectoryWithRetries("ftpServer", "username", "password", source.getAbsolutePath(), "/site/wwwroot", 2);
+        Mockito.verify(ftpClient, Mockito.never()).setRestartOffset(ArgumentMatchers.anyLong());
+        Mockito.verify(ftpClient, Mockito.never()).getSize(ArgumentMatchers.anyString());
+        Mockito.verify(ftpClient, Mockito.times(2)).storeFile(ArgumentMatchers.eq("/site/wwwroot/sub/a.txt"), ArgumentMatchers.any(InputStream.class));
+    }
+
+    @Test
+    public void uploadFileRestartIfRemoteIsLargerThanSent() throws Exception {
+        final FTPUploader uploaderSpy = Mockito.spy(ftpUploader);
+        final FTPClient ftpClient = mockClient(uploaderSpy);
+        Mockito.doAnswer(invocation -> {
+            IOUtils.read(invocation.getArgument(1, InputStream.class), new byte[3]);
+            throw new IOException("connection reset");
+        }).doReturn(true).when(ftpClient).storeFile(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class));
+        Mockito.doReturn("8").when(ftpClient).getSize("/site/wwwroot/sub/a.txt");
+
+        uploaderSpy.uploadDirectoryWithRetries("ftpServer", "username", "password", source.getAbsolutePath(), "/site/wwwroot", 2);
+        Mockito.verify(ftpClient, Mockito.never()).setRestartOffset(ArgumentMatchers.anyLong());
+        Mockito.verify(ftpClient, Mockito.times(2)).storeFile(ArgumentMatchers.eq("/site/wwwroot/sub/a.txt"), ArgumentMatchers.any(InputStream.class));
+    }
+
+    private FTPClient mockClient(final FTPUploader uploaderSpy) throws IOException {
+        final FTPClient ftpClient = Mockito.mock(FTPClient.class);
+        Mockito.doReturn(ftpClient).when(uploaderSpy).getFTPClient(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+        Mockito.doReturn(true).when(ftpClient).makeDirectory(ArgumentMatchers.anyString());
+        return ftpClient;
+    }
+
+    private FTPClient mockUnchangedRemote(final FTPUploader uploaderSpy) throws IOException {
         final FTPClient ftpClient = Mockito.mock(FTPClient.class);
         Mockito.doReturn(ftpClient).when(uploaderSpy).getFTPClient(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
-        Mockito.doNothing().when(uploaderSpy).uploadDirectory(ArgumentMatchers.any(FTPClient.class), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
-
-        uploaderSpy.uploadDirectory(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
-        Mockito.verify(ftpClient, Mockito.times(1)).disconnect();
-        Mockito.verifyNoMoreInteractions(ftpClient);
-        Mockito.verify(uploaderSpy, Mockito.times(1)).uploadDirectory(ArgumentMatchers.any(FTPClient.class), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
-        Mockito.verify(uploaderSpy, Mockito.times(1)).getFTPClient(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
-        Mockito.verify(uploaderSpy, Mockito.times(1)).uploadDirectory(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
-        verifyNoMoreInteractions(uploaderSpy);
+        Mockito.doReturn(true).when(ftpClient).changeWorkingDirectory(ArgumentMatchers.anyString());
+        Mockito.lenient().doReturn(250).when(ftpClient).getReplyCode();
+        final FTPFile remote = new FTPFile();
+        remote.setName("a.txt");
+        remote.setType(FTPFile.FILE_TYPE);
+        remote.setSize(new File(source, "sub/a.txt").length());
+        final Calendar timestamp = Calendar.getInstance();
+        timestamp.setTimeInMillis(System.currentTimeMillis() + 60_000);
+        remote.setTimestamp(timestamp);
+        Mockito.lenient().doReturn(new FTPFile[]{remote}).when(ftpClient).mlistDir("/site/wwwroot/sub");
+        return ftpClient;
     }
 
     @Test
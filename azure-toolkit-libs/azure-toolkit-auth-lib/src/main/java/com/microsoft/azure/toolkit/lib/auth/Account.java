@@ -27,6 +27,7 @@ import com.microsoft.azure.toolkit.lib.common.cache.Preloader;
 import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzServiceSubscription;
 import com.microsoft.azure.toolkit.lib.common.model.Subscription;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
@@ -42,6 +43,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -63,6 +66,8 @@ import java.util.stream.Collectors;
 public abstract class Account implements IAccount {
     protected static final TokenCachePersistenceOptions PERSISTENCE_OPTIONS = new TokenCachePersistenceOptions().setName("azure-toolkit.cache");
     private static final ClientLogger LOGGER = new ClientLogger(Account.class);
+    private static final int TENANT_CONCURRENCY = 8;
+    private static final Duration TENANT_TIMEOUT = Duration.ofSeconds(30);
     private final Map<String, TokenCredential> tenantCredentialCache = new ConcurrentHashMap<>();
     @Nonnull
     private final AuthConfiguration config;
@@ -152,28 +157,51 @@ public abstract class Account implements IAccount {
         return this.getSubscriptions();
     }
 
+    /**
+     * subscriptions of tenants are loaded concurrently(at most {@link #TENANT_CONCURRENCY} tenants at the same time and
+     * each in {@link #TENANT_TIMEOUT}), so that slow tenants don't stall the others. subscriptions of each tenant are
+     * published once loaded, and the result is in the order of tenants, the same as if they were loaded one by one.
+     */
     protected List<Subscription> loadSubscriptions() {
         final TokenCredential credential = this.defaultTokenCredential;
         final ResourceManager.Authenticated client = configureAzure().authenticate(credential, new AzureProfile(this.getEnvironment()));
         final List<Tenant> tenants = client.tenants().list().stream().collect(Collectors.toList());
-        return tenants.stream()
-            .flatMap(t -> this.loadSubscriptions(t.tenantId()).stream())
+        final IAzureMessager messager = AzureMessager.getMessager();
+        final List<Tuple2<Long, List<Subscription>>> result = Flux.fromIterable(tenants).index()
+            .flatMap(t -> this.loadSubscriptions(t.getT2().tenantId(), messager).map(subs -> Tuples.of(t.getT1(), subs)), TENANT_CONCURRENCY)
+            .collectSortedList(Comparator.comparing(Tuple2::getT1))
+            .block();
+        return Optional.ofNullable(result).orElse(Collections.emptyList()).stream()
+            .flatMap(t -> t.getT2().stream())
             .filter(Utils.distinctByKey(Subscription::getId))
             .collect(Collectors.toList());
     }
 
+    /**
+     * subscriptions listed before a failure or the timeout are kept. "account.tenant_subscriptions_loaded.account" is
+     * emitted with (tenantId, subscriptions) as payload.
+     */
     @Nonnull
-    private List<Subscription> loadSubscriptions(String tenantId) {
+    private Mono<List<Subscription>> loadSubscriptions(String tenantId, IAzureMessager messager) {
         final TokenCredential credential = this.getTenantTokenCredential(tenantId);
         final AzureProfile profile = new AzureProfile(tenantId, null, this.getEnvironment());
         final ResourceManager.Authenticated client = configureAzure().authenticate(credential, profile);
-        final List<Subscription> subscriptions = client.subscriptions().listAsync().onErrorResume(ex -> {
-                AzureMessager.getMessager().warning(String.format("Cannot get subscriptions for tenant %s " +
-                    ", please verify you have proper permissions over this tenant, detailed error: %s", tenantId, ex.getMessage()));
-                return Flux.fromIterable(new ArrayList<>());
-            }).map(Subscription::new)
-            .collect(Collectors.toList()).flatMapIterable(s -> s).collectList().block();
-        return Optional.ofNullable(subscriptions).orElse(Collections.emptyList());
+        final Mono<Long> timeout = Mono.delay(TENANT_TIMEOUT) // cancelled if all subscriptions are listed in time
+            .doOnNext(t -> warnFailedTenant(tenantId, String.format("timed out after %s seconds", TENANT_TIMEOUT.getSeconds()), messager));
+        return client.subscriptions().listAsync()
+            .map(Subscription::new)
+            .takeUntilOther(timeout)
+            .onErrorResume(ex -> {
+                warnFailedTenant(tenantId, ex.getMessage(), messager);
+                return Flux.empty();
+            })
+            .collectList()
+            .doOnNext(subscriptions -> AzureEventBus.emit("account.tenant_subscriptions_loaded.account", this, Tuples.of(tenantId, subscriptions)));
+    }
+
+    private static void warnFailedTenant(String tenantId, String error, IAzureMessager messager) {
+        messager.warning(String.format("Cannot get subscriptions for tenant %s " +
+            ", please verify you have proper permissions over this tenant, detailed error: %s", tenantId, error));
     }
 
     @Nonnull
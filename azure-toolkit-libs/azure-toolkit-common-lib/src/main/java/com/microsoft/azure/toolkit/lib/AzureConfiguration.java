@@ -5,15 +5,21 @@
 
 package com.microsoft.azure.toolkit.lib;
 
+import com.microsoft.azure.toolkit.lib.common.cache.CachePolicy;
 import com.microsoft.azure.toolkit.lib.common.proxy.ProxyInfo;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.net.ssl.SSLContext;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 @Getter
 @Setter
@@ -41,10 +47,50 @@ public class AzureConfiguration {
     @Nullable
     private SSLContext sslContext;
     private int pageSize = 99;
+    private int pagePrefetchDepth = 1; // number of continuation pages fetched in background, 0 to disable
     private List<String> documentsLabelFields = new ArrayList<>(DEFAULT_DOCUMENT_LABEL_FIELDS);
     private int monitorQueryRowNumber = 200;
     private boolean authPersistenceEnabled = true;
     private String eventHubsConsumerGroup = "$Default";
+    private int eventCoalescingWindow = 50; // in milliseconds, identical events emitted within the window are delivered once, 0 to disable
+    // settings of the shared http client, which take effect only if set before the client is created.
+    private int httpMaxConnections = 0; // max connections per host, 0 to use the default of reactor-netty
+    private int httpPendingAcquireMaxCount = 0; // max requests waiting for a connection per host, 0 to use the default of reactor-netty
+    private int httpMaxIdleTime = 0; // in seconds, idle connections are closed after it, 0 for no limit
+    private int httpMaxLifeTime = 0; // in seconds, connections are closed after it, 0 for no limit
+    private int httpEventLoopThreads = 0; // 0 to use the default(number of processors)
+    private boolean http2Enabled = false; // negotiate HTTP/2 with HTTP/1.1 fallback over TLS
+    /**
+     * cache policies keyed by full resource type(case-insensitive), e.g. "Microsoft.Web/sites"
+     */
+    @Setter(AccessLevel.NONE)
+    private final Map<String, CachePolicy> cachePolicies = new ConcurrentSkipListMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    @Nonnull
+    public CachePolicy getCachePolicy(@Nonnull String fullResourceType) {
+        return Optional.ofNullable(this.cachePolicies.get(fullResourceType)).orElse(CachePolicy.DEFAULT);
+    }
+
+    public void setCachePolicy(@Nonnull String fullResourceType, @Nonnull CachePolicy policy) {
+        this.cachePolicies.put(fullResourceType, policy);
+    }
+
+    /**
+     * replace all cache policies, keys are still matched case-insensitively.
+     */
+    public void setCachePolicies(@Nonnull Map<String, CachePolicy> policies) {
+        this.cachePolicies.clear();
+        this.cachePolicies.putAll(policies);
+    }
+
+    /**
+     * @return proxy and ssl settings that http clients are built with, clients must be rebuilt once they change.
+     */
+    @Nonnull
+    public List<Object> getHttpConnectionSettings() {
+        return Arrays.asList(this.proxySource, this.httpProxyHost, this.httpProxyPort, this.proxyUsername, this.proxyPassword,
+            this.nonProxyHosts, this.sslContext);
+    }
 
     public void setProxyInfo(ProxyInfo proxy) {
         this.setProxySource(proxy.getSource());
@@ -110,6 +110,7 @@ public class CacheManager {
         } else if (StringUtils.equals(CacheEvict.ALL, name)) { // invalidate all cache entries if cache name not specified
             log.fine("invalidate all caches");
             caches.invalidateAll();
+            ClientRegistry.invalidateAll();
         } else {
             if (StringUtils.isBlank(key)) {
                 log.warning(String.format("key is not specified when invalidating cache[%s]", name));
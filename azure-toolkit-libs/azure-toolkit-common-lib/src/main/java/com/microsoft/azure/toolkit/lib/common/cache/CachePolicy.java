@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.cache;
+
+import com.microsoft.azure.toolkit.lib.common.model.AzResource;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * stale-while-revalidate policy of cached resources:
+ * cached values younger than {@code softLifetime} are served directly, values older than {@code softLifetime} but
+ * younger than {@code hardLifetime} are served immediately while refreshed in background, and values older than
+ * {@code hardLifetime} are reloaded synchronously.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class CachePolicy {
+    public static final CachePolicy DEFAULT = new CachePolicy(AzResource.CACHE_LIFETIME, AzResource.CACHE_LIFETIME);
+
+    private final long softLifetime;
+    private final long hardLifetime;
+
+    /**
+     * @param softLifetime in milliseconds
+     * @param hardLifetime in milliseconds, must not be less than {@code softLifetime}
+     */
+    public CachePolicy(long softLifetime, long hardLifetime) {
+        if (softLifetime < 0 || hardLifetime < softLifetime) {
+            throw new IllegalArgumentException(String.format("invalid cache lifetimes: soft(%s), hard(%s)", softLifetime, hardLifetime));
+        }
+        this.softLifetime = softLifetime;
+        this.hardLifetime = hardLifetime;
+    }
+
+    /**
+     * @param syncTime time when the cached value is synced, 0 means loading and negative means invalidated.
+     * @return true if the cached value should be served and refreshed in background.
+     */
+    public boolean isStale(long syncTime) {
+        final long age = System.currentTimeMillis() - syncTime;
+        return syncTime > 0 && age > this.softLifetime && age <= this.hardLifetime;
+    }
+
+    /**
+     * @param syncTime time when the cached value is synced, 0 means loading and negative means invalidated.
+     * @return true if the cached value must be reloaded before being served.
+     */
+    public boolean isExpired(long syncTime) {
+        return System.currentTimeMillis() - syncTime > this.hardLifetime;
+    }
+}
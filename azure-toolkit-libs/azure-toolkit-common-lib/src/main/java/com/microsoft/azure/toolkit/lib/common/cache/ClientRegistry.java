@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.cache;
+
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.AzureConfiguration;
+import com.microsoft.azure.toolkit.lib.account.IAccount;
+import com.microsoft.azure.toolkit.lib.account.IAzureAccount;
+import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
+import com.microsoft.azure.toolkit.lib.common.model.Subscription;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * registry of management clients (e.g. {@code ResourceManager}, {@code StorageManager}) shared per
+ * (owner class, service, subscription, account/credential, environment, http settings), so that http pipelines and the
+ * credentials behind them are built once instead of on every (re)load. clients are evicted when signed out, when their
+ * subscription is deselected and when http settings(user agent, log level, proxy and ssl) change.
+ */
+@Slf4j
+public class ClientRegistry {
+    private static final Map<Key, Object> clients = new ConcurrentHashMap<>();
+    private static final SingleFlight<Key, Object> building = new SingleFlight<>();
+    private static final AtomicLong built = new AtomicLong();
+    private static final AtomicLong reused = new AtomicLong();
+    private static final AtomicBoolean listening = new AtomicBoolean(false);
+
+    /**
+     * evict clients on signing out and deselecting subscriptions, it's safe to be called multiple times.
+     */
+    public static void registerListeners() {
+        if (!listening.compareAndSet(false, true)) {
+            return;
+        }
+        AzureEventBus.on("account.logged_out.account", new AzureEventBus.EventListener(e -> invalidateAll()));
+        AzureEventBus.on("account.subscription_changed.account", new AzureEventBus.EventListener(e -> {
+            if (e.getSource() instanceof IAccount) {
+                invalidateDeselected((IAccount) e.getSource());
+            }
+        }));
+    }
+
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public static <T> T getOrCreate(@Nonnull Class<?> owner, @Nonnull String service, @Nonnull String subscriptionId, @Nonnull Supplier<T> factory) {
+        final IAccount account = Azure.az(IAzureAccount.class).account();
+        final Key key = new Key(owner, service.toLowerCase(), subscriptionId.toLowerCase(), account, account.getEnvironment().getManagementEndpoint(), getHttpSettings());
+        final Object existing = clients.get(key);
+        if (existing != null) {
+            reused.incrementAndGet();
+            return (T) existing;
+        }
+        return (T) building.execute(key, () -> { // build outside of map locks, concurrent builds of the same key are coalesced.
+            final Object client = clients.get(key);
+            if (client != null) {
+                return client;
+            }
+            log.debug("build client of {}", key);
+            clients.keySet().removeIf(k -> !Objects.equals(k.httpSettings, key.httpSettings)); // never reused any more.
+            final T created = factory.get();
+            built.incrementAndGet();
+            clients.put(key, created);
+            return created;
+        });
+    }
+
+    @Nonnull
+    private static List<Object> getHttpSettings() {
+        final AzureConfiguration config = Azure.az().config();
+        return Arrays.asList(config.getUserAgent(), config.getLogLevel(), config.getHttpConnectionSettings());
+    }
+
+    public static void invalidateAll() {
+        log.debug("invalidate all clients");
+        clients.clear();
+    }
+
+    private static void invalidateDeselected(@Nonnull IAccount account) {
+        final Set<String> selected = account.getSelectedSubscriptions().stream()
+            .map(Subscription::getId).map(String::toLowerCase).collect(Collectors.toSet());
+        clients.keySet().removeIf(k -> !selected.contains(k.subscriptionId));
+    }
+
+    /**
+     * @return number of clients(and thus http pipelines) built.
+     */
+    public static long getBuiltCount() {
+        return built.get();
+    }
+
+    /**
+     * @return number of times a client is reused instead of being built.
+     */
+    public static long getReusedCount() {
+        return reused.get();
+    }
+
+    @ToString(exclude = {"account", "httpSettings"})
+    @RequiredArgsConstructor
+    private static class Key {
+        /**
+         * class which creates the client, different services may share the same name(e.g. mysql single and
+         * flexible servers) but create different types of clients.
+         */
+        private final Class<?> owner;
+        private final String service;
+        private final String subscriptionId;
+        private final IAccount account; // compared by identity, a new sign-in creates a new account(and credential).
+        private final String environment;
+        private final List<Object> httpSettings; // user agent, log level, proxy and ssl settings the client is built with
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return this.account == key.account && this.owner == key.owner && Objects.equals(this.service, key.service) &&
+                Objects.equals(this.subscriptionId, key.subscriptionId) && Objects.equals(this.environment, key.environment) &&
+                Objects.equals(this.httpSettings, key.httpSettings);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.owner, this.service, this.subscriptionId, System.identityHashCode(this.account), this.environment, this.httpSettings);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.cache;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * concurrent map which iterates in insertion order (like {@link java.util.LinkedHashMap}).
+ * reads are lock-free, writes are atomic per key, iteration is weakly consistent and never throws
+ * {@link java.util.ConcurrentModificationException}. replacing value of an existing key (including through
+ * {@link Map.Entry#setValue}) keeps its position.
+ */
+public class ConcurrentOrderedMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+    private final ConcurrentHashMap<K, Node> index = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Node> ordered = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final EntrySet entrySet = new EntrySet();
+
+    @Override
+    public int size() {
+        return this.index.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.index.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.index.containsKey(key);
+    }
+
+    @Override
+    @Nullable
+    public V get(Object key) {
+        final Node node = this.index.get(key);
+        return Objects.isNull(node) ? null : node.value;
+    }
+
+    @Override
+    @Nullable
+    public V put(@Nonnull K key, @Nonnull V value) {
+        final Object[] previous = new Object[1];
+        this.index.compute(key, (k, node) -> {
+            if (Objects.isNull(node)) {
+                return this.newNode(k, value);
+            }
+            previous[0] = node.value;
+            node.value = value;
+            return node;
+        });
+        return this.cast(previous[0]);
+    }
+
+    @Override
+    @Nullable
+    public V putIfAbsent(@Nonnull K key, @Nonnull V value) {
+        final Object[] existing = new Object[1];
+        this.index.compute(key, (k, node) -> {
+            if (Objects.isNull(node)) {
+                return this.newNode(k, value);
+            }
+            existing[0] = node.value;
+            return node;
+        });
+        return this.cast(existing[0]);
+    }
+
+    @Override
+    public boolean replace(@Nonnull K key, @Nonnull V oldValue, @Nonnull V newValue) {
+        final boolean[] replaced = new boolean[1];
+        this.index.computeIfPresent(key, (k, node) -> {
+            if (Objects.equals(node.value, oldValue)) {
+                node.value = newValue;
+                replaced[0] = true;
+            }
+            return node;
+        });
+        return replaced[0];
+    }
+
+    @Override
+    @Nullable
+    public V replace(@Nonnull K key, @Nonnull V value) {
+        final Object[] previous = new Object[1];
+        this.index.computeIfPresent(key, (k, node) -> {
+            previous[0] = node.value;
+            node.value = value;
+            return node;
+        });
+        return this.cast(previous[0]);
+    }
+
+    @Override
+    @Nullable
+    public V remove(Object key) {
+        final Object[] removed = new Object[1];
+        this.index.computeIfPresent(this.cast(key), (k, node) -> {
+            this.ordered.remove(node.sequence);
+            removed[0] = node.value;
+            return null;
+        });
+        return this.cast(removed[0]);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        final boolean[] removed = new boolean[1];
+        this.index.computeIfPresent(this.cast(key), (k, node) -> {
+            if (!Objects.equals(node.value, value)) {
+                return node;
+            }
+            this.ordered.remove(node.sequence);
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    @Override
+    @Nullable
+    public V compute(@Nonnull K key, @Nonnull BiFunction<? super K, ? super V, ? extends V> remapping) {
+        final Object[] result = new Object[1];
+        this.index.compute(key, (k, node) -> {
+            final V value = remapping.apply(k, Objects.isNull(node) ? null : node.value);
+            if (Objects.isNull(value)) {
+                Optional.ofNullable(node).ifPresent(n -> this.ordered.remove(n.sequence));
+                return null;
+            }
+            result[0] = value;
+            if (Objects.isNull(node)) {
+                return this.newNode(k, value);
+            }
+            node.value = value;
+            return node;
+        });
+        return this.cast(result[0]);
+    }
+
+    @Override
+    @Nullable
+    public V computeIfAbsent(@Nonnull K key, @Nonnull Function<? super K, ? extends V> mapping) {
+        final Node existing = this.index.get(key);
+        if (Objects.nonNull(existing)) {
+            return existing.value;
+        }
+        return this.compute(key, (k, v) -> Objects.isNull(v) ? mapping.apply(k) : v);
+    }
+
+    @Override
+    public void clear() {
+        this.index.keySet().forEach(this::remove);
+    }
+
+    @Nonnull
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return this.entrySet;
+    }
+
+    private Node newNode(K key, V value) {
+        final Node node = new Node(this.sequence.incrementAndGet(), key);
+        node.value = value;
+        this.ordered.put(node.sequence, node);
+        return node;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private <D> D cast(@Nullable Object origin) {
+        return (D) origin;
+    }
+
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    private class Node implements Map.Entry<K, V> {
+        private final long sequence;
+        @Getter
+        private final K key;
+        private volatile V value;
+
+        @Override
+        public V getValue() {
+            return this.value;
+        }
+
+        /**
+         * writes through to the map, takes no effect on the map if the entry has been removed.
+         */
+        @Override
+        public V setValue(@Nonnull V value) {
+            Objects.requireNonNull(value);
+            final Object[] previous = new Object[1];
+            final Node current = ConcurrentOrderedMap.this.index.computeIfPresent(this.key, (k, node) -> {
+                if (node == this) {
+                    previous[0] = node.value;
+                    node.value = value;
+                }
+                return node;
+            });
+            if (current != this) { // removed from the map
+                previous[0] = this.value;
+                this.value = value;
+            }
+            return ConcurrentOrderedMap.this.cast(previous[0]);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return Objects.equals(this.key, e.getKey()) && Objects.equals(this.value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(this.key) ^ Objects.hashCode(this.value);
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Nonnull
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            final Iterator<Node> nodes = ConcurrentOrderedMap.this.ordered.values().iterator();
+            return new Iterator<Entry<K, V>>() {
+                private Node current;
+
+                @Override
+                public boolean hasNext() {
+                    return nodes.hasNext();
+                }
+
+                @Override
+                public Entry<K, V> next() {
+                    this.current = nodes.next();
+                    return this.current;
+                }
+
+                @Override
+                public void remove() {
+                    if (Objects.isNull(this.current)) {
+                        throw new IllegalStateException();
+                    }
+                    ConcurrentOrderedMap.this.remove(this.current.key, this.current.value);
+                    this.current = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return ConcurrentOrderedMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentOrderedMap.this.clear();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * deduplicate concurrent calls with the same key: the first caller executes the call on its own thread,
+ * concurrent callers with the same key wait for and share its result (or exception) instead of calling again.
+ * a call nested in an in-flight call (of any {@link SingleFlight}) never waits for other threads but executes directly,
+ * since two threads waiting for each other's nested flights would deadlock.
+ */
+@Slf4j
+public class SingleFlight<K, V> {
+    private static final AtomicLong totalCoalesced = new AtomicLong();
+    /**
+     * number of in-flight calls (of all {@link SingleFlight}s) executed by current thread.
+     */
+    private static final ThreadLocal<int[]> owning = ThreadLocal.withInitial(() -> new int[1]);
+    private final Map<K, Flight<V>> inflight = new ConcurrentHashMap<>();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public V execute(@Nonnull K key, @Nonnull Supplier<V> call) {
+        final Flight<V> flight = new Flight<>(Thread.currentThread());
+        final Flight<V> existing = this.inflight.putIfAbsent(key, flight);
+        final int[] owned = owning.get();
+        if (existing != null) {
+            if (existing.owner == Thread.currentThread() || owned[0] > 0) { // reentrant or nested call, waiting may deadlock.
+                this.executed.incrementAndGet();
+                return call.get();
+            }
+            this.coalesced.incrementAndGet();
+            totalCoalesced.incrementAndGet();
+            log.debug("coalesced call of ({}) into in-flight one", key);
+            return join(existing.future);
+        }
+        this.executed.incrementAndGet();
+        owned[0]++;
+        try {
+            final V result = call.get();
+            flight.future.complete(result);
+            return result;
+        } catch (Throwable t) {
+            flight.future.completeExceptionally(t);
+            throw t;
+        } finally {
+            owned[0]--;
+            this.inflight.remove(key, flight);
+        }
+    }
+
+    public boolean isInFlight(@Nonnull K key) {
+        return this.inflight.containsKey(key);
+    }
+
+    /**
+     * @return number of calls that are actually executed.
+     */
+    public long getExecutedCount() {
+        return this.executed.get();
+    }
+
+    /**
+     * @return number of calls that are coalesced into an in-flight call and thus saved.
+     */
+    public long getCoalescedCount() {
+        return this.coalesced.get();
+    }
+
+    /**
+     * @return number of calls coalesced by all {@link SingleFlight}s.
+     */
+    public static long getTotalCoalescedCount() {
+        return totalCoalesced.get();
+    }
+
+    @RequiredArgsConstructor
+    private static class Flight<V> {
+        private final Thread owner;
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+    }
+
+    private static <V> V join(@Nonnull CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -8,23 +8,53 @@ package com.microsoft.azure.toolkit.lib.common.event;
 import com.google.common.eventbus.AsyncEventBus;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
+import com.microsoft.azure.toolkit.lib.Azure;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NonNls;
 import reactor.core.scheduler.Schedulers;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
+@Slf4j
 @SuppressWarnings("UnstableApiUsage")
 public class AzureEventBus {
+    private static final int MAX_QUEUED_EVENTS = 10000;
     @NonNls
     private static final Map<String, EventBus> buses = new ConcurrentHashMap<>();
+    /**
+     * events waiting to be dispatched in next batch in FIFO order, an event identical to the last queued one is
+     * coalesced into it. guarded by itself.
+     */
+    private static final Deque<PendingEvent> queue = new ArrayDeque<>();
+    private static final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private static final AtomicLong coalesced = new AtomicLong();
+    private static final AtomicLong throttled = new AtomicLong();
+    private static volatile long lastDispatched = 0;
+    private static volatile Thread dispatcherThread;
+    private static final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "azure-event-dispatcher");
+        thread.setDaemon(true);
+        dispatcherThread = thread;
+        return thread;
+    });
 
     public static void on(@Nonnull final String type, @Nonnull EventListener listener) {
         getBus(type).register(listener);
@@ -57,13 +87,120 @@ public class AzureEventBus {
     }
 
     public static <T> void emit(@Nonnull final String type, @Nonnull AzureEvent event) {
-        getBus(type).post(event);
+        final int window = Azure.az().config().getEventCoalescingWindow();
+        if (window <= 0) {
+            getBus(type).post(event);
+            return;
+        }
+        final PendingEvent pending = new PendingEvent(type, event);
+        synchronized (queue) {
+            if (pending.isIdenticalTo(queue.peekLast())) {
+                coalesced.incrementAndGet();
+                return;
+            }
+            // never drop events (e.g. account/resource deletion), block the emitter until the dispatcher catches up.
+            if (queue.size() >= MAX_QUEUED_EVENTS && Thread.currentThread() != dispatcherThread) {
+                log.warn("too many events are waiting to be dispatched, emitting event({}) is blocked.", type);
+                throttled.incrementAndGet();
+                if (scheduled.compareAndSet(false, true)) {
+                    schedule(0);
+                }
+                while (queue.size() >= MAX_QUEUED_EVENTS) {
+                    try {
+                        queue.wait();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break; // enqueue anyway rather than lose the event
+                    }
+                }
+            }
+            queue.addLast(pending);
+        }
+        if (scheduled.compareAndSet(false, true)) {
+            schedule(window);
+        }
+    }
+
+    /**
+     * the first event after an idle period is dispatched immediately, following ones are batched until
+     * {@code window} has elapsed since the last dispatch.
+     */
+    private static void schedule(int window) {
+        final long delay = Math.max(0, lastDispatched + window - System.currentTimeMillis());
+        dispatcher.schedule(AzureEventBus::dispatch, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * post all queued events in one batch, the dispatcher thread only schedules deliveries, listeners are still
+     * invoked on boundedElastic, so slow listeners don't block dispatching.
+     */
+    private static void dispatch() {
+        lastDispatched = System.currentTimeMillis();
+        scheduled.set(false);
+        final List<PendingEvent> batch;
+        synchronized (queue) {
+            batch = new ArrayList<>(queue);
+            queue.clear();
+            queue.notifyAll();
+        }
+        log.debug("dispatching {} events", batch.size());
+        for (final PendingEvent pending : batch) {
+            try {
+                getBus(pending.type).post(pending.event);
+            } catch (Throwable t) {
+                log.warn("failed to dispatch event({})", pending.type, t);
+            }
+        }
+        final boolean remaining;
+        synchronized (queue) {
+            remaining = !queue.isEmpty();
+        }
+        if (remaining && scheduled.compareAndSet(false, true)) { // events queued while dispatching
+            schedule(Azure.az().config().getEventCoalescingWindow());
+        }
+    }
+
+    /**
+     * @return number of events waiting to be dispatched.
+     */
+    public static int getQueueDepth() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * @return number of events coalesced into the identical event queued right before them.
+     */
+    public static long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return number of times emitting is blocked because too many events are waiting to be dispatched.
+     */
+    public static long getThrottledCount() {
+        return throttled.get();
     }
 
     private static EventBus getBus(String eventType) {
         return buses.computeIfAbsent(eventType, (e) -> new AsyncEventBus(command -> Schedulers.boundedElastic().schedule(command)));
     }
 
+    @RequiredArgsConstructor
+    private static class PendingEvent {
+        @Nonnull
+        private final String type;
+        @Nonnull
+        private final AzureEvent event;
+
+        private boolean isIdenticalTo(@Nullable PendingEvent other) {
+            return Objects.nonNull(other) && Objects.equals(this.type, other.type) &&
+                Objects.equals(this.event.getSource(), other.event.getSource()) &&
+                Objects.equals(this.event.getPayload(), other.event.getPayload());
+        }
+    }
+
     @RequiredArgsConstructor
     public static class EventListener {
 
@@ -12,6 +12,7 @@ import com.azure.resourcemanager.resources.fluentcore.model.Refreshable;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.account.IAzureAccount;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.cache.CachePolicy;
 import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
@@ -36,9 +37,9 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Slf4j
@@ -69,7 +70,12 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
     private final AtomicReference<String> statusRef;
     @Nonnull
     private final Debouncer fireEvents = new TailingDebouncer(this::fireStatusChangedEvent, 300);
-    private final Lock lock = new ReentrantLock();
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * whether a background revalidation is scheduled or running, shared by copies like {@link #syncTimeRef}.
+     */
+    @Nonnull
+    private final AtomicBoolean revalidating;
 
     protected AbstractAzResource(@Nonnull String name, @Nonnull String resourceGroupName, @Nonnull AbstractAzResourceModule<T, P, R> module) {
         this.name = name;
@@ -78,6 +84,7 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
         this.remoteRef = new AtomicReference<>();
         this.statusRef = new AtomicReference<>(Status.UNKNOWN);
         this.syncTimeRef = new AtomicLong(-1);
+        this.revalidating = new AtomicBoolean(false);
     }
 
     /**
@@ -99,6 +106,7 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
         this.remoteRef = origin.remoteRef;
         this.statusRef = origin.statusRef;
         this.syncTimeRef = origin.syncTimeRef;
+        this.revalidating = origin.revalidating;
     }
 
     public boolean exists() {
@@ -155,22 +163,55 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
     }
 
     private R getRemoteInner() {
-        if (System.currentTimeMillis() - this.syncTimeRef.get() > AzResource.CACHE_LIFETIME) { // 0, -1 or too old.
+        final CachePolicy policy = this.module.getCachePolicy();
+        if (policy.isStale(this.syncTimeRef.get())) { // serve stale remote and revalidate in background.
+            this.revalidateRemote(policy);
+        } else if (policy.isExpired(this.syncTimeRef.get())) { // 0, -1 or too old.
             final R remote = this.remoteRef.get();
             if (this.syncTimeRef.get() == 0 && Objects.nonNull(remote)) {
                 return remote;
             }
+            if (this.lock.isHeldByCurrentThread()) { // e.g. called inside doModify, reload directly to avoid deadlock.
+                this.reloadRemoteIfOlderThan(policy.getHardLifetime());
+            } else { // concurrent callers share the same in-flight reload instead of parking on the lock one by one.
+                this.module.reloading.execute(this.syncTimeRef, () -> this.reloadRemoteIfOlderThan(policy.getHardLifetime()));
+            }
+        }
+        return this.remoteRef.get();
+    }
+
+    private void revalidateRemote(@Nonnull CachePolicy policy) {
+        if (!this.revalidating.compareAndSet(false, true)) {
+            return;
+        }
+        log.debug("[{}:{}]:getRemote->revalidateRemote()", this.module.getName(), this.getName());
+        AzureTaskManager.getInstance().runOnPooledThread(() -> {
             try {
-                this.lock.lock();
-                if (this.syncTimeRef.get() != 0 && System.currentTimeMillis() - this.syncTimeRef.get() > AzResource.CACHE_LIFETIME) { // -1 or too old.
-                    log.debug("[{}:{}]:getRemote->reloadRemote()", this.module.getName(), this.getName());
-                    this.reloadRemote();
-                }
+                this.module.reloading.execute(this.syncTimeRef, () -> {
+                    final boolean reloaded = this.reloadRemoteIfOlderThan(policy.getSoftLifetime());
+                    if (reloaded) {
+                        AzureEventBus.emit("resource.refreshed.resource", this);
+                    }
+                    return reloaded;
+                });
             } finally {
-                this.lock.unlock();
+                this.revalidating.set(false);
+            }
+        });
+    }
+
+    private boolean reloadRemoteIfOlderThan(long lifetime) {
+        try {
+            this.lock.lock();
+            if (this.syncTimeRef.get() != 0 && System.currentTimeMillis() - this.syncTimeRef.get() > lifetime) { // -1 or too old.
+                log.debug("[{}:{}]:getRemote->reloadRemote()", this.module.getName(), this.getName());
+                this.reloadRemote();
+                return true;
             }
+            return false;
+        } finally {
+            this.lock.unlock();
         }
-        return this.remoteRef.get();
     }
 
     @AzureOperation(name = "azure/resource.reload_resource.resource|type", params = {"this.getName()", "this.getResourceTypeName()"})
@@ -219,6 +260,24 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
         }
     }
 
+    /**
+     * @return cached remote without triggering loading/refreshing.
+     */
+    @Nullable
+    R getCachedRemote() {
+        return this.remoteRef.get();
+    }
+
+    /**
+     * mark cached remote as synced without touching the remote/status, used when reloaded remote is known to be unchanged.
+     */
+    void markSynced() {
+        final long syncTime = this.syncTimeRef.get();
+        if (syncTime != 0 && Objects.nonNull(this.remoteRef.get())) { // skip if loading or remote is not loaded yet.
+            this.syncTimeRef.compareAndSet(syncTime, System.currentTimeMillis());
+        }
+    }
+
     protected void updateAdditionalProperties(@Nullable R newRemote, @Nullable R oldRemote) {
 
     }
@@ -227,7 +286,7 @@ public abstract class AbstractAzResource<T extends AbstractAzResource<T, P, R>,
     protected final R loadRemote() {
         log.debug("[{}:{}]:loadRemote()", this.module.getName(), this.getName());
         try {
-            return this.getModule().loadResourceFromAzure(this.getName(), this.getResourceGroupName());
+            return this.getModule().doLoadResourceFromAzure(this.getName(), this.getResourceGroupName());
         } catch (Exception e) {
             log.debug("[{}:{}]:loadRemote()=EXCEPTION", this.module.getName(), this.getName(), e);
             final Throwable cause = e instanceof HttpResponseException ? e : ExceptionUtils.getRootCause(e);
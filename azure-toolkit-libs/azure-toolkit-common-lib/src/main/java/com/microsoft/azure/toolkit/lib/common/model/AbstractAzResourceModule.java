@@ -6,21 +6,28 @@
 package com.microsoft.azure.toolkit.lib.common.model;
 
 import com.azure.core.exception.HttpResponseException;
+import com.azure.core.management.serializer.SerializerFactory;
 import com.azure.core.util.paging.ContinuablePage;
+import com.azure.core.util.serializer.SerializerAdapter;
+import com.azure.core.util.serializer.SerializerEncoding;
 import com.azure.resourcemanager.resources.fluentcore.arm.ResourceId;
 import com.azure.resourcemanager.resources.fluentcore.arm.collection.SupportsGettingById;
 import com.azure.resourcemanager.resources.fluentcore.arm.collection.SupportsGettingByName;
 import com.azure.resourcemanager.resources.fluentcore.arm.collection.SupportsGettingByResourceGroup;
 import com.azure.resourcemanager.resources.fluentcore.collection.SupportsDeletingById;
 import com.azure.resourcemanager.resources.fluentcore.collection.SupportsListing;
-import com.google.common.collect.Sets;
+import com.azure.resourcemanager.resources.fluentcore.model.HasInnerModel;
 import com.microsoft.azure.toolkit.lib.AzService;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.account.IAzureAccount;
+import com.microsoft.azure.toolkit.lib.common.cache.CachePolicy;
+import com.microsoft.azure.toolkit.lib.common.cache.ConcurrentOrderedMap;
+import com.microsoft.azure.toolkit.lib.common.cache.SingleFlight;
 import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.model.page.ItemPage;
+import com.microsoft.azure.toolkit.lib.common.model.page.PrefetchingPageIterator;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import com.microsoft.azure.toolkit.lib.common.utils.Debouncer;
@@ -42,17 +49,18 @@ import org.apache.http.HttpStatus;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -67,6 +75,7 @@ import static com.microsoft.azure.toolkit.lib.common.model.AzResource.RESOURCE_G
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P, R>, P extends AzResource, R>
     implements AzResourceModule<T> {
+    private static final SerializerAdapter SERIALIZER = SerializerFactory.createDefaultManagementSerializerAdapter();
     @Getter
     @Nonnull
     @ToString.Include
@@ -80,12 +89,20 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
     @ToString.Include
     private final AtomicLong syncTimeRef = new AtomicLong(-1);
     @Nonnull
-    private final Map<String, Optional<T>> resources = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, Optional<T>> resources = new ConcurrentOrderedMap<>(); // keyed by lower cased resource id, in insertion order
 
     @Nonnull
     private final Debouncer fireEvents = new TailingDebouncer(this::fireChildrenChangedEvent, 300);
     private final Lock lock = new ReentrantLock();
-    private Iterator<? extends ContinuablePage<String, R>> pages;
+    private final SingleFlight<String, Boolean> loading = new SingleFlight<>();
+    /**
+     * in-flight reloads of resources of this module keyed by {@link AbstractAzResource#syncTimeRef}, which is shared by
+     * copies(e.g. drafts) of the same resource.
+     */
+    final SingleFlight<AtomicLong, Boolean> reloading = new SingleFlight<>();
+    private final AtomicBoolean revalidating = new AtomicBoolean(false);
+    @Nullable
+    private volatile Iterator<? extends ContinuablePage<String, R>> pages;
 
     @Override
     public void refresh() {
@@ -119,10 +136,13 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
             log.debug("[{}]:list->parent.isDraftForCreating()=true", this.name);
             return Collections.emptyList();
         }
-        if (System.currentTimeMillis() - this.syncTimeRef.get() > AzResource.CACHE_LIFETIME) { // 0, -1 or too old.
+        final CachePolicy policy = this.getCachePolicy();
+        if (policy.isStale(this.syncTimeRef.get())) { // serve stale resources and revalidate in background.
+            this.revalidateResources();
+        } else if (policy.isExpired(this.syncTimeRef.get())) { // 0, -1 or too old.
             try {
                 this.lock.lock();
-                if (this.syncTimeRef.get() != 0 && System.currentTimeMillis() - this.syncTimeRef.get() > AzResource.CACHE_LIFETIME) { // -1 or too old.
+                if (this.syncTimeRef.get() != 0 && policy.isExpired(this.syncTimeRef.get())) { // -1 or too old.
                     log.debug("[{}]:list->this.reload()", this.name);
                     this.reloadResources();
                 }
@@ -134,12 +154,33 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
         return this.resources.values().stream().filter(Optional::isPresent).map(Optional::get).collect(Collectors.toList());
     }
 
+    private void revalidateResources() {
+        if (!this.revalidating.compareAndSet(false, true)) {
+            return;
+        }
+        log.debug("[{}]:revalidateResources()", this.name);
+        AzureTaskManager.getInstance().runOnPooledThread(() -> {
+            try {
+                this.lock.lock();
+                if (this.syncTimeRef.get() != 0 && System.currentTimeMillis() - this.syncTimeRef.get() > this.getCachePolicy().getSoftLifetime()) {
+                    log.debug("[{}]:revalidateResources->this.reload()", this.name);
+                    this.reloadResources();
+                    AzureEventBus.emit("module.refreshed.module", this);
+                }
+            } finally {
+                this.lock.unlock();
+                this.revalidating.set(false);
+            }
+        });
+    }
+
     private void reloadResources() {
         log.debug("[{}]:reloadResources()", this.name);
         this.syncTimeRef.set(0);
         try {
             log.debug("[{}]:reloadResources->loadResourcesFromAzure()", this.name);
-            this.pages = this.loadResourcePagesFromAzure();
+            final Iterator<? extends ContinuablePage<String, R>> pages = new PrefetchingPageIterator<>(this.loadResourcePagesFromAzure(), getPagePrefetchDepth());
+            this.pages = pages;
             final ContinuablePage<String, R> page = pages.hasNext() ? pages.next() : new ItemPage<>(this.loadResourcesFromAzure());
             final Map<String, R> loadedResources = page.getElements().stream()
                 .collect(Collectors.toMap(r -> this.newResource(r).getId().toLowerCase(), r -> r));
@@ -163,64 +204,156 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
 
     public void loadMoreResources() {
         log.debug("[{}]:loadMoreResources()", this.name);
-        try {
-            this.lock.lock();
-            if (Objects.isNull(this.pages)) {
+        final Iterator<? extends ContinuablePage<String, R>> pages = this.pages;
+        if (Objects.isNull(pages)) {
+            try {
+                this.lock.lock();
                 this.reloadResources();
-            } else if (this.pages.hasNext()) {
-                final ContinuablePage<String, R> page = this.pages.next();
-                final Map<String, R> loadedResources = page.getElements().stream()
-                    .collect(Collectors.toMap(r -> this.newResource(r).getId().toLowerCase(), r -> r));
-                log.debug("[{}]:loadMoreResources->addResources(xxx)", this.name);
-                this.addResources(loadedResources);
-                fireEvents.debounce();
+            } finally {
+                this.lock.unlock();
+            }
+            return;
+        }
+        try {
+            // pages are fetched(or prefetched) outside of the lock, the lock only guards merging into local cache.
+            final ContinuablePage<String, R> page = pages.hasNext() ? pages.next() : null;
+            if (Objects.isNull(page)) {
+                return;
+            }
+            final Map<String, R> loadedResources = page.getElements().stream()
+                .collect(Collectors.toMap(r -> this.newResource(r).getId().toLowerCase(), r -> r));
+            try {
+                this.lock.lock();
+                if (pages == this.pages) { // skip if resources are reloaded meanwhile.
+                    log.debug("[{}]:loadMoreResources->addResources(xxx)", this.name);
+                    this.addResources(loadedResources);
+                    fireEvents.debounce();
+                }
+            } finally {
+                this.lock.unlock();
             }
         } catch (Exception e) {
             AzureMessager.getMessager().error(e);
             throw e;
-        } finally {
-            this.lock.unlock();
         }
     }
 
+    /**
+     * load all pages of resources, the lock is only held while merging each page into local cache
+     * rather than for the whole traversal.
+     *
+     * @return snapshot of all resources of this module
+     */
+    @Nonnull
+    public List<T> loadAllResources() {
+        log.debug("[{}]:loadAllResources()", this.name);
+        this.list();
+        while (this.hasMoreResources()) {
+            this.loadMoreResources();
+        }
+        return this.listCachedResources();
+    }
+
     public boolean hasMoreResources() {
-        return Objects.nonNull(this.pages) && this.pages.hasNext();
+        final Iterator<? extends ContinuablePage<String, R>> pages = this.pages;
+        return Objects.nonNull(pages) && pages.hasNext();
     }
 
+    /**
+     * reconcile local cache with the loaded resources incrementally: only resources that are added, deleted or whose
+     * {@link #getRemoteFingerprint(Object) fingerprint} changed are touched, unchanged resources are only marked as synced.
+     */
     private void setResources(Map<String, R> loadedResources) {
-        final Set<String> localResources = this.resources.values().stream().filter(Optional::isPresent).map(Optional::get)
-            .map(AbstractAzResource::getId).map(String::toLowerCase).collect(Collectors.toSet());
-        final Set<String> creating = this.resources.values().stream().filter(Optional::isPresent).map(Optional::get)
-            .filter(AbstractAzResource::isDraftForCreating)
-            .map(AbstractAzResource::getId).map(String::toLowerCase).collect(Collectors.toSet());
-        log.debug("[{}]:reload().creating={}", this.name, creating);
-        final Sets.SetView<String> refreshed = Sets.intersection(localResources, loadedResources.keySet());
-        log.debug("[{}]:reload().refreshed={}", this.name, refreshed);
-        final Sets.SetView<String> deleted = Sets.difference(Sets.difference(localResources, loadedResources.keySet()), creating);
-        log.debug("[{}]:reload().deleted={}", this.name, deleted);
-        final Sets.SetView<String> added = Sets.difference(loadedResources.keySet(), localResources);
-        log.debug("[{}]:reload().added={}", this.name, added);
-        log.debug("[{}]:reload.deleted->deleteResourceFromLocal", this.name);
-        deleted.forEach(id -> this.resources.getOrDefault(id, Optional.empty()).ifPresent(r -> {
-            r.deleteFromCache();
-            r.setRemote(null);
-        }));
-
         final AzureTaskManager m = AzureTaskManager.getInstance();
-        log.debug("[{}]:reload.refreshed->resource.setRemote", this.name);
-        refreshed.forEach(id -> this.resources.getOrDefault(id, Optional.empty()).ifPresent(r -> m.runOnPooledThread(() -> r.setRemote(loadedResources.get(id)))));
-        log.debug("[{}]:reload.added->addResourceToLocal", this.name);
-        added.stream().map(loadedResources::get).map(r -> Pair.of(r, this.newResource(r)))
-            .sorted(Comparator.comparing(p -> p.getValue().getName())) // sort by name when adding into cache
-            .forEach(p -> {
+        List<T> deleted = null;
+        int unchanged = 0;
+        int refreshed = 0;
+        // keys of resources are normalized(lower cased) resource ids, iteration is weakly consistent and lock free.
+        for (final Map.Entry<String, Optional<T>> entry : this.resources.entrySet()) {
+            if (!entry.getValue().isPresent()) {
+                continue;
+            }
+            final T resource = entry.getValue().get();
+            final R loaded = loadedResources.get(entry.getKey());
+            if (Objects.isNull(loaded)) {
+                if (!resource.isDraftForCreating()) {
+                    deleted = Objects.isNull(deleted) ? new ArrayList<>() : deleted;
+                    deleted.add(resource);
+                }
+            } else if (this.isRemoteUnchanged(resource.getCachedRemote(), loaded)) {
+                resource.markSynced();
+                unchanged++;
+            } else {
+                m.runOnPooledThread(() -> resource.setRemote(loaded));
+                refreshed++;
+            }
+        }
+        log.debug("[{}]:reload().refreshed={}, unchanged={}", this.name, refreshed, unchanged);
+        if (Objects.nonNull(deleted)) {
+            log.debug("[{}]:reload().deleted={}", this.name, deleted);
+            log.debug("[{}]:reload.deleted->deleteResourceFromLocal", this.name);
+            deleted.forEach(r -> {
+                r.deleteFromCache();
+                r.setRemote(null);
+            });
+        }
+        if (refreshed + unchanged < loadedResources.size()) {
+            final List<Pair<R, T>> added = loadedResources.entrySet().stream()
+                .filter(e -> !this.resources.getOrDefault(e.getKey(), Optional.empty()).isPresent())
+                .map(e -> Pair.of(e.getValue(), this.newResource(e.getValue())))
+                .sorted(Comparator.comparing(p -> p.getValue().getName())) // sort by name when adding into cache
+                .collect(Collectors.toList());
+            log.debug("[{}]:reload().added={}", this.name, added.size());
+            log.debug("[{}]:reload.added->addResourceToLocal", this.name);
+            added.forEach(p -> {
                 final R remote = p.getKey();
                 final T resource = p.getValue();
                 m.runOnPooledThread(() -> resource.setRemote(remote));
                 this.addResourceToLocal(resource.getId(), resource, true);
             });
+        }
         this.syncTimeRef.set(System.currentTimeMillis());
     }
 
+    private boolean isRemoteUnchanged(@Nullable R cached, @Nonnull R loaded) {
+        if (cached == loaded) {
+            return true;
+        }
+        if (Objects.isNull(cached)) {
+            return false;
+        }
+        final Object fingerprint = this.getRemoteFingerprint(loaded);
+        return Objects.nonNull(fingerprint) && Objects.equals(fingerprint, this.getRemoteFingerprint(cached));
+    }
+
+    /**
+     * fingerprint(e.g. ETag) of the remote, which is used to check if a cached remote is changed when reloading resources.
+     *
+     * @return null if the remote can not be fingerprinted, in which case the cached remote is always considered changed.
+     */
+    @Nullable
+    protected Object getRemoteFingerprint(@Nonnull R remote) {
+        return null;
+    }
+
+    /**
+     * fingerprint of an ARM resource, which is listed without ETag: its whole inner model serialized, so that any change
+     * (e.g. state, sku, tags) is detected.
+     */
+    @Nullable
+    protected static Object getInnerModelFingerprint(@Nonnull HasInnerModel<?> remote) {
+        final Object inner = remote.innerModel();
+        if (Objects.isNull(inner)) {
+            return null;
+        }
+        try {
+            return SERIALIZER.serialize(inner, SerializerEncoding.JSON);
+        } catch (IOException | RuntimeException e) {
+            log.debug("failed to serialize {}", inner.getClass().getSimpleName(), e);
+            return null;
+        }
+    }
+
     private void addResources(Map<String, R> loadedResources) {
         final Set<String> added = loadedResources.keySet();
         log.debug("[{}]:reload().added={}", this.name, added);
@@ -258,29 +391,36 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
         Azure.az(IAzureAccount.class).account();
         final String id = this.toResourceId(name, resourceGroup).toLowerCase();
         if (!this.resources.containsKey(id)) {
-            R remote = null;
-            try {
-                log.debug("[{}]:get({}, {})->loadResourceFromAzure()", this.name, name, resourceGroup);
-                remote = loadResourceFromAzure(name, resourceGroup);
-            } catch (Exception e) {
-                log.debug("[{}]:get({}, {})->loadResourceFromAzure()=EXCEPTION", this.name, name, resourceGroup, e);
-                final Throwable cause = e instanceof HttpResponseException ? e : ExceptionUtils.getRootCause(e);
-                if (cause instanceof HttpResponseException) {
-                    if (HttpStatus.SC_NOT_FOUND != ((HttpResponseException) cause).getResponse().getStatusCode()) {
-                        log.debug("[{}]:get({}, {})->loadResourceFromAzure()=SC_NOT_FOUND", this.name, name, resourceGroup, e);
-                        throw e;
+            // concurrent misses of the same resource share one in-flight loading.
+            this.loading.execute(id, () -> {
+                if (this.resources.containsKey(id)) { // loaded by a previous in-flight loading.
+                    return false;
+                }
+                R remote = null;
+                try {
+                    log.debug("[{}]:get({}, {})->loadResourceFromAzure()", this.name, name, resourceGroup);
+                    remote = doLoadResourceFromAzure(name, resourceGroup);
+                } catch (Exception e) {
+                    log.debug("[{}]:get({}, {})->loadResourceFromAzure()=EXCEPTION", this.name, name, resourceGroup, e);
+                    final Throwable cause = e instanceof HttpResponseException ? e : ExceptionUtils.getRootCause(e);
+                    if (cause instanceof HttpResponseException) {
+                        if (HttpStatus.SC_NOT_FOUND != ((HttpResponseException) cause).getResponse().getStatusCode()) {
+                            log.debug("[{}]:get({}, {})->loadResourceFromAzure()=SC_NOT_FOUND", this.name, name, resourceGroup, e);
+                            throw e;
+                        }
                     }
                 }
-            }
-            if (Objects.isNull(remote)) {
-                log.debug("[{}]:get({}, {})->addResourceToLocal({}, null)", this.name, name, resourceGroup, name);
-                this.addResourceToLocal(id, null, true);
-            } else {
-                final T resource = newResource(remote);
-                resource.setRemote(remote);
-                log.debug("[{}]:get({}, {})->addResourceToLocal({}, resource)", this.name, name, resourceGroup, name);
-                this.addResourceToLocal(resource.getId(), resource, true);
-            }
+                if (Objects.isNull(remote)) {
+                    log.debug("[{}]:get({}, {})->addResourceToLocal({}, null)", this.name, name, resourceGroup, name);
+                    this.addResourceToLocal(id, null, true);
+                } else {
+                    final T resource = newResource(remote);
+                    resource.setRemote(remote);
+                    log.debug("[{}]:get({}, {})->addResourceToLocal({}, resource)", this.name, name, resourceGroup, name);
+                    this.addResourceToLocal(resource.getId(), resource, true);
+                }
+                return true;
+            });
         }
         log.debug("[{}]:get({}, {})->this.resources.get({})", this.name, id, resourceGroup, name);
         return this.resources.getOrDefault(id, Optional.empty()).orElse(null);
@@ -339,7 +479,7 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
             final T resource = this.newResource(name, resourceGroup);
             log.debug("[{}]:get({}, {})->addResourceToLocal({}, resource)", this.name, id, resourceGroup, name);
             this.addResourceToLocal(id, resource);
-            return resource;
+            return this.resources.getOrDefault(id, Optional.empty()).orElse(resource); // another thread may win the race
         });
     }
 
@@ -459,17 +599,21 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
     protected void addResourceToLocal(@Nonnull String id, @Nullable T resource, boolean... silent) {
         log.debug("[{}]:addResourceToLocal({}, {})", this.name, id, resource);
         id = id.toLowerCase();
-        final Optional<T> oldResource = this.resources.getOrDefault(id, Optional.empty());
         final Optional<T> newResource = Optional.ofNullable(resource);
-        if (!oldResource.isPresent()) {
-            log.debug("[{}]:addResourceToLocal->this.resources.put({}, {})", this.name, id, resource);
-            this.resources.put(id, newResource);
-            if (newResource.isPresent()) {
-                this.addResourceToLocalResourceGroup(id, resource, silent);
-                if (silent.length == 0 || !silent[0]) {
-                    log.debug("[{}]:addResourceToLocal->fireResourcesChangedEvent()", this.name);
-                    fireEvents.debounce();
-                }
+        final boolean[] added = new boolean[1];
+        this.resources.compute(id, (k, oldResource) -> {
+            if (Objects.isNull(oldResource) || !oldResource.isPresent()) {
+                log.debug("[{}]:addResourceToLocal->this.resources.put({}, {})", this.name, k, resource);
+                added[0] = true;
+                return newResource;
+            }
+            return oldResource;
+        });
+        if (added[0] && newResource.isPresent()) {
+            this.addResourceToLocalResourceGroup(id, resource, silent);
+            if (silent.length == 0 || !silent[0]) {
+                log.debug("[{}]:addResourceToLocal->fireResourcesChangedEvent()", this.name);
+                fireEvents.debounce();
             }
         }
     }
@@ -535,6 +679,14 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
         }
     }
 
+    /**
+     * entry of loading a single resource by the framework, services override it to share loaded clients.
+     */
+    @Nullable
+    R doLoadResourceFromAzure(@Nonnull String name, @Nullable String resourceGroup) {
+        return this.loadResourceFromAzure(name, resourceGroup);
+    }
+
     @Nullable
     @AzureOperation(name = "azure/resource.load_resource.resource|type", params = {"name", "this.getResourceTypeName()"})
     protected R loadResourceFromAzure(@Nonnull String name, @Nullable String resourceGroup) {
@@ -604,6 +756,14 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
         throw new AzureToolkitRuntimeException("not implemented");
     }
 
+    /**
+     * @return cache policy of resources in this module, configured per resource type via {@link com.microsoft.azure.toolkit.lib.AzureConfiguration#setCachePolicy}
+     */
+    @Nonnull
+    public CachePolicy getCachePolicy() {
+        return Azure.az().config().getCachePolicy(this.getFullResourceType());
+    }
+
     @Override
     @Nonnull
     public String getFullResourceType() {
@@ -629,4 +789,8 @@ public abstract class AbstractAzResourceModule<T extends AbstractAzResource<T, P
     public static int getPageSize() {
         return Azure.az().config().getPageSize();
     }
+
+    public static int getPagePrefetchDepth() {
+        return Azure.az().config().getPagePrefetchDepth();
+    }
 }
@@ -10,6 +10,7 @@ import com.azure.resourcemanager.resources.fluentcore.arm.ResourceId;
 import com.microsoft.azure.toolkit.lib.AzService;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.account.IAzureAccount;
+import com.microsoft.azure.toolkit.lib.common.cache.ClientRegistry;
 import com.microsoft.azure.toolkit.lib.common.cache.Preload;
 import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
 import com.microsoft.azure.toolkit.lib.common.model.page.ItemPage;
@@ -33,6 +34,7 @@ public abstract class AbstractAzService<T extends AbstractAzServiceSubscription<
 
     public AbstractAzService(@Nonnull String name) {
         super(name, AzResource.NONE);
+        ClientRegistry.registerListeners();
         AzureEventBus.on("account.logged_out.account", new AzureEventBus.EventListener((e) -> this.clear()));
         AzureEventBus.on("account.subscription_changed.account", new AzureEventBus.EventListener((e) -> refreshOnSubscriptionChanged()));
     }
@@ -92,7 +94,13 @@ public abstract class AbstractAzService<T extends AbstractAzServiceSubscription<
     @AzureOperation(name = "azure/resource.load_resources.type", params = {"this.getResourceTypeName()"})
     protected Stream<R> loadResourcesFromAzure() {
         return Azure.az(IAzureAccount.class).account().getSelectedSubscriptions().stream().parallel()
-            .map(Subscription::getId).map(i -> loadResourceFromAzure(i, null));
+            .map(Subscription::getId).map(i -> doLoadResourceFromAzure(i, null));
+    }
+
+    @Nullable
+    @Override
+    R doLoadResourceFromAzure(@Nonnull String subscriptionId, @Nullable String resourceGroup) {
+        return ClientRegistry.getOrCreate(this.getClass(), this.getName(), subscriptionId, () -> this.loadResourceFromAzure(subscriptionId, resourceGroup));
     }
 
     @Nonnull
@@ -160,7 +168,7 @@ public abstract class AbstractAzService<T extends AbstractAzServiceSubscription<
     @Nonnull
     @Override
     protected T newResource(@Nonnull String name, @Nullable String resourceGroupName) {
-        final R r = this.loadResourceFromAzure(name, resourceGroupName);
+        final R r = this.doLoadResourceFromAzure(name, resourceGroupName);
         return this.newResource(Objects.requireNonNull(r));
     }
 }
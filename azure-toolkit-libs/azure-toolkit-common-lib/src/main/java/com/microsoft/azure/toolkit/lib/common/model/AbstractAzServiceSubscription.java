@@ -20,20 +20,38 @@ import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.AzureConfiguration;
 import com.microsoft.azure.toolkit.lib.account.IAccount;
 import com.microsoft.azure.toolkit.lib.account.IAzureAccount;
+import com.microsoft.azure.toolkit.lib.common.cache.ClientRegistry;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
+import io.netty.handler.codec.http2.Http2SecurityUtil;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
 import io.netty.handler.ssl.ClientAuth;
 import io.netty.handler.ssl.JdkSslContext;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SupportedCipherSuiteFilter;
 import io.netty.resolver.AddressResolverGroup;
 import io.netty.resolver.DefaultAddressResolverGroup;
 import io.netty.resolver.NoopAddressResolverGroup;
 import org.apache.commons.lang3.StringUtils;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+import reactor.netty.transport.ProxyProvider;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.net.ssl.SSLContext;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static com.microsoft.azure.toolkit.lib.Azure.az;
@@ -83,6 +101,11 @@ public abstract class AbstractAzServiceSubscription<T extends AbstractAzResource
 
     @Nonnull
     public static ResourceManager getResourceManager(@Nonnull final String subscriptionId) {
+        return ClientRegistry.getOrCreate(ResourceManager.class, "Microsoft.Resources", subscriptionId, () -> createResourceManager(subscriptionId));
+    }
+
+    @Nonnull
+    private static ResourceManager createResourceManager(@Nonnull final String subscriptionId) {
         final IAccount account = az(IAzureAccount.class).account();
         final AzureConfiguration config = Azure.az().config();
         final String userAgent = config.getUserAgent();
@@ -114,41 +137,191 @@ public abstract class AbstractAzServiceSubscription<T extends AbstractAzResource
     }
 
     public static class HttpClientHolder {
+        private static final int STREAMING_MAX_CONNECTIONS = 500;
         private static HttpClient defaultHttpClient = null;
+        private static reactor.netty.http.client.HttpClient streamingHttpClient = null;
+        private static HttpClient streamingPipelineHttpClient = null;
+        private static LoopResources loopResources = null;
+        @Nullable
+        private static List<Object> connectionSettings = null; // proxy and ssl settings the clients are built with
+        private static final Map<String, ConnectionPoolMetrics> poolMetrics = new ConcurrentHashMap<>();
 
         @Nonnull
         private static synchronized HttpClient getHttpClient() {
+            resetIfSettingsChanged();
             if (defaultHttpClient != null) {
                 return defaultHttpClient;
             }
 
-            AddressResolverGroup resolverGroup;
-            ProxyOptions proxyOptions = null;
             final AzureConfiguration config = Azure.az().config();
-            if (StringUtils.isNotBlank(config.getProxySource())) {
-                proxyOptions = new ProxyOptions(ProxyOptions.Type.HTTP, new InetSocketAddress(config.getHttpProxyHost(), config.getHttpProxyPort()));
-                if (StringUtils.isNoneBlank(config.getProxyUsername(), config.getProxyPassword())) {
-                    proxyOptions.setCredentials(config.getProxyUsername(), config.getProxyPassword());
-                }
-                resolverGroup = NoopAddressResolverGroup.INSTANCE;
-            } else {
-                resolverGroup = DefaultAddressResolverGroup.INSTANCE;
-            }
-            reactor.netty.http.client.HttpClient nettyHttpClient =
-                reactor.netty.http.client.HttpClient.create()
-                        .resolver(resolverGroup);
-            if (Objects.nonNull(config.getSslContext())) {
-                nettyHttpClient = nettyHttpClient.secure(sslConfig -> sslConfig.sslContext(new JdkSslContext(config.getSslContext(), true, ClientAuth.NONE)));
-            }
+            final ProxyOptions proxyOptions = getProxyOptions(config);
+            final reactor.netty.http.client.HttpClient nettyHttpClient = configure(reactor.netty.http.client.HttpClient.create(buildConnectionProvider(config)), config);
             NettyAsyncHttpClientBuilder builder = new NettyAsyncHttpClientBuilder(nettyHttpClient);
             Optional.ofNullable(proxyOptions).map(builder::proxy);
             defaultHttpClient = builder.build();
             return defaultHttpClient;
         }
+
+        /**
+         * netty client for long-lived streaming responses(e.g. log streams): it shares event loops, proxy, ssl and
+         * protocol settings with the default client, but has neither read timeout nor the connection limit of the default
+         * pool, so that open streams never starve ordinary requests.
+         */
+        @Nonnull
+        private static synchronized reactor.netty.http.client.HttpClient getStreamingHttpClient() {
+            resetIfSettingsChanged();
+            if (streamingHttpClient != null) {
+                return streamingHttpClient;
+            }
+            final AzureConfiguration config = Azure.az().config();
+            final ConnectionProvider provider = ConnectionProvider.builder("azure-toolkit-streaming")
+                .maxConnections(STREAMING_MAX_CONNECTIONS).pendingAcquireMaxCount(-1).build();
+            reactor.netty.http.client.HttpClient client = configure(reactor.netty.http.client.HttpClient.create(provider), config);
+            final ProxyOptions proxyOptions = getProxyOptions(config);
+            if (Objects.nonNull(proxyOptions)) {
+                client = client.proxy(spec -> {
+                    final ProxyProvider.Builder builder = spec.type(ProxyProvider.Proxy.HTTP).address(proxyOptions.getAddress());
+                    if (StringUtils.isNoneBlank(proxyOptions.getUsername(), proxyOptions.getPassword())) {
+                        builder.username(proxyOptions.getUsername()).password(u -> proxyOptions.getPassword());
+                    }
+                });
+            }
+            streamingHttpClient = client;
+            return streamingHttpClient;
+        }
+
+        /**
+         * azure-core client over the streaming netty client, for streaming through http pipelines(e.g. authenticated
+         * by AAD tokens). timeouts are disabled since streams may be idle for long.
+         */
+        @Nonnull
+        private static synchronized HttpClient getStreamingPipelineHttpClient() {
+            resetIfSettingsChanged();
+            if (streamingPipelineHttpClient != null) {
+                return streamingPipelineHttpClient;
+            }
+            final NettyAsyncHttpClientBuilder builder = new NettyAsyncHttpClientBuilder(getStreamingHttpClient())
+                .readTimeout(Duration.ZERO).responseTimeout(Duration.ZERO);
+            Optional.ofNullable(getProxyOptions(Azure.az().config())).map(builder::proxy);
+            streamingPipelineHttpClient = builder.build();
+            return streamingPipelineHttpClient;
+        }
+
+        /**
+         * drop clients built with outdated proxy/ssl settings, so that they are rebuilt on next use. requests already
+         * sent through them are not affected.
+         */
+        private static void resetIfSettingsChanged() {
+            final List<Object> settings = Azure.az().config().getHttpConnectionSettings();
+            if (!Objects.equals(settings, connectionSettings)) {
+                connectionSettings = settings;
+                defaultHttpClient = null;
+                streamingHttpClient = null;
+                streamingPipelineHttpClient = null;
+            }
+        }
+
+        @Nonnull
+        static reactor.netty.http.client.HttpClient configure(@Nonnull reactor.netty.http.client.HttpClient client, @Nonnull final AzureConfiguration config) {
+            final AddressResolverGroup<?> resolverGroup = StringUtils.isNotBlank(config.getProxySource()) ?
+                NoopAddressResolverGroup.INSTANCE : DefaultAddressResolverGroup.INSTANCE;
+            client = client.resolver(resolverGroup);
+            if (config.getHttpEventLoopThreads() > 0) {
+                if (loopResources == null) {
+                    loopResources = LoopResources.create("azure-toolkit-http", config.getHttpEventLoopThreads(), true);
+                }
+                client = client.runOn(loopResources);
+            }
+            if (config.isHttp2Enabled()) {
+                client = client.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+            }
+            if (Objects.nonNull(config.getSslContext())) {
+                final SslContext sslContext = toNettySslContext(config.getSslContext(), config.isHttp2Enabled());
+                client = client.secure(sslConfig -> sslConfig.sslContext(sslContext));
+            }
+            return client;
+        }
+
+        /**
+         * h2 is negotiated by ALPN, which is not configured on custom ssl contexts by default, so it must be advertised
+         * explicitly(with HTTP/1.1 as fallback) if HTTP/2 is enabled.
+         */
+        @Nonnull
+        static SslContext toNettySslContext(@Nonnull final SSLContext context, boolean http2) {
+            if (!http2) {
+                return new JdkSslContext(context, true, ClientAuth.NONE);
+            }
+            final ApplicationProtocolConfig alpn = new ApplicationProtocolConfig(ApplicationProtocolConfig.Protocol.ALPN,
+                ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE, ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+                ApplicationProtocolNames.HTTP_2, ApplicationProtocolNames.HTTP_1_1);
+            return new JdkSslContext(context, true, Http2SecurityUtil.CIPHERS, SupportedCipherSuiteFilter.INSTANCE, alpn, ClientAuth.NONE, null, false);
+        }
+
+        @Nullable
+        private static ProxyOptions getProxyOptions(@Nonnull final AzureConfiguration config) {
+            if (StringUtils.isBlank(config.getProxySource())) {
+                return null;
+            }
+            final ProxyOptions proxyOptions = new ProxyOptions(ProxyOptions.Type.HTTP, new InetSocketAddress(config.getHttpProxyHost(), config.getHttpProxyPort()));
+            if (StringUtils.isNoneBlank(config.getProxyUsername(), config.getProxyPassword())) {
+                proxyOptions.setCredentials(config.getProxyUsername(), config.getProxyPassword());
+            }
+            return proxyOptions;
+        }
+
+        @Nonnull
+        static ConnectionProvider buildConnectionProvider(@Nonnull final AzureConfiguration config) {
+            final ConnectionProvider.Builder builder = ConnectionProvider.builder("azure-toolkit")
+                .metrics(true, () -> new ConnectionProvider.MeterRegistrar() {
+                    @Override
+                    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+                        poolMetrics.put(remoteAddress.toString(), metrics);
+                    }
+
+                    @Override
+                    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+                        poolMetrics.remove(remoteAddress.toString());
+                    }
+                });
+            if (config.getHttpMaxConnections() > 0) {
+                builder.maxConnections(config.getHttpMaxConnections());
+            }
+            if (config.getHttpPendingAcquireMaxCount() > 0) {
+                builder.pendingAcquireMaxCount(config.getHttpPendingAcquireMaxCount());
+            }
+            if (config.getHttpMaxIdleTime() > 0) {
+                builder.maxIdleTime(Duration.ofSeconds(config.getHttpMaxIdleTime()));
+            }
+            if (config.getHttpMaxLifeTime() > 0) {
+                builder.maxLifeTime(Duration.ofSeconds(config.getHttpMaxLifeTime()));
+            }
+            if (config.getHttpMaxIdleTime() > 0 || config.getHttpMaxLifeTime() > 0) {
+                builder.evictInBackground(Duration.ofSeconds(30));
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * @return live connection pool metrics(acquired/idle/pending acquires...) of the shared http client, keyed by remote address.
+     */
+    @Nonnull
+    public static Map<String, ConnectionPoolMetrics> getConnectionPoolMetrics() {
+        return Collections.unmodifiableMap(HttpClientHolder.poolMetrics);
     }
 
     @Nonnull
     public static HttpClient getDefaultHttpClient() {
         return HttpClientHolder.getHttpClient();
     }
+
+    @Nonnull
+    public static reactor.netty.http.client.HttpClient getStreamingHttpClient() {
+        return HttpClientHolder.getStreamingHttpClient();
+    }
+
+    @Nonnull
+    public static HttpClient getStreamingPipelineHttpClient() {
+        return HttpClientHolder.getStreamingPipelineHttpClient();
+    }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model.page;
+
+import com.azure.core.util.paging.ContinuablePage;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * thread safe page iterator which fetches up to {@code depth} continuation pages in background
+ * while the caller is still consuming the current page. pages are always fetched one after
+ * another from the underlying iterator, so the page order is preserved.
+ */
+@Slf4j
+public class PrefetchingPageIterator<K, T> implements Iterator<ContinuablePage<K, T>> {
+    private static final Executor EXECUTOR = command -> Schedulers.boundedElastic().schedule(command);
+    private final Iterator<? extends ContinuablePage<K, T>> origin;
+    private final int depth;
+    private final Deque<CompletableFuture<ContinuablePage<K, T>>> prefetched = new ArrayDeque<>();
+    @Nullable
+    private CompletableFuture<ContinuablePage<K, T>> tail;
+    /**
+     * a page failed to be fetched, the failure has been thrown to the caller once and the iteration is over.
+     */
+    private boolean failed;
+
+    public PrefetchingPageIterator(@Nonnull Iterator<? extends ContinuablePage<K, T>> origin, int depth) {
+        this.origin = origin;
+        this.depth = Math.max(depth, 0);
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        if (this.failed) {
+            return false;
+        }
+        if (this.prefetched.isEmpty()) {
+            if (this.depth < 1) {
+                return this.origin.hasNext();
+            }
+            this.fill();
+        }
+        return Objects.nonNull(this.join(false));
+    }
+
+    @Override
+    public synchronized ContinuablePage<K, T> next() {
+        if (this.failed) {
+            throw new NoSuchElementException();
+        }
+        if (this.depth < 1 && this.prefetched.isEmpty()) {
+            return this.origin.next();
+        }
+        if (this.prefetched.isEmpty()) {
+            this.fill();
+        }
+        final ContinuablePage<K, T> page = this.join(true);
+        if (Objects.isNull(page)) {
+            this.prefetched.clear();
+            throw new NoSuchElementException();
+        }
+        this.fill();
+        return page;
+    }
+
+    /**
+     * schedule fetching of next pages until {@code depth} pages are prefetched or in flight.
+     */
+    private void fill() {
+        while (this.prefetched.size() < Math.max(this.depth, 1)) {
+            final CompletableFuture<ContinuablePage<K, T>> previous = this.tail;
+            if (Objects.nonNull(previous) && previous.isDone() && !previous.isCompletedExceptionally() && Objects.isNull(previous.join())) {
+                return; // reached the end, no more pages.
+            }
+            final CompletableFuture<ContinuablePage<K, T>> next = Objects.isNull(previous) ?
+                CompletableFuture.supplyAsync(this::fetch, EXECUTOR) :
+                previous.thenApplyAsync(p -> Objects.isNull(p) ? null : this.fetch(), EXECUTOR);
+            this.prefetched.addLast(next);
+            this.tail = next;
+        }
+    }
+
+    @Nullable
+    private ContinuablePage<K, T> fetch() {
+        log.debug("prefetching next page");
+        return this.origin.hasNext() ? this.origin.next() : null;
+    }
+
+    /**
+     * wait for the first prefetched page, on failure, all prefetched pages(which fail as well since they are fetched
+     * after the failed one) are discarded, so the failure is thrown only once.
+     */
+    @Nullable
+    private ContinuablePage<K, T> join(boolean remove) {
+        final CompletableFuture<ContinuablePage<K, T>> first = remove ? this.prefetched.pollFirst() : this.prefetched.peekFirst();
+        try {
+            return join(first);
+        } catch (final RuntimeException e) {
+            this.failed = true;
+            this.prefetched.clear();
+            this.tail = null;
+            throw e;
+        }
+    }
+
+    @Nullable
+    private static <P> P join(@Nullable CompletableFuture<P> future) {
+        if (Objects.isNull(future)) {
+            return null;
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -6,21 +6,41 @@
 package com.microsoft.azure.toolkit.lib.common.telemetry;
 
 import com.microsoft.applicationinsights.TelemetryClient;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static com.microsoft.azure.toolkit.lib.common.action.Action.RESOURCE_TYPE;
 
+/**
+ * events are queued and sent in batches by a background sender, so that tracking never blocks the caller.
+ * low priority events (end of internal operations) are dropped first when the queue is getting full,
+ * all events are dropped when it's full. queued events are flushed on JVM shutdown.
+ */
+@Slf4j
 @Getter
 public class AzureTelemetryClient {
     public static final String ARCH_KEY = "arch";
@@ -42,7 +62,34 @@ public class AzureTelemetryClient {
         put(TOKEN_REGEX, "<REDACTED: token>");
     }};
 
+    private static final int MAX_QUEUE_SIZE = 1000;
+    private static final int LOW_PRIORITY_QUEUE_SIZE = 800;
+    private static final int BATCH_SIZE = 100;
+    private static final long FLUSH_INTERVAL = 1000; // ms
+    private static final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "azure-telemetry-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Set<AzureTelemetryClient> clients = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> new ArrayList<>(clients).forEach(AzureTelemetryClient::flush), "azure-telemetry-flush"));
+    }
+
     private final TelemetryClient client;
+    @Getter(AccessLevel.NONE)
+    private final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger queueSize = new AtomicInteger();
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean sendScheduled = new AtomicBoolean();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong queued = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong dropped = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong sent = new AtomicLong();
     @Setter
     private Map<String, String> defaultProperties;
     private boolean isEnabled = true;     // Telemetry is enabled by default.
@@ -56,6 +103,7 @@ public class AzureTelemetryClient {
         this.defaultProperties = new HashMap<>();
         initDefaultProperties();
         this.defaultProperties.putAll(defaultProperties);
+        clients.add(this);
     }
 
     public void addDefaultProperty(@Nonnull String key, @Nonnull String value) {
@@ -91,11 +139,77 @@ public class AzureTelemetryClient {
             return;
         }
 
-        final Map<String, String> properties = mergeProperties(getDefaultProperties(), customProperties, overrideDefaultProperties);
-        properties.entrySet().removeIf(stringStringEntry -> StringUtils.isEmpty(stringStringEntry.getValue())); // filter out null values
-        anonymizePersonallyIdentifiableInformation(properties);
-        client.trackEvent(eventName, properties, metrics);
-        client.flush();
+        // copy, since default properties are returned as merged if there are no custom properties.
+        final Map<String, String> properties = new HashMap<>(mergeProperties(getDefaultProperties(), customProperties, overrideDefaultProperties));
+        final int size = this.queueSize.get();
+        if (size >= MAX_QUEUE_SIZE || (size >= LOW_PRIORITY_QUEUE_SIZE && isLowPriority(eventName, properties))) {
+            this.dropped.incrementAndGet();
+            return;
+        }
+        this.queueSize.incrementAndGet();
+        this.queue.offer(new Event(eventName, properties, metrics));
+        this.queued.incrementAndGet();
+        if (this.queueSize.get() >= BATCH_SIZE) {
+            sender.execute(this::send);
+        } else if (this.sendScheduled.compareAndSet(false, true)) {
+            sender.schedule(() -> {
+                this.sendScheduled.set(false);
+                this.send();
+            }, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * send all queued events on the caller thread.
+     */
+    public synchronized void flush() {
+        this.send();
+    }
+
+    /**
+     * @return number of events accepted into the queue.
+     */
+    public long getQueuedCount() {
+        return this.queued.get();
+    }
+
+    /**
+     * @return number of events dropped because the queue is (getting) full.
+     */
+    public long getDroppedCount() {
+        return this.dropped.get();
+    }
+
+    /**
+     * @return number of events handed over to the underlying telemetry client.
+     */
+    public long getSentCount() {
+        return this.sent.get();
+    }
+
+    private synchronized void send() {
+        int count = 0;
+        for (Event event = this.queue.poll(); event != null; event = this.queue.poll()) {
+            this.queueSize.decrementAndGet();
+            try {
+                event.properties.entrySet().removeIf(stringStringEntry -> StringUtils.isEmpty(stringStringEntry.getValue())); // filter out null values
+                anonymizePersonallyIdentifiableInformation(event.properties);
+                client.trackEvent(event.name, event.properties, event.metrics);
+                this.sent.incrementAndGet();
+            } catch (final Throwable t) {
+                log.debug("failed to track telemetry event {}", event.name, t);
+            }
+            if (++count % BATCH_SIZE == 0) {
+                client.flush();
+            }
+        }
+        if (count % BATCH_SIZE != 0) {
+            client.flush();
+        }
+    }
+
+    private static boolean isLowPriority(@Nonnull final String eventName, @Nonnull final Map<String, String> properties) {
+        return eventName.endsWith("/" + AzureTelemetry.Type.OP_END.name()) && StringUtils.equals(properties.get(AzureTelemeter.OP_TYPE), "internal");
     }
 
     protected Map<String, String> mergeProperties(Map<String, String> defaultProperties,
@@ -136,4 +250,12 @@ public class AzureTelemetryClient {
             }).collect(Collectors.joining(StringUtils.LF));
         });
     }
+
+    @RequiredArgsConstructor
+    private static class Event {
+        private final String name;
+        private final Map<String, String> properties;
+        @Nullable
+        private final Map<String, Double> metrics;
+    }
 }
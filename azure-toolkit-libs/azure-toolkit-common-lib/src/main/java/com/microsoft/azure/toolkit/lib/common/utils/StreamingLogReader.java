@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.utils;
+
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpPipeline;
+import com.azure.core.http.HttpRequest;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.model.AbstractAzServiceSubscription;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * reads streaming logs(e.g. log streams of Spring Apps instances or App Service) reactively on the netty event loops
+ * of the shared streaming http client: no thread is blocked per stream, the response body is consumed with
+ * backpressure and framed into lines directly from the netty buffers.
+ */
+@Slf4j
+public class StreamingLogReader {
+    public static final Duration DEFAULT_REORDER_WINDOW = Duration.ofMillis(500);
+    private static final int MAX_REORDER_BUFFER = 1024;
+    public static final int MAX_PENDING_LINES = 10000;
+    private static final LogLine TICK = new LogLine("", null, "");
+    private static final Pattern TIMESTAMP = Pattern.compile(
+        "^(\\d{4})-(\\d{2})-(\\d{2})[T ](\\d{2}):(\\d{2}):(\\d{2})(?:[.,](\\d{1,9}))?\\s?(Z|[+-]\\d{2}:?\\d{2})?");
+    private static final Comparator<LogLine> ORDER = Comparator.comparing(LogLine::getTimestamp, Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparing(LogLine::getSource);
+
+    /**
+     * @return lines of the response body of a GET request to {@code url}.
+     */
+    @Nonnull
+    public static Flux<String> readLines(@Nonnull final String url, @Nonnull final Map<String, String> headers) {
+        return AbstractAzServiceSubscription.getStreamingHttpClient()
+            .headers(h -> headers.forEach(h::set))
+            .get().uri(url)
+            .response((response, body) -> {
+                if (response.status().code() >= 400) {
+                    return Flux.error(new AzureToolkitRuntimeException(String.format("failed to stream logs from %s: %s", url, response.status())));
+                }
+                return Flux.defer(() -> {
+                    final LineFramer framer = new LineFramer();
+                    return body.map(framer::feed).concatMapIterable(lines -> lines).concatWith(Mono.fromSupplier(framer::flush));
+                });
+            });
+    }
+
+    /**
+     * @return lines of the response body of a GET request to {@code url} sent through {@code pipeline}, e.g. to
+     * authenticate with its policies. the pipeline should be built on a client without read timeout.
+     */
+    @Nonnull
+    public static Flux<String> readLines(@Nonnull final HttpPipeline pipeline, @Nonnull final String url) {
+        return pipeline.send(new HttpRequest(HttpMethod.GET, url)).flatMapMany(response -> {
+            if (response.getStatusCode() >= 400) {
+                response.close();
+                return Flux.error(new AzureToolkitRuntimeException(String.format("failed to stream logs from %s: %s", url, response.getStatusCode())));
+            }
+            return Flux.defer(() -> {
+                final LineFramer framer = new LineFramer();
+                return response.getBody().map(b -> framer.feed(Unpooled.wrappedBuffer(b))).concatMapIterable(lines -> lines)
+                    .concatWith(Mono.fromSupplier(framer::flush));
+            }).doFinally(s -> response.close());
+        });
+    }
+
+    /**
+     * merge log streams into one view ordered by the timestamps at the beginning of lines. since streams are endless,
+     * lines are only reordered within a sliding {@code window}: every line is held for at most {@code window} after it
+     * arrives (or until too many lines are held), and released in order with all lines ordered before it. lines
+     * without timestamp(e.g. stack traces) take the timestamp of the previous line of the same source so that they stay
+     * with it. a failing stream ends alone.
+     * lines are buffered up to {@link #MAX_PENDING_LINES} for slow subscribers, the oldest are dropped beyond that
+     * instead of stalling the sockets of the streams.
+     *
+     * @param streams source(e.g. instance name) -> lines
+     */
+    @Nonnull
+    public static Flux<LogLine> merge(@Nonnull final Map<String, Flux<String>> streams, @Nonnull final Duration window) {
+        final List<Flux<LogLine>> sources = streams.entrySet().stream()
+            .map(e -> toLogLines(e.getKey(), e.getValue()))
+            .collect(Collectors.toList());
+        final Duration tick = Duration.ofMillis(Math.max(window.toMillis() / 4, 10));
+        return Flux.defer(() -> {
+            final ReorderWindow reorder = new ReorderWindow(window, MAX_REORDER_BUFFER, System::nanoTime);
+            return Flux.merge(sources)
+                .onBackpressureBuffer(MAX_PENDING_LINES, l -> log.debug("log line of {} is dropped for slow subscriber", l.getSource()), BufferOverflowStrategy.DROP_OLDEST)
+                .publish(lines -> Flux.merge(lines, Flux.interval(tick).onBackpressureDrop().map(t -> TICK).takeUntilOther(lines.then())))
+                .concatMapIterable(line -> line == TICK ? reorder.release() : reorder.offer(line))
+                .concatWith(Flux.defer(() -> Flux.fromIterable(reorder.drain())));
+        });
+    }
+
+    @Nonnull
+    private static Flux<LogLine> toLogLines(@Nonnull final String source, @Nonnull final Flux<String> lines) {
+        return Flux.defer(() -> {
+            final Instant[] last = new Instant[1];
+            return lines.map(line -> {
+                final Instant timestamp = parseTimestamp(line);
+                last[0] = Objects.nonNull(timestamp) ? timestamp : last[0];
+                return new LogLine(source, last[0], line);
+            });
+        }).onErrorResume(e -> {
+            log.warn("log stream of {} is interrupted: {}", source, e.getMessage());
+            return Flux.empty();
+        });
+    }
+
+    /**
+     * @return timestamp at the beginning of the line, e.g. {@code 2023-01-01 08:00:00.123} or
+     * {@code 2023-01-01T08:00:00.123+08:00}, in UTC if no zone is specified.
+     */
+    @Nullable
+    static Instant parseTimestamp(@Nonnull final String line) {
+        if (line.length() < 19 || line.charAt(4) != '-' || line.charAt(13) != ':') { // quick check before matching
+            return null;
+        }
+        final Matcher m = TIMESTAMP.matcher(line);
+        if (!m.find()) {
+            return null;
+        }
+        try {
+            final String fraction = Objects.isNull(m.group(7)) ? "0" : (m.group(7) + "00000000").substring(0, 9);
+            final LocalDateTime time = LocalDateTime.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)), Integer.parseInt(m.group(3)),
+                Integer.parseInt(m.group(4)), Integer.parseInt(m.group(5)), Integer.parseInt(m.group(6)), Integer.parseInt(fraction));
+            final String zone = m.group(8);
+            final ZoneOffset offset = Objects.isNull(zone) || "Z".equals(zone) ? ZoneOffset.UTC : ZoneOffset.of(zone.length() == 5 ?
+                zone.substring(0, 3) + ":" + zone.substring(3) : zone);
+            return time.toInstant(offset);
+        } catch (final RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class LogLine {
+        @Nonnull
+        private final String source;
+        @Nullable
+        private final Instant timestamp;
+        @Nonnull
+        private final String text;
+
+        @Override
+        public String toString() {
+            return String.format("[%s] %s", source, text);
+        }
+    }
+
+    /**
+     * sliding reorder window: lines are released in order once the earliest arrived one of them is held for
+     * {@code window}, or when more than {@code maxSize} lines are held. lines of the same order are released in
+     * arrival order.
+     */
+    static class ReorderWindow {
+        private final long windowNanos;
+        private final int maxSize;
+        private final LongSupplier clock;
+        private final PriorityQueue<Entry> held = new PriorityQueue<>(Comparator.<Entry, LogLine>comparing(e -> e.line, ORDER).thenComparingLong(e -> e.seq));
+        private final ArrayDeque<Entry> arrivals = new ArrayDeque<>();
+        private long seq = 0;
+
+        ReorderWindow(@Nonnull final Duration window, final int maxSize, @Nonnull final LongSupplier clock) {
+            this.windowNanos = window.toNanos();
+            this.maxSize = maxSize;
+            this.clock = clock;
+        }
+
+        @Nonnull
+        List<LogLine> offer(@Nonnull final LogLine line) {
+            final Entry entry = new Entry(line, this.seq++, this.clock.getAsLong());
+            this.held.add(entry);
+            this.arrivals.addLast(entry);
+            return this.release();
+        }
+
+        @Nonnull
+        List<LogLine> release() {
+            final long now = this.clock.getAsLong();
+            List<LogLine> released = Collections.emptyList();
+            while (!this.arrivals.isEmpty()) {
+                final Entry earliest = this.arrivals.peekFirst();
+                if (earliest.released) {
+                    this.arrivals.pollFirst();
+                    continue;
+                }
+                if (this.held.size() <= this.maxSize && now - earliest.arrival < this.windowNanos) {
+                    break;
+                }
+                if (released.isEmpty()) {
+                    released = new ArrayList<>();
+                }
+                Entry head;
+                do { // release the earliest arrived line and all lines ordered before it.
+                    head = this.held.poll();
+                    head.released = true;
+                    released.add(head.line);
+                } while (head != earliest);
+            }
+            return released;
+        }
+
+        @Nonnull
+        List<LogLine> drain() {
+            final List<LogLine> released = new ArrayList<>(this.held.size());
+            while (!this.held.isEmpty()) {
+                released.add(this.held.poll().line);
+            }
+            this.arrivals.clear();
+            return released;
+        }
+
+        int size() {
+            return this.held.size();
+        }
+
+        @RequiredArgsConstructor
+        private static class Entry {
+            private final LogLine line;
+            private final long seq;
+            private final long arrival;
+            private boolean released;
+        }
+    }
+
+    /**
+     * splits chunks into lines, a line is decoded to string only once, directly from the chunk unless it spans chunks.
+     */
+    static class LineFramer {
+        private byte[] pending = new byte[256];
+        private int length = 0;
+
+        @Nonnull
+        List<String> feed(@Nonnull final ByteBuf chunk) {
+            final int end = chunk.writerIndex();
+            int start = chunk.readerIndex();
+            int lf;
+            List<String> lines = Collections.emptyList();
+            while (start < end && (lf = chunk.indexOf(start, end, (byte) '\n')) >= 0) {
+                if (lines.isEmpty()) {
+                    lines = new ArrayList<>();
+                }
+                if (this.length == 0) {
+                    final int len = lf > start && chunk.getByte(lf - 1) == '\r' ? lf - start - 1 : lf - start;
+                    lines.add(chunk.toString(start, len, StandardCharsets.UTF_8));
+                } else {
+                    this.append(chunk, start, lf - start);
+                    lines.add(this.decodePending());
+                }
+                start = lf + 1;
+            }
+            if (start < end) {
+                this.append(chunk, start, end - start);
+            }
+            return lines;
+        }
+
+        /**
+         * @return the last line if not terminated by a line break.
+         */
+        @Nullable
+        String flush() {
+            return this.length > 0 ? this.decodePending() : null;
+        }
+
+        private void append(@Nonnull final ByteBuf chunk, final int index, final int len) {
+            if (this.length + len > this.pending.length) {
+                this.pending = Arrays.copyOf(this.pending, Math.max(this.pending.length * 2, this.length + len));
+            }
+            chunk.getBytes(index, this.pending, this.length, len);
+            this.length += len;
+        }
+
+        @Nonnull
+        private String decodePending() {
+            final int len = this.length > 0 && this.pending[this.length - 1] == '\r' ? this.length - 1 : this.length;
+            this.length = 0;
+            return new String(this.pending, 0, len, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -5,47 +5,61 @@
 
 package com.microsoft.azure.toolkit.lib.common.utils;
 
-import rx.Observable;
-import rx.Subscription;
-import rx.schedulers.Schedulers;
+import reactor.core.scheduler.Schedulers;
 
-import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-public class TailingDebouncer implements Debouncer {
+/**
+ * runs {@code debounced} once {@code delay} has passed since the last {@link #debounce()}.
+ * all debouncers share one {@link TimingWheel}, re-arming a pending debouncer only postpones its deadline.
+ */
+public class TailingDebouncer implements Debouncer, TimingWheel.Timeout {
     private final Runnable debounced;
-    private final int delay;
-    private Subscription timer;
+    private final long delay;
+    private final AtomicBoolean pending = new AtomicBoolean(false);
+    private volatile long deadline;
+    private volatile boolean cancelled;
 
     public TailingDebouncer(final Runnable debounced, final int delayInMillis) {
         this.debounced = debounced;
-        this.delay = delayInMillis;
+        this.delay = TimeUnit.MILLISECONDS.toNanos(delayInMillis);
     }
 
     @Override
-    public synchronized void debounce() {
-        if (this.isPending()) {
-            this.timer.unsubscribe();
+    public void debounce() {
+        this.cancelled = false;
+        this.deadline = System.nanoTime() + this.delay;
+        if (this.pending.compareAndSet(false, true)) {
+            TimingWheel.instance.schedule(this);
         }
-        this.timer = Observable.timer(this.delay, TimeUnit.MILLISECONDS)
-            .subscribeOn(Schedulers.io())
-            .subscribe(ignore -> {
-                this.debounced.run();
-                this.clearTimer();
-            }, (e) -> this.clearTimer());
     }
 
-    public synchronized void cancel() {
-        if (this.isPending()) {
-            this.timer.unsubscribe();
-        }
+    public void cancel() {
+        this.cancelled = true;
+        this.deadline = System.nanoTime();
+    }
+
+    public boolean isPending() {
+        return this.pending.get() && !this.cancelled;
     }
 
-    public synchronized boolean isPending() {
-        return Objects.nonNull(this.timer) && !this.timer.isUnsubscribed();
+    @Override
+    public long getDeadline() {
+        return this.deadline;
     }
 
-    private synchronized void clearTimer() {
-        this.timer = null;
+    @Override
+    public void expire(long deadline) {
+        this.pending.set(false);
+        if (this.deadline != deadline) { // re-armed meanwhile
+            if (this.pending.compareAndSet(false, true)) {
+                TimingWheel.instance.schedule(this);
+            }
+            return;
+        }
+        if (!this.cancelled) {
+            Schedulers.boundedElastic().schedule(this.debounced);
+        }
     }
 }
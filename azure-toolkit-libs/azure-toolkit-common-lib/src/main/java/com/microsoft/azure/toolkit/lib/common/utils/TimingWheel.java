@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * shared hashed timing wheel driven by a single daemon thread, which parks when there is nothing scheduled.
+ * timeouts are placed into the bucket of their deadline tick, a timeout whose deadline is postponed after being
+ * placed is simply moved to the bucket of its new deadline when its old bucket is visited.
+ */
+@Slf4j
+final class TimingWheel {
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int SIZE = 512; // must be power of 2
+    static final TimingWheel instance = new TimingWheel();
+
+    private final Queue<Timeout>[] buckets;
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>(); // placed into buckets by the wheel thread only
+    private final AtomicInteger scheduled = new AtomicInteger();
+    private final long startTime = System.nanoTime();
+    private volatile Thread worker;
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    private TimingWheel() {
+        this.buckets = new Queue[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            this.buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    void schedule(@Nonnull Timeout timeout) {
+        this.incoming.offer(timeout);
+        if (this.scheduled.getAndIncrement() == 0) {
+            this.wakeup();
+        }
+    }
+
+    private void place(@Nonnull Timeout timeout, long deadline) {
+        final long tick = Math.max((deadline - this.startTime + TICK - 1) / TICK, this.currentTick + 1);
+        this.buckets[(int) (tick & (SIZE - 1))].offer(timeout);
+    }
+
+    private void wakeup() {
+        if (this.worker == null) {
+            synchronized (this) {
+                if (this.worker == null) {
+                    final Thread thread = new Thread(this::run, "azure-toolkit-timing-wheel");
+                    thread.setDaemon(true);
+                    this.worker = thread;
+                    thread.start();
+                    return;
+                }
+            }
+        }
+        LockSupport.unpark(this.worker);
+    }
+
+    private void run() {
+        this.currentTick = (System.nanoTime() - this.startTime) / TICK;
+        while (!Thread.currentThread().isInterrupted()) {
+            if (this.scheduled.get() == 0) {
+                LockSupport.park(this);
+                this.currentTick = Math.max(this.currentTick, (System.nanoTime() - this.startTime) / TICK - 1); // skip idle ticks
+                continue;
+            }
+            for (Timeout timeout = this.incoming.poll(); timeout != null; timeout = this.incoming.poll()) {
+                this.place(timeout, timeout.getDeadline());
+            }
+            final long now = System.nanoTime();
+            final long targetTick = (now - this.startTime) / TICK;
+            while (this.currentTick < targetTick) {
+                this.currentTick++;
+                this.expire(this.buckets[(int) (this.currentTick & (SIZE - 1))], now);
+            }
+            LockSupport.parkNanos(this, TICK - (System.nanoTime() - this.startTime) % TICK);
+        }
+    }
+
+    private void expire(@Nonnull Queue<Timeout> bucket, long now) {
+        for (int i = bucket.size(); i > 0; i--) {
+            final Timeout timeout = bucket.poll();
+            if (timeout == null) {
+                return;
+            }
+            final long deadline = timeout.getDeadline();
+            if (deadline - now > 0) { // postponed, move to the bucket of its new deadline
+                this.place(timeout, deadline);
+                continue;
+            }
+            this.scheduled.decrementAndGet();
+            try {
+                timeout.expire(deadline);
+            } catch (Throwable t) {
+                log.warn("error occurs when expiring timeout", t);
+            }
+        }
+    }
+
+    interface Timeout {
+        /**
+         * @return deadline in {@link System#nanoTime()}
+         */
+        long getDeadline();
+
+        /**
+         * invoked on the wheel thread once the deadline is reached, must not block.
+         *
+         * @param deadline the deadline observed when expiring.
+         */
+        void expire(long deadline);
+    }
+}
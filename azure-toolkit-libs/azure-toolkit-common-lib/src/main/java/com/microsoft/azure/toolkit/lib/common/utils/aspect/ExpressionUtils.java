@@ -6,27 +6,50 @@
 package com.microsoft.azure.toolkit.lib.common.utils.aspect;
 
 import com.azure.resourcemanager.resources.fluentcore.arm.ResourceUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import groovy.text.SimpleTemplateEngine;
 import groovy.text.Template;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Triple;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codehaus.groovy.runtime.InvokerInvocationException;
 import org.codehaus.groovy.runtime.MethodClosure;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Slf4j
 public class ExpressionUtils {
     private static final ImmutableMap<String, Boolean> valueMap = ImmutableMap.of("true", true, "false", false);
     private static final SimpleTemplateEngine engine = new SimpleTemplateEngine();
     private static final String INVALID_TEMPLATE = "error occurs when evaluate template(%s) with bindings(%s)";
+    private static final int MAX_CACHED_TEMPLATES = 2048;
+    private static final Pattern EXPRESSION = Pattern.compile("\\$\\{([^{}]*)}");
+    // property/no-arg method chain, e.g. `name`, `this.name`, `this.getName()`, `app.getParent().getName()`
+    private static final Pattern SIMPLE_EXPRESSION = Pattern.compile("[a-zA-Z_]\\w*(\\.[a-zA-Z_]\\w*(\\(\\))?)*");
+    private static final Object UNRESOLVED = new Object();
+    private static final Cache<String, CompiledTemplate> templates = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_TEMPLATES).build();
 
     public static boolean evaluate(@Nonnull final String expression, @Nonnull final MethodInvocation invocation, boolean defaultVal) {
         final String result = interpret(expression, invocation);
@@ -41,17 +64,47 @@ public class ExpressionUtils {
         if (StringUtils.isBlank(template) || !template.contains("$")) { // no groovy expression, just return
             return template;
         }
-        final Map<String, Object> bindings = initBindings(invocation);
-        final String fixed = template.replaceAll("(\\W)this(\\.)", "$1_this_$2"); // resolve `this`
         try {
-            final Template tpl = engine.createTemplate(fixed);
-            return tpl.make(bindings).toString();
+            return templates.get(template, () -> compile(template)).render(invocation);
         } catch (final Throwable e) { // swallow all exceptions during render
-            log.warn(String.format(INVALID_TEMPLATE, template, bindings), e);
+            final Throwable cause = e instanceof ExecutionException || e instanceof UncheckedExecutionException || e instanceof ExecutionError ? e.getCause() : e;
+            log.warn(String.format(INVALID_TEMPLATE, template, initBindings(invocation).keySet()), cause); // values may fail to be stringified
         }
         return template;
     }
 
+    /**
+     * templates only containing plain text and property/no-arg method chains are rendered by reflection,
+     * others are compiled by groovy.
+     */
+    @Nonnull
+    private static CompiledTemplate compile(@Nonnull final String template) {
+        final GroovyTemplate groovy = new GroovyTemplate(template);
+        final List<Object> segments = new ArrayList<>(); // literal `String`s and property chains as `String[]`
+        final Matcher matcher = EXPRESSION.matcher(template);
+        int start = 0;
+        while (matcher.find()) {
+            final String literal = template.substring(start, matcher.start());
+            final String expression = matcher.group(1).trim();
+            if (!isPlainText(literal) || !SIMPLE_EXPRESSION.matcher(expression).matches()) {
+                return groovy;
+            }
+            segments.add(literal);
+            segments.add(expression.split("\\."));
+            start = matcher.end();
+        }
+        final String tail = template.substring(start);
+        if (!isPlainText(tail)) {
+            return groovy;
+        }
+        segments.add(tail);
+        return new SimpleTemplate(segments, groovy);
+    }
+
+    private static boolean isPlainText(@Nonnull final String text) {
+        return !StringUtils.containsAny(text, '$', '\\', '<');
+    }
+
     @Nonnull
     private static Map<String, Object> initBindings(@Nonnull final MethodInvocation invocation) {
         final List<Triple<String, Parameter, Object>> args = invocation.getArgs();
@@ -67,4 +120,138 @@ public class ExpressionUtils {
     private static void bindPredefinedFunctions(@Nonnull Map<String, Object> bindings) {
         bindings.put("nameFromResourceId", new MethodClosure(ResourceUtils.class, "nameFromResourceId"));
     }
+
+    private interface CompiledTemplate {
+        String render(@Nonnull MethodInvocation invocation);
+    }
+
+    private static class GroovyTemplate implements CompiledTemplate {
+        private final String template;
+        private volatile Template compiled;
+
+        private GroovyTemplate(@Nonnull final String template) {
+            this.template = template;
+        }
+
+        @Override
+        public String render(@Nonnull final MethodInvocation invocation) {
+            final Map<String, Object> bindings = initBindings(invocation);
+            try {
+                if (Objects.isNull(this.compiled)) {
+                    final String fixed = this.template.replaceAll("(\\W)this(\\.)", "$1_this_$2"); // resolve `this`
+                    this.compiled = engine.createTemplate(fixed);
+                }
+                return this.compiled.make(bindings).toString();
+            } catch (final Throwable e) { // swallow all exceptions during render
+                log.warn(String.format(INVALID_TEMPLATE, this.template, bindings.keySet()), e);
+            }
+            return this.template;
+        }
+    }
+
+    /**
+     * renders with reflection, falls back to groovy only if the root of a chain can not be resolved this way(e.g. unknown
+     * variable), so that no getter is invoked twice. links without a public accessor(e.g. property of a map or null in the
+     * middle of a chain) are resolved by groovy runtime on the value resolved so far, exceptions of getters are thrown as
+     * groovy does.
+     */
+    @RequiredArgsConstructor
+    private static class SimpleTemplate implements CompiledTemplate {
+        private static final ClassValue<Map<String, Optional<Method>>> accessors = new ClassValue<Map<String, Optional<Method>>>() {
+            @Override
+            protected Map<String, Optional<Method>> computeValue(Class<?> type) { // not to prevent classes from being unloaded
+                return new ConcurrentHashMap<>();
+            }
+        };
+        private final List<Object> segments;
+        private final GroovyTemplate fallback;
+
+        @Override
+        public String render(@Nonnull final MethodInvocation invocation) {
+            final List<Triple<String, Parameter, Object>> args = invocation.getArgs();
+            final List<Object> roots = new ArrayList<>();
+            for (final Object segment : this.segments) { // resolve all roots before invoking any getter
+                if (segment instanceof String[]) {
+                    final Object root = resolveRoot((String[]) segment, invocation, args);
+                    if (root == UNRESOLVED) {
+                        return this.fallback.render(invocation);
+                    }
+                    roots.add(root);
+                }
+            }
+            final StringBuilder result = new StringBuilder();
+            int index = 0;
+            for (final Object segment : this.segments) {
+                if (segment instanceof String) {
+                    result.append(segment);
+                    continue;
+                }
+                final String[] chain = (String[]) segment;
+                Object value = roots.get(index++);
+                for (int i = 1; i < chain.length; i++) {
+                    value = invoke(value, chain[i]);
+                }
+                result.append(InvokerHelper.toString(value));
+            }
+            return result.toString();
+        }
+
+        private static Object resolveRoot(@Nonnull final String[] chain, @Nonnull final MethodInvocation invocation,
+                                          @Nonnull final List<Triple<String, Parameter, Object>> args) {
+            if (StringUtils.equals(chain[0], "this")) {
+                return chain.length > 1 ? invocation.getInstance() : UNRESOLVED; // bare `this` is the script in groovy
+            }
+            for (final Triple<String, Parameter, Object> arg : args) {
+                if (StringUtils.equals(arg.getLeft(), chain[0])) {
+                    return arg.getRight();
+                }
+            }
+            return UNRESOLVED;
+        }
+
+        private static Object invoke(@Nullable final Object target, @Nonnull final String name) {
+            final Optional<Method> accessor = Objects.isNull(target) || target instanceof Map ? Optional.empty() :
+                accessors.get(target.getClass()).computeIfAbsent(name, n -> findAccessor(target.getClass(), n));
+            if (accessor.isPresent()) {
+                try {
+                    return accessor.get().invoke(target);
+                } catch (final InvocationTargetException e) {
+                    throw new InvokerInvocationException(e);
+                } catch (final IllegalAccessException ignored) {
+                    // resolve by groovy runtime
+                }
+            }
+            return name.endsWith("()") ? InvokerHelper.invokeMethod(target, StringUtils.removeEnd(name, "()"), null) :
+                InvokerHelper.getProperty(target, name);
+        }
+
+        /**
+         * @param name method name followed by `()` or property name, which is resolved to its getter.
+         */
+        @Nonnull
+        private static Optional<Method> findAccessor(@Nonnull final Class<?> clazz, @Nonnull final String name) {
+            final String[] candidates = name.endsWith("()") ? new String[]{StringUtils.removeEnd(name, "()")} :
+                new String[]{"get" + StringUtils.capitalize(name), "is" + StringUtils.capitalize(name)};
+            final List<Class<?>> types = new ArrayList<>();
+            types.add(clazz);
+            types.addAll(ClassUtils.getAllSuperclasses(clazz));
+            types.addAll(ClassUtils.getAllInterfaces(clazz));
+            for (final String candidate : candidates) {
+                for (final Class<?> type : types) { // method must be invoked through a public type
+                    if (!Modifier.isPublic(type.getModifiers())) {
+                        continue;
+                    }
+                    try {
+                        final Method method = type.getMethod(candidate);
+                        if (!Modifier.isStatic(method.getModifiers())) {
+                            return Optional.of(method);
+                        }
+                    } catch (final NoSuchMethodException ignored) {
+                        // try next type
+                    }
+                }
+            }
+            return Optional.empty();
+        }
+    }
 }
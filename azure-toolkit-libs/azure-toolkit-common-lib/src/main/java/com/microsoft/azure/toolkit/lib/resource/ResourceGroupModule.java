@@ -76,6 +76,12 @@ public class ResourceGroupModule extends AbstractAzResourceModule<ResourceGroup,
         return new ResourceGroup(name, Objects.requireNonNull(resourceGroupName), this);
     }
 
+    @Nullable
+    @Override
+    protected Object getRemoteFingerprint(@Nonnull com.azure.resourcemanager.resources.models.ResourceGroup remote) {
+        return getInnerModelFingerprint(remote);
+    }
+
     @Nonnull
     @Override
     public String getResourceTypeName() {
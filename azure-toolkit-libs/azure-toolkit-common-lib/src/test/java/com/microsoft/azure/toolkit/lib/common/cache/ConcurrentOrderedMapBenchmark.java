@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * contention microbenchmark of {@link ConcurrentOrderedMap} against the synchronized {@link LinkedHashMap} it replaces.
+ * not run by surefire, run with {@code main(threads, seconds)}. mostly reads with occasional writes and full
+ * iterations, like resource lookups during a refresh.
+ */
+public class ConcurrentOrderedMapBenchmark {
+    private static final int KEYS = 2000;
+
+    public static void main(String[] args) throws Exception {
+        final int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        final long millis = (args.length > 1 ? Long.parseLong(args[1]) : 2) * 1000;
+        for (int round = 0; round < 3; round++) { // the first round warms up
+            report("synchronizedMap(LinkedHashMap)", run(() -> Collections.synchronizedMap(new LinkedHashMap<>()), threads, millis), round);
+            report("ConcurrentOrderedMap", run(ConcurrentOrderedMap::new, threads, millis), round);
+        }
+    }
+
+    private static long run(Supplier<Map<Integer, Integer>> factory, int threads, long millis) throws Exception {
+        final Map<Integer, Integer> map = factory.get();
+        for (int i = 0; i < KEYS; i++) {
+            map.put(i, i);
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<Long>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    final ThreadLocalRandom random = ThreadLocalRandom.current();
+                    final long deadline = System.currentTimeMillis() + millis;
+                    long ops = 0;
+                    while ((ops & 0xFF) != 0 || System.currentTimeMillis() < deadline) {
+                        final int key = random.nextInt(KEYS);
+                        final int op = random.nextInt(100);
+                        if (op < 90) {
+                            map.get(key);
+                        } else if (op < 99) {
+                            map.put(key, op);
+                        } else if (map instanceof ConcurrentOrderedMap) {
+                            map.values().forEach(v -> {
+                            });
+                        } else {
+                            synchronized (map) {
+                                map.values().forEach(v -> {
+                                });
+                            }
+                        }
+                        ops++;
+                    }
+                    return ops;
+                }));
+            }
+            start.countDown();
+            long total = 0;
+            for (final Future<Long> future : futures) {
+                total += future.get();
+            }
+            return total * 1000 / millis;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void report(String name, long opsPerSecond, int round) {
+        System.out.printf("%s%-32s %,15d ops/s%n", round == 0 ? "(warmup) " : "", name, opsPerSecond);
+    }
+}
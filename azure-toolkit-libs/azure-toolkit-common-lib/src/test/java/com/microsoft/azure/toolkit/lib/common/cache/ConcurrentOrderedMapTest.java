@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentOrderedMapTest {
+
+    @Test
+    public void keepInsertionOrder() {
+        final ConcurrentOrderedMap<String, Integer> map = new ConcurrentOrderedMap<>();
+        map.put("c", 1);
+        map.put("a", 2);
+        map.put("b", 3);
+        map.put("a", 4); // replacing keeps position
+        Assert.assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<>(map.keySet()));
+        Assert.assertEquals(Arrays.asList(1, 4, 3), new ArrayList<>(map.values()));
+        map.remove("c");
+        map.put("c", 5); // re-inserting moves to the end
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(map.keySet()));
+    }
+
+    @Test
+    public void atomicOperations() {
+        final ConcurrentOrderedMap<String, Integer> map = new ConcurrentOrderedMap<>();
+        Assert.assertNull(map.putIfAbsent("a", 1));
+        Assert.assertEquals(Integer.valueOf(1), map.putIfAbsent("a", 2));
+        Assert.assertFalse(map.replace("a", 2, 3));
+        Assert.assertTrue(map.replace("a", 1, 3));
+        Assert.assertNull(map.replace("b", 1));
+        Assert.assertFalse(map.containsKey("b"));
+        Assert.assertEquals(Integer.valueOf(4), map.compute("a", (k, v) -> v + 1));
+        Assert.assertEquals(Integer.valueOf(4), map.computeIfAbsent("a", k -> 0));
+        Assert.assertEquals(Integer.valueOf(0), map.computeIfAbsent("b", k -> 0));
+        Assert.assertNull(map.compute("b", (k, v) -> null));
+        Assert.assertFalse(map.remove("a", 5));
+        Assert.assertTrue(map.remove("a", 4));
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void writeThroughEntries() {
+        final ConcurrentOrderedMap<String, Integer> map = new ConcurrentOrderedMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+        final Iterator<Map.Entry<String, Integer>> entries = map.entrySet().iterator();
+        final Map.Entry<String, Integer> a = entries.next();
+        Assert.assertEquals(Integer.valueOf(1), a.setValue(10));
+        Assert.assertEquals(Integer.valueOf(10), map.get("a"));
+        Assert.assertEquals(Arrays.asList("a", "b"), new ArrayList<>(map.keySet()));
+        entries.next();
+        entries.remove();
+        Assert.assertFalse(map.containsKey("b"));
+
+        map.remove("a");
+        Assert.assertEquals(Integer.valueOf(10), a.setValue(20)); // detached entry
+        Assert.assertFalse(map.containsKey("a"));
+        map.put("a", 1);
+        Assert.assertEquals(Integer.valueOf(20), a.setValue(30));
+        Assert.assertEquals("stale entry must not overwrite the new mapping", Integer.valueOf(1), map.get("a"));
+    }
+
+    @Test
+    public void iterateWhileModifying() {
+        final ConcurrentOrderedMap<Integer, Integer> map = new ConcurrentOrderedMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        int count = 0;
+        for (final Map.Entry<Integer, Integer> entry : map.entrySet()) {
+            if (entry.getKey() < 1000) {
+                map.remove(entry.getKey() + 1);
+                map.put(entry.getKey() + 1000, entry.getValue()); // appended entries are visited too
+            }
+            if (++count > 1000) {
+                Assert.fail("iteration should end");
+            }
+        }
+        Assert.assertTrue("weakly consistent iteration visits the appended entries", count >= 100 && count <= 200);
+        Assert.assertFalse(map.containsKey(1));
+        Assert.assertTrue(map.containsKey(1000));
+    }
+
+    @Test
+    public void concurrentWrites() throws Exception {
+        final ConcurrentOrderedMap<Integer, Integer> map = new ConcurrentOrderedMap<>();
+        final int threads = 8;
+        final int keys = 1000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final AtomicInteger inserted = new AtomicInteger();
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < keys; i++) {
+                        if (map.putIfAbsent(i, i) == null) {
+                            inserted.incrementAndGet();
+                        }
+                        map.compute(i, (k, v) -> v + 1);
+                        map.get(i);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            Assert.assertEquals(keys, inserted.get());
+            Assert.assertEquals(keys, map.size());
+            Assert.assertEquals(keys, map.entrySet().stream().count());
+            for (int i = 0; i < keys; i++) {
+                Assert.assertEquals(Integer.valueOf(i + threads), map.get(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
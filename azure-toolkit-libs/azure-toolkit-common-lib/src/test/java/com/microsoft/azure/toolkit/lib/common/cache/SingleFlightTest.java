@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlightTest {
+
+    @Test
+    public void coalesceConcurrentCalls() throws Exception {
+        final SingleFlight<String, Integer> flight = new SingleFlight<>();
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Integer>> results = new ArrayList<>();
+            results.add(executor.submit(() -> flight.execute("key", () -> {
+                entered.countDown();
+                await(release);
+                return calls.incrementAndGet();
+            })));
+            Assert.assertTrue(entered.await(5, TimeUnit.SECONDS));
+            Assert.assertTrue(flight.isInFlight("key"));
+            for (int i = 1; i < threads; i++) {
+                results.add(executor.submit(() -> flight.execute("key", calls::incrementAndGet)));
+            }
+            final long deadline = System.currentTimeMillis() + 5000;
+            while (flight.getCoalescedCount() < threads - 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+            for (final Future<Integer> result : results) {
+                Assert.assertEquals(Integer.valueOf(1), result.get(5, TimeUnit.SECONDS));
+            }
+            Assert.assertEquals(1, calls.get());
+            Assert.assertEquals(1, flight.getExecutedCount());
+            Assert.assertEquals(threads - 1, flight.getCoalescedCount());
+            Assert.assertFalse(flight.isInFlight("key"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void executeAgainAfterCompletion() {
+        final SingleFlight<String, Integer> flight = new SingleFlight<>();
+        final AtomicInteger calls = new AtomicInteger();
+        Assert.assertEquals(Integer.valueOf(1), flight.execute("key", calls::incrementAndGet));
+        Assert.assertEquals(Integer.valueOf(2), flight.execute("key", calls::incrementAndGet));
+        Assert.assertEquals(Integer.valueOf(3), flight.execute("other", calls::incrementAndGet));
+        Assert.assertEquals(0, flight.getCoalescedCount());
+    }
+
+    @Test
+    public void shareFailures() throws Exception {
+        final SingleFlight<String, Integer> flight = new SingleFlight<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Integer> first = executor.submit(() -> flight.execute("key", () -> {
+                entered.countDown();
+                await(release);
+                throw new IllegalStateException("failed");
+            }));
+            Assert.assertTrue(entered.await(5, TimeUnit.SECONDS));
+            final Future<Integer> second = executor.submit(() -> flight.execute("key", () -> 1));
+            final long deadline = System.currentTimeMillis() + 5000;
+            while (flight.getCoalescedCount() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+            for (final Future<Integer> result : new Future[]{first, second}) {
+                try {
+                    result.get(5, TimeUnit.SECONDS);
+                    Assert.fail("failure should be shared");
+                } catch (final ExecutionException e) {
+                    Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+                }
+            }
+            Assert.assertEquals(Integer.valueOf(1), flight.execute("key", () -> 1)); // failures are not cached
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void reentrantCall() {
+        final SingleFlight<String, Integer> flight = new SingleFlight<>();
+        final int result = flight.execute("key", () -> flight.execute("key", () -> 1) + 1);
+        Assert.assertEquals(2, result);
+        Assert.assertEquals(2, flight.getExecutedCount());
+    }
+
+    @Test
+    public void nestedCallsAcrossThreads() throws Exception {
+        // e.g. reloads of copies of a resource in different modules, each nesting a reload of the other.
+        final SingleFlight<String, Integer> first = new SingleFlight<>();
+        final SingleFlight<String, Integer> second = new SingleFlight<>();
+        final CountDownLatch entered = new CountDownLatch(2);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Integer> a = executor.submit(() -> first.execute("a", () -> {
+                entered.countDown();
+                await(entered);
+                return second.execute("b", () -> 1) + 1;
+            }));
+            final Future<Integer> b = executor.submit(() -> second.execute("b", () -> {
+                entered.countDown();
+                await(entered);
+                return first.execute("a", () -> 10) + 10;
+            }));
+            Assert.assertEquals(Integer.valueOf(2), a.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(Integer.valueOf(20), b.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(0, first.getCoalescedCount() + second.getCoalescedCount());
+            Assert.assertEquals(Integer.valueOf(3), first.execute("a", () -> 3)); // nothing is left in flight
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.event;
+
+import com.microsoft.azure.toolkit.lib.Azure;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AzureEventBusTest {
+
+    @Test
+    public void slowListenerDoesNotBlockOtherEvents() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch delivered = new CountDownLatch(1);
+        final AzureEventBus.EventListener slow = new AzureEventBus.EventListener(e -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        final AzureEventBus.EventListener fast = new AzureEventBus.EventListener(e -> delivered.countDown());
+        AzureEventBus.on("test.slow", slow);
+        AzureEventBus.on("test.fast", fast);
+        try {
+            AzureEventBus.emit("test.slow");
+            Thread.sleep(100); // let the slow event be dispatched first
+            AzureEventBus.emit("test.fast");
+            Assert.assertTrue("fast event should be delivered while the slow listener is running", delivered.await(2, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            AzureEventBus.off("test.slow", slow);
+            AzureEventBus.off("test.fast", fast);
+        }
+    }
+
+    @Test
+    public void identicalEventsAreCoalesced() throws InterruptedException {
+        final AtomicInteger count = new AtomicInteger();
+        final AzureEventBus.EventListener listener = new AzureEventBus.EventListener(e -> count.incrementAndGet());
+        AzureEventBus.on("test.coalesce", listener);
+        try {
+            final long coalesced = AzureEventBus.getCoalescedCount();
+            final Object source = new Object();
+            for (int i = 0; i < 10; i++) {
+                AzureEventBus.emit("test.coalesce", source, "payload");
+            }
+            Thread.sleep(500);
+            // the first event may be dispatched immediately, all the others are pending in the same batch.
+            Assert.assertTrue(count.get() >= 1 && count.get() <= 2);
+            Assert.assertTrue(AzureEventBus.getCoalescedCount() - coalesced >= 8);
+        } finally {
+            AzureEventBus.off("test.coalesce", listener);
+        }
+    }
+
+    @Test
+    public void onlyAdjacentIdenticalEventsAreCoalesced() throws InterruptedException {
+        final List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch latch = new CountDownLatch(3);
+        final AzureEventBus.EventListener refreshed = new AzureEventBus.EventListener(e -> {
+            delivered.add("refreshed");
+            latch.countDown();
+        });
+        final AzureEventBus.EventListener deleted = new AzureEventBus.EventListener(e -> {
+            delivered.add("deleted");
+            latch.countDown();
+        });
+        AzureEventBus.on("test.refreshed", refreshed);
+        AzureEventBus.on("test.deleted", deleted);
+        try {
+            final Object resource = new Object();
+            AzureEventBus.emit("test.refreshed", resource);
+            AzureEventBus.emit("test.deleted", resource);
+            AzureEventBus.emit("test.refreshed", resource); // must not be merged into the first one
+            Assert.assertTrue(latch.await(2, TimeUnit.SECONDS));
+            Assert.assertEquals(2, delivered.stream().filter("refreshed"::equals).count());
+        } finally {
+            AzureEventBus.off("test.refreshed", refreshed);
+            AzureEventBus.off("test.deleted", deleted);
+        }
+    }
+
+    @Test
+    public void eventsAreNotDroppedWhenQueueIsFull() throws InterruptedException {
+        final int total = 15000;
+        final CountDownLatch latch = new CountDownLatch(total);
+        final AzureEventBus.EventListener listener = new AzureEventBus.EventListener(e -> latch.countDown());
+        AzureEventBus.on("test.overflow", listener);
+        try {
+            for (int i = 0; i < total; i++) {
+                AzureEventBus.emit("test.overflow", null, i);
+            }
+            Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } finally {
+            AzureEventBus.off("test.overflow", listener);
+        }
+    }
+
+    @Test
+    public void onceListenerIsInvokedOnce() throws InterruptedException {
+        final AtomicInteger count = new AtomicInteger();
+        AzureEventBus.once("test.once", (source, payload) -> count.incrementAndGet());
+        AzureEventBus.emit("test.once", "first");
+        Thread.sleep(200);
+        AzureEventBus.emit("test.once", "second");
+        Thread.sleep(200);
+        Assert.assertEquals(1, count.get());
+    }
+
+    @Test
+    public void isolatedEventIsDeliveredWithoutWaitingForTheWindow() throws InterruptedException {
+        final CountDownLatch delivered = new CountDownLatch(1);
+        final AzureEventBus.EventListener listener = new AzureEventBus.EventListener(e -> delivered.countDown());
+        final int window = Azure.az().config().getEventCoalescingWindow();
+        AzureEventBus.on("test.isolated", listener);
+        try {
+            Thread.sleep(200); // let events of other tests be dispatched
+            Azure.az().config().setEventCoalescingWindow(200);
+            Thread.sleep(300); // no dispatch within the window
+            AzureEventBus.emit("test.isolated");
+            Assert.assertTrue(delivered.await(150, TimeUnit.MILLISECONDS));
+        } finally {
+            Azure.az().config().setEventCoalescingWindow(window);
+            AzureEventBus.off("test.isolated", listener);
+        }
+    }
+}
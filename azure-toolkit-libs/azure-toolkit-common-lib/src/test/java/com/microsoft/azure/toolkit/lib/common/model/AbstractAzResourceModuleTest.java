@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model;
+
+import com.azure.resourcemanager.resources.fluent.models.ResourceGroupInner;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class AbstractAzResourceModuleTest {
+
+    @Test
+    public void fingerprintWholeInnerModel() {
+        final Object fingerprint = AbstractAzResourceModule.getInnerModelFingerprint(() -> newInner("eastus", "dev"));
+        Assert.assertNotNull(fingerprint);
+        Assert.assertEquals(fingerprint, AbstractAzResourceModule.getInnerModelFingerprint(() -> newInner("eastus", "dev")));
+        Assert.assertNotEquals(fingerprint, AbstractAzResourceModule.getInnerModelFingerprint(() -> newInner("eastus", "prod")));
+        Assert.assertNotEquals(fingerprint, AbstractAzResourceModule.getInnerModelFingerprint(() -> newInner("westus", "dev")));
+        Assert.assertNull(AbstractAzResourceModule.getInnerModelFingerprint(() -> null));
+    }
+
+    private static ResourceGroupInner newInner(String location, String env) {
+        return new ResourceGroupInner().withLocation(location).withTags(Collections.singletonMap("env", env)).withManagedBy("someone");
+    }
+}
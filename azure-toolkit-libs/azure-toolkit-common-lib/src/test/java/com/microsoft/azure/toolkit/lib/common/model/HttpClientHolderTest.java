@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model;
+
+import com.microsoft.azure.toolkit.lib.AzureConfiguration;
+import com.microsoft.azure.toolkit.lib.common.model.AbstractAzServiceSubscription.HttpClientHolder;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.SslContext;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import javax.net.ssl.SSLContext;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class HttpClientHolderTest {
+
+    @Test
+    public void buildConnectionProvider() {
+        final ConnectionProvider defaults = HttpClientHolder.buildConnectionProvider(new AzureConfiguration());
+        try {
+            Assert.assertEquals(ConnectionProvider.DEFAULT_POOL_MAX_CONNECTIONS, defaults.maxConnections());
+        } finally {
+            defaults.dispose();
+        }
+        final AzureConfiguration config = new AzureConfiguration();
+        config.setHttpMaxConnections(7);
+        config.setHttpPendingAcquireMaxCount(3);
+        config.setHttpMaxIdleTime(10);
+        config.setHttpMaxLifeTime(60);
+        final ConnectionProvider provider = HttpClientHolder.buildConnectionProvider(config);
+        try {
+            Assert.assertEquals(7, provider.maxConnections());
+        } finally {
+            provider.dispose();
+        }
+    }
+
+    @Test
+    public void useHttp11ByDefault() {
+        final HttpClient client = HttpClientHolder.configure(HttpClient.create(), new AzureConfiguration());
+        Assert.assertEquals(Collections.singletonList(HttpProtocol.HTTP11), Arrays.asList(client.configuration().protocols()));
+    }
+
+    @Test
+    public void negotiateHttp2WithDefaultSslContext() {
+        final AzureConfiguration config = new AzureConfiguration();
+        config.setHttp2Enabled(true);
+        final HttpClient client = HttpClientHolder.configure(HttpClient.create(), config);
+        Assert.assertEquals(Arrays.asList(HttpProtocol.H2, HttpProtocol.HTTP11), Arrays.asList(client.configuration().protocols()));
+    }
+
+    @Test
+    public void negotiateHttp2WithCustomSslContext() throws Exception {
+        final SSLContext custom = SSLContext.getInstance("TLS");
+        custom.init(null, null, null);
+        final AzureConfiguration config = new AzureConfiguration();
+        config.setHttp2Enabled(true);
+        config.setSslContext(custom);
+        final HttpClient client = HttpClientHolder.configure(HttpClient.create(), config);
+        Assert.assertTrue(Arrays.asList(client.configuration().protocols()).contains(HttpProtocol.H2));
+        final SslContext context = client.configuration().sslProvider().getSslContext();
+        Assert.assertEquals(Arrays.asList(ApplicationProtocolNames.HTTP_2, ApplicationProtocolNames.HTTP_1_1), context.applicationProtocolNegotiator().protocols());
+
+        config.setHttp2Enabled(false); // no ALPN is advertised for HTTP/1.1 only
+        final HttpClient http11 = HttpClientHolder.configure(HttpClient.create(), config);
+        Assert.assertTrue(http11.configuration().sslProvider().getSslContext().applicationProtocolNegotiator().protocols().isEmpty());
+    }
+}
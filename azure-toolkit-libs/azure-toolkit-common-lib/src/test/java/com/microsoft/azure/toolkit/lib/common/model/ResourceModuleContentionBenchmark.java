@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model;
+
+import com.azure.core.util.paging.ContinuablePage;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.AzService;
+import com.microsoft.azure.toolkit.lib.account.IAccount;
+import com.microsoft.azure.toolkit.lib.account.IAzureAccount;
+import com.microsoft.azure.toolkit.lib.common.cache.ConcurrentOrderedMap;
+import com.microsoft.azure.toolkit.lib.common.model.page.ItemPage;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * contention microbenchmark of {@link AbstractAzResourceModule#get(String, String)} and {@link AbstractAzResourceModule#list()}
+ * of a loaded module, with its resources kept in a synchronized {@link LinkedHashMap} or a {@link ConcurrentOrderedMap}.
+ * not run by surefire, run with {@code main(threads, seconds, resources)}, e.g. {@code main(64, 2, 500)}.
+ */
+public class ResourceModuleContentionBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final int threads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        final long millis = (args.length > 1 ? Long.parseLong(args[1]) : 2) * 1000;
+        final int size = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        registerAccount();
+        AzureTaskManager.register(new ResourceReconcileBenchmark.InlineTaskManager());
+        final List<String> names = IntStream.range(0, size).mapToObj(i -> String.format("resource-%05d", i)).collect(Collectors.toList());
+        for (int round = 0; round < 3; round++) { // the first round warms up
+            report("synchronizedMap(LinkedHashMap)", run(() -> Collections.synchronizedMap(new LinkedHashMap<>()), names, threads, millis), round);
+            report("ConcurrentOrderedMap", run(ConcurrentOrderedMap::new, names, threads, millis), round);
+        }
+    }
+
+    /**
+     * @return get(name, rg) and list() per second, 1% of calls are list().
+     */
+    private static long[] run(Supplier<Map<?, ?>> factory, List<String> names, int threads, long millis) throws Exception {
+        final Items module = new Items(names);
+        final Field field = AbstractAzResourceModule.class.getDeclaredField("resources");
+        field.setAccessible(true);
+        field.set(module, factory.get());
+        module.list(); // load all resources
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    final ThreadLocalRandom random = ThreadLocalRandom.current();
+                    final long deadline = System.currentTimeMillis() + millis;
+                    final long[] ops = new long[2];
+                    while (((ops[0] + ops[1]) & 0xFF) != 0 || System.currentTimeMillis() < deadline) {
+                        if (random.nextInt(100) == 0) {
+                            module.list();
+                            ops[1]++;
+                        } else {
+                            module.get(names.get(random.nextInt(names.size())), "rg");
+                            ops[0]++;
+                        }
+                    }
+                    return ops;
+                }));
+            }
+            start.countDown();
+            final long[] total = new long[2];
+            for (final Future<long[]> future : futures) {
+                final long[] ops = future.get();
+                total[0] += ops[0];
+                total[1] += ops[1];
+            }
+            if (module.listCachedResources().size() != names.size()) { // all gets must hit the local cache
+                throw new IllegalStateException("resources are not cached: " + module.listCachedResources().size());
+            }
+            return new long[]{total[0] * 1000 / millis, total[1] * 1000 / millis};
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void report(String name, long[] opsPerSecond, int round) {
+        System.out.printf("%s%-32s get: %,12d ops/s  list: %,10d ops/s%n", round == 0 ? "(warmup) " : "", name, opsPerSecond[0], opsPerSecond[1]);
+    }
+
+    /**
+     * {@link AbstractAzResourceModule#get(String, String)} and {@link AbstractAzResourceModule#list()} require an account service.
+     */
+    @SuppressWarnings("unchecked")
+    private static void registerAccount() throws Exception {
+        final Class<?> manager = Class.forName(Azure.class.getName() + "$ServiceManager");
+        final Method getServices = manager.getDeclaredMethod("getServices");
+        getServices.setAccessible(true);
+        final List<AzService> services = (List<AzService>) getServices.invoke(null);
+        services.add(new IAzureAccount() {
+            @Override
+            public IAccount account() {
+                return null;
+            }
+
+            @Override
+            public List<Region> listRegions(String subscriptionId) {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public String getName() {
+                return "account";
+            }
+
+            @Override
+            public void refresh() {
+            }
+        });
+    }
+
+    private static class Item extends AbstractAzResource<Item, AzResource.None, String> {
+        Item(@Nonnull String name, @Nonnull Items module) {
+            super(name, "rg", module);
+        }
+
+        @Nonnull
+        @Override
+        public List<AbstractAzResourceModule<?, ?, ?>> getSubModules() {
+            return Collections.emptyList();
+        }
+
+        @Nonnull
+        @Override
+        public String loadStatus(@Nonnull String remote) {
+            return Status.RUNNING;
+        }
+    }
+
+    private static class Items extends AbstractAzResourceModule<Item, AzResource.None, String> {
+        private final List<String> names;
+
+        Items(@Nonnull List<String> names) {
+            super("items", AzResource.NONE);
+            this.names = names;
+        }
+
+        @Nonnull
+        @Override
+        protected Iterator<? extends ContinuablePage<String, String>> loadResourcePagesFromAzure() {
+            return Collections.singletonList(new ItemPage<>(this.names.stream())).iterator();
+        }
+
+        @Nonnull
+        @Override
+        protected Item newResource(@Nonnull String remote) {
+            return new Item(remote, this);
+        }
+
+        @Nonnull
+        @Override
+        protected Item newResource(@Nonnull String name, @Nullable String resourceGroupName) {
+            return new Item(name, this);
+        }
+
+        @Override
+        protected void addResourceToLocalResourceGroup(@Nonnull String id, @Nonnull Item resource, boolean... silent) {
+            // not an ARM resource
+        }
+
+        @Nullable
+        @Override
+        protected Object getClient() {
+            return null;
+        }
+
+        @Nonnull
+        @Override
+        public String getResourceTypeName() {
+            return "Item";
+        }
+    }
+}
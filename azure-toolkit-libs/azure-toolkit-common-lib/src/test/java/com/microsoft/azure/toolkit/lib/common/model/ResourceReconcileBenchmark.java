@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model;
+
+import com.azure.core.util.paging.ContinuablePage;
+import com.azure.resourcemanager.resources.fluentcore.model.HasInnerModel;
+import com.google.common.collect.Sets;
+import com.microsoft.azure.toolkit.lib.common.model.page.ItemPage;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
+import org.apache.commons.lang3.tuple.Pair;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * microbenchmark of reloading a module whose resources are all unchanged, comparing the reconciliation before
+ * fingerprints were introduced (rebuilding id sets and refreshing every resource) with the incremental one, with and
+ * without {@link AbstractAzResourceModule#getInnerModelFingerprint(HasInnerModel) fingerprints}. not run by surefire,
+ * run with {@code main(iterations, sizes...)}, e.g. {@code main(20, 1000, 10000, 50000)}. pooled tasks run inline, so
+ * the cost of refreshing resources is included.
+ */
+public class ResourceReconcileBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        final int[] sizes = args.length > 1 ? Arrays.stream(args).skip(1).mapToInt(Integer::parseInt).toArray() : new int[]{1000, 10000, 50000};
+        AzureTaskManager.register(new InlineTaskManager());
+        for (final int size : sizes) {
+            final List<Remote> remotes = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                remotes.add(new Remote(String.format("resource-%05d", i), "etag-" + i));
+            }
+            for (int round = 0; round < 3; round++) { // the first round warms up
+                final String prefix = round == 0 ? "(warmup) " : "";
+                measure(prefix + "legacy", new Items(remotes, false), iterations, ResourceReconcileBenchmark::legacyReload);
+                measure(prefix + "incremental", new Items(remotes, false), iterations, ResourceReconcileBenchmark::reload);
+                measure(prefix + "incremental+fingerprint", new Items(remotes, true), iterations, ResourceReconcileBenchmark::reload);
+            }
+        }
+    }
+
+    private static void measure(String name, Items module, int iterations, Reload reload) throws Exception {
+        reload(module); // all resources are added
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            reload.reload(module);
+        }
+        final long micros = (System.nanoTime() - start) / 1000 / iterations;
+        System.out.printf("%-36s %,10d us/reload (%d resources)%n", name, micros, module.listCachedResources().size());
+    }
+
+    private static void reload(Items module) throws Exception {
+        final Method reload = AbstractAzResourceModule.class.getDeclaredMethod("reloadResources");
+        reload.setAccessible(true);
+        reload.invoke(module);
+    }
+
+    /**
+     * reload and reconcile as before fingerprints were introduced.
+     */
+    @SuppressWarnings("unchecked")
+    private static void legacyReload(Items module) throws Exception {
+        final Field field = AbstractAzResourceModule.class.getDeclaredField("resources");
+        field.setAccessible(true);
+        final Map<String, Optional<Item>> resources = (Map<String, Optional<Item>>) field.get(module);
+        final ContinuablePage<String, Remote> page = module.loadResourcePagesFromAzure().next();
+        final Map<String, Remote> loadedResources = page.getElements().stream()
+            .collect(Collectors.toMap(r -> module.newResource(r).getId().toLowerCase(), r -> r));
+        final Set<String> localResources = resources.values().stream().filter(Optional::isPresent).map(Optional::get)
+            .map(AbstractAzResource::getId).map(String::toLowerCase).collect(Collectors.toSet());
+        final Set<String> creating = resources.values().stream().filter(Optional::isPresent).map(Optional::get)
+            .filter(AbstractAzResource::isDraftForCreating)
+            .map(AbstractAzResource::getId).map(String::toLowerCase).collect(Collectors.toSet());
+        final Sets.SetView<String> refreshed = Sets.intersection(localResources, loadedResources.keySet());
+        final Sets.SetView<String> deleted = Sets.difference(Sets.difference(localResources, loadedResources.keySet()), creating);
+        final Sets.SetView<String> added = Sets.difference(loadedResources.keySet(), localResources);
+        deleted.forEach(id -> resources.getOrDefault(id, Optional.empty()).ifPresent(r -> {
+            r.deleteFromCache();
+            r.setRemote(null);
+        }));
+        final AzureTaskManager m = AzureTaskManager.getInstance();
+        refreshed.forEach(id -> resources.getOrDefault(id, Optional.empty()).ifPresent(r -> m.runOnPooledThread(() -> r.setRemote(loadedResources.get(id)))));
+        added.stream().map(loadedResources::get).map(r -> Pair.of(r, module.newResource(r)))
+            .sorted(Comparator.comparing(p -> p.getValue().getName()))
+            .forEach(p -> {
+                m.runOnPooledThread(() -> p.getValue().setRemote(p.getKey()));
+                module.addResourceToLocal(p.getValue().getId(), p.getValue(), true);
+            });
+    }
+
+    @FunctionalInterface
+    private interface Reload {
+        void reload(Items module) throws Exception;
+    }
+
+    /**
+     * stands for an inner model deserialized from ARM responses.
+     */
+    public static class RemoteInner {
+        public String name;
+        public String etag;
+        public String sku = "Standard_LRS";
+        public String provisioningState = "Succeeded";
+        public Map<String, String> tags = new TreeMap<>(Collections.singletonMap("env", "dev"));
+    }
+
+    private static class Remote implements HasInnerModel<RemoteInner> {
+        private final RemoteInner inner = new RemoteInner();
+
+        Remote(@Nonnull String name, @Nonnull String etag) {
+            this.inner.name = name;
+            this.inner.etag = etag;
+        }
+
+        @Override
+        public RemoteInner innerModel() {
+            return this.inner;
+        }
+    }
+
+    private static class Item extends AbstractAzResource<Item, AzResource.None, Remote> {
+        Item(@Nonnull String name, @Nonnull Items module) {
+            super(name, module);
+        }
+
+        @Nonnull
+        @Override
+        public List<AbstractAzResourceModule<?, ?, ?>> getSubModules() {
+            return Collections.emptyList();
+        }
+
+        @Nonnull
+        @Override
+        public String loadStatus(@Nonnull Remote remote) {
+            return Status.RUNNING;
+        }
+    }
+
+    private static class Items extends AbstractAzResourceModule<Item, AzResource.None, Remote> {
+        private final List<Remote> remotes;
+        private final boolean fingerprint;
+
+        Items(@Nonnull List<Remote> remotes, boolean fingerprint) {
+            super("items", AzResource.NONE);
+            this.remotes = remotes;
+            this.fingerprint = fingerprint;
+        }
+
+        @Nonnull
+        @Override
+        protected Iterator<? extends ContinuablePage<String, Remote>> loadResourcePagesFromAzure() {
+            // every listing returns new instances, like deserialized responses do.
+            final Stream<Remote> remotes = this.remotes.stream().map(r -> new Remote(r.inner.name, r.inner.etag));
+            return Collections.singletonList(new ItemPage<>(remotes)).iterator();
+        }
+
+        @Nullable
+        @Override
+        protected Object getRemoteFingerprint(@Nonnull Remote remote) {
+            return this.fingerprint ? getInnerModelFingerprint(remote) : null;
+        }
+
+        @Nonnull
+        @Override
+        protected Item newResource(@Nonnull Remote remote) {
+            return new Item(remote.inner.name, this);
+        }
+
+        @Nonnull
+        @Override
+        protected Item newResource(@Nonnull String name, @Nullable String resourceGroupName) {
+            return new Item(name, this);
+        }
+
+        @Override
+        protected void addResourceToLocalResourceGroup(@Nonnull String id, @Nonnull Item resource, boolean... silent) {
+            // not an ARM resource
+        }
+
+        @Nullable
+        @Override
+        protected Object getClient() {
+            return null;
+        }
+
+        @Nonnull
+        @Override
+        public String getResourceTypeName() {
+            return "Item";
+        }
+    }
+
+    static class InlineTaskManager extends AzureTaskManager {
+        @Override
+        protected void doRead(Runnable runnable, AzureTask<?> task) {
+            runnable.run();
+        }
+
+        @Override
+        protected void doWrite(Runnable runnable, AzureTask<?> task) {
+            runnable.run();
+        }
+
+        @Override
+        protected void doRunLater(Runnable runnable, AzureTask<?> task) {
+            runnable.run();
+        }
+
+        @Override
+        protected void doRunOnPooledThread(Runnable runnable, AzureTask<?> task) {
+            runnable.run();
+        }
+
+        @Override
+        protected void doRunAndWait(Runnable runnable, AzureTask<?> task) {
+            runnable.run();
+        }
+
+        @Override
+        protected void doRunInBackground(Runnable runnable, AzureTask<?> task) {
+            runnable.run();
+        }
+
+        @Override
+        protected void doRunInModal(Runnable runnable, AzureTask<?> task) {
+            runnable.run();
+        }
+    }
+}
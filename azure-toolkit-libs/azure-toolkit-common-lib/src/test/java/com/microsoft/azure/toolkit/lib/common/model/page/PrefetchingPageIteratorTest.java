@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.model.page;
+
+import com.azure.core.util.paging.ContinuablePage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PrefetchingPageIteratorTest {
+
+    @Test
+    public void keepPageOrder() {
+        final Pages pages = new Pages(20, 0);
+        final PrefetchingPageIterator<String, Integer> iterator = new PrefetchingPageIterator<>(pages, 3);
+        final List<Integer> elements = new ArrayList<>();
+        while (iterator.hasNext()) {
+            iterator.next().getElements().forEach(elements::add);
+        }
+        Assert.assertEquals(20, elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            Assert.assertEquals(Integer.valueOf(i), elements.get(i));
+        }
+        Assert.assertFalse(iterator.hasNext());
+        try {
+            iterator.next();
+            Assert.fail("should throw at the end");
+        } catch (final NoSuchElementException ignored) {
+        }
+    }
+
+    @Test
+    public void prefetchInBackground() throws InterruptedException {
+        final Pages pages = new Pages(10, 0);
+        final PrefetchingPageIterator<String, Integer> iterator = new PrefetchingPageIterator<>(pages, 2);
+        Assert.assertEquals(Integer.valueOf(0), iterator.next().getElements().iterator().next());
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (pages.fetched.get() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals("next 2 pages should be prefetched without being asked", 3, pages.fetched.get());
+        Thread.sleep(100);
+        Assert.assertEquals("no more than depth pages should be prefetched", 3, pages.fetched.get());
+    }
+
+    @Test
+    public void noPrefetchWithoutDepth() {
+        final Pages pages = new Pages(3, 0);
+        final PrefetchingPageIterator<String, Integer> iterator = new PrefetchingPageIterator<>(pages, 0);
+        Assert.assertTrue(iterator.hasNext());
+        iterator.next();
+        Assert.assertEquals(1, pages.fetched.get());
+    }
+
+    @Test
+    public void propagateFailures() {
+        final Pages pages = new Pages(5, 2);
+        final PrefetchingPageIterator<String, Integer> iterator = new PrefetchingPageIterator<>(pages, 3);
+        iterator.next();
+        iterator.next();
+        try {
+            iterator.next();
+            Assert.fail("failure of fetching a page should be thrown to the caller");
+        } catch (final IllegalStateException e) {
+            Assert.assertEquals("page 2", e.getMessage());
+        }
+    }
+
+    @Test
+    public void reportFailureOnce() {
+        final Pages pages = new Pages(5, 1);
+        final PrefetchingPageIterator<String, Integer> iterator = new PrefetchingPageIterator<>(pages, 3);
+        iterator.next();
+        try {
+            iterator.hasNext();
+            Assert.fail("failure of fetching a page should be thrown to the caller");
+        } catch (final IllegalStateException e) {
+            Assert.assertEquals("page 1", e.getMessage());
+        }
+        Assert.assertFalse("iteration should be over after the failure is reported", iterator.hasNext());
+        try {
+            iterator.next();
+            Assert.fail("should throw at the end");
+        } catch (final NoSuchElementException ignored) {
+        }
+    }
+
+    private static class Pages implements Iterator<ContinuablePage<String, Integer>> {
+        private final int count;
+        private final int failAt;
+        private final AtomicInteger fetched = new AtomicInteger();
+
+        /**
+         * @param failAt index of the page failing to be fetched, no failure if it's not in range.
+         */
+        Pages(int count, int failAt) {
+            this.count = count;
+            this.failAt = failAt == 0 ? -1 : failAt;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.fetched.get() < this.count;
+        }
+
+        @Override
+        public ContinuablePage<String, Integer> next() {
+            final int index = this.fetched.getAndIncrement();
+            if (index >= this.count) {
+                throw new NoSuchElementException();
+            }
+            if (index == this.failAt) {
+                throw new IllegalStateException("page " + index);
+            }
+            return new ItemPage<>(Collections.singletonList(index));
+        }
+    }
+}
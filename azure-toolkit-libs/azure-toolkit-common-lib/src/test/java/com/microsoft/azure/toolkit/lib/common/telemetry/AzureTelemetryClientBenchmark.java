@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.telemetry;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * microbenchmark of the caller side cost of {@link AzureTelemetryClient#trackEvent}: queued and sent in batches in
+ * background, against scrubbing, tracking and flushing every event on the caller thread as it used to (emulated by
+ * {@link AzureTelemetryClient#flush()} after each event). not run by surefire, run with {@code main(events)}.
+ * no instrumentation key is configured, so nothing leaves the machine.
+ */
+public class AzureTelemetryClientBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final int events = args.length > 0 ? Integer.parseInt(args[0]) : 800; // below the queue capacity, so nothing is dropped
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(AzureTelemeter.OP_TYPE, "user");
+        properties.put("resourceId", "/subscriptions/00000000-0000-0000-0000-000000000000/resourceGroups/rg/providers/Microsoft.Web/sites/app");
+        properties.put("error.message", "failed to read C:\\Users\\someone\\project\\target\\app.jar: permission denied");
+        for (int round = 0; round < 3; round++) { // the first round warms up
+            final String prefix = round == 0 ? "(warmup) " : "";
+            measure(prefix + "synchronous", events, properties, true);
+            measure(prefix + "queued", events, properties, false);
+        }
+    }
+
+    private static void measure(String name, int events, Map<String, String> properties, boolean synchronous) {
+        final AzureTelemetryClient client = new AzureTelemetryClient();
+        final long start = System.nanoTime();
+        for (int i = 0; i < events; i++) {
+            client.trackEvent("azure-toolkit/webapp.deploy/" + AzureTelemetry.Type.OP_END.name(), properties);
+            if (synchronous) {
+                client.flush();
+            }
+        }
+        final long nanos = (System.nanoTime() - start) / events;
+        client.flush();
+        System.out.printf("%-24s %,8d ns/event on caller (queued %d, dropped %d, sent %d)%n", name, nanos,
+            client.getQueuedCount(), client.getDroppedCount(), client.getSentCount());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.utils;
+
+import com.microsoft.azure.toolkit.lib.common.utils.StreamingLogReader.LogLine;
+import io.netty.buffer.Unpooled;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+public class StreamingLogReaderTest {
+
+    @Test
+    public void parseTimestamp() {
+        Assert.assertEquals(Instant.parse("2023-01-01T08:00:00.123Z"), StreamingLogReader.parseTimestamp("2023-01-01 08:00:00.123 INFO started"));
+        Assert.assertEquals(Instant.parse("2023-01-01T00:00:00Z"), StreamingLogReader.parseTimestamp("2023-01-01T08:00:00+08:00 started"));
+        Assert.assertEquals(Instant.parse("2023-01-01T08:00:00.5Z"), StreamingLogReader.parseTimestamp("2023-01-01 08:00:00,5Z started"));
+        Assert.assertNull(StreamingLogReader.parseTimestamp("\tat com.example.Main.main(Main.java:1)"));
+        Assert.assertNull(StreamingLogReader.parseTimestamp("short"));
+    }
+
+    @Test
+    public void frameLinesAcrossChunks() {
+        final StreamingLogReader.LineFramer framer = new StreamingLogReader.LineFramer();
+        final List<String> lines = new ArrayList<>();
+        lines.addAll(framer.feed(Unpooled.copiedBuffer("first\r\nsec", StandardCharsets.UTF_8)));
+        lines.addAll(framer.feed(Unpooled.copiedBuffer("ond\nthi", StandardCharsets.UTF_8)));
+        lines.addAll(framer.feed(Unpooled.copiedBuffer("rd", StandardCharsets.UTF_8)));
+        lines.add(framer.flush());
+        Assert.assertEquals(Arrays.asList("first", "second", "third"), lines);
+        Assert.assertNull(framer.flush());
+    }
+
+    @Test
+    public void reorderAcrossBatchBoundaries() {
+        final AtomicLong now = new AtomicLong();
+        final StreamingLogReader.ReorderWindow window = new StreamingLogReader.ReorderWindow(Duration.ofNanos(100), 1024, now::get);
+        final List<LogLine> released = new ArrayList<>();
+        released.addAll(window.offer(line("a", 3)));
+        now.set(60);
+        released.addAll(window.offer(line("b", 1)));
+        now.set(120); // line 3 is held for the whole window, line 1 arrived later but is ordered before it.
+        released.addAll(window.release());
+        Assert.assertEquals(Arrays.asList(1, 3), seconds(released));
+        released.clear();
+        released.addAll(window.offer(line("a", 2))); // arrives 60ns after line 1, still in its window
+        now.set(150);
+        released.addAll(window.offer(line("b", 4)));
+        now.set(250);
+        released.addAll(window.release());
+        Assert.assertEquals(Arrays.asList(2, 4), seconds(released));
+        Assert.assertEquals(0, window.size());
+    }
+
+    @Test
+    public void releaseWhenTooManyLinesAreHeld() {
+        final StreamingLogReader.ReorderWindow window = new StreamingLogReader.ReorderWindow(Duration.ofHours(1), 3, () -> 0);
+        final List<LogLine> released = new ArrayList<>();
+        for (int i = 5; i > 0; i--) {
+            released.addAll(window.offer(line("a", i)));
+        }
+        Assert.assertTrue(window.size() <= 3);
+        released.addAll(window.drain());
+        Assert.assertEquals(5, released.size());
+        Assert.assertEquals(0, window.size());
+    }
+
+    @Test
+    public void keepArrivalOrderOfEqualLines() {
+        final StreamingLogReader.ReorderWindow window = new StreamingLogReader.ReorderWindow(Duration.ofHours(1), 1024, () -> 0);
+        final Instant time = Instant.ofEpochSecond(1);
+        window.offer(new LogLine("a", time, "exception"));
+        window.offer(new LogLine("a", time, "\tat frame 1"));
+        window.offer(new LogLine("a", time, "\tat frame 2"));
+        Assert.assertEquals(Arrays.asList("exception", "\tat frame 1", "\tat frame 2"),
+            window.drain().stream().map(LogLine::getText).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void mergeStreams() {
+        final Map<String, Flux<String>> streams = new LinkedHashMap<>();
+        streams.put("a", Flux.just("2023-01-01 08:00:01 a1", "2023-01-01 08:00:03 a3", "\tat a3 frame"));
+        streams.put("b", Flux.just("2023-01-01 08:00:02 b2", "2023-01-01 08:00:04 b4"));
+        final List<String> merged = StreamingLogReader.merge(streams, Duration.ofSeconds(1))
+            .map(LogLine::getText).collectList().block(Duration.ofSeconds(10));
+        Assert.assertEquals(Arrays.asList("2023-01-01 08:00:01 a1", "2023-01-01 08:00:02 b2", "2023-01-01 08:00:03 a3", "\tat a3 frame",
+            "2023-01-01 08:00:04 b4"), merged);
+    }
+
+    @Test
+    public void dropOldestLinesForSlowSubscriber() {
+        final Map<String, Flux<String>> streams = new LinkedHashMap<>();
+        final int total = StreamingLogReader.MAX_PENDING_LINES * 5;
+        // lines are emitted much faster than the subscriber requests them.
+        streams.put("a", Flux.range(0, total).map(i -> "line " + i));
+        final AtomicBoolean first = new AtomicBoolean(true);
+        final List<LogLine> received = StreamingLogReader.merge(streams, Duration.ofMillis(50))
+            .publishOn(Schedulers.single(), 1)
+            .doOnNext(l -> {
+                if (first.getAndSet(false)) {
+                    sleep(200);
+                }
+            })
+            .collectList().block(Duration.ofSeconds(10));
+        Assert.assertNotNull(received);
+        Assert.assertTrue("lines should be dropped instead of buffered without bound", received.size() < StreamingLogReader.MAX_PENDING_LINES * 2);
+        Assert.assertEquals("the latest line should be kept", "line " + (total - 1), received.get(received.size() - 1).getText());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static LogLine line(String source, int second) {
+        return new LogLine(source, Instant.ofEpochSecond(second), String.valueOf(second));
+    }
+
+    private static List<Integer> seconds(List<LogLine> lines) {
+        return lines.stream().map(l -> Integer.parseInt(l.getText())).collect(Collectors.toList());
+    }
+}
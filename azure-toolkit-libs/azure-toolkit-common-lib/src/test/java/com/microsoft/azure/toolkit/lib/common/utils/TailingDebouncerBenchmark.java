@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.utils;
+
+import rx.Observable;
+import rx.Subscription;
+import rx.schedulers.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * microbenchmark of bursts of {@link Debouncer#debounce()}, like cache invalidations of many modules, on
+ * {@link TailingDebouncer} against the Rx timer per call it replaced. not run by surefire, run with
+ * {@code main(debouncers, bursts)}.
+ */
+public class TailingDebouncerBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final int count = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        final int bursts = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        for (int round = 0; round < 3; round++) { // the first round warms up
+            final String prefix = round == 0 ? "(warmup) " : "";
+            measure(prefix + "rx timer", r -> new RxTimerDebouncer(r, 100), count, bursts);
+            measure(prefix + "TailingDebouncer", r -> new TailingDebouncer(r, 100), count, bursts);
+        }
+    }
+
+    private static void measure(String name, Function<Runnable, Debouncer> factory, int count, int bursts) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(count);
+        final List<Debouncer> debouncers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            debouncers.add(factory.apply(latch::countDown));
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < bursts; i++) {
+            debouncers.forEach(Debouncer::debounce);
+        }
+        final long nanos = (System.nanoTime() - start) / ((long) count * bursts);
+        final boolean completed = latch.await(30, TimeUnit.SECONDS);
+        System.out.printf("%-28s %,8d ns/debounce, all run once: %s%n", name, nanos, completed);
+    }
+
+    /**
+     * the debouncer before {@link TimingWheel}, kept here as the baseline.
+     */
+    private static class RxTimerDebouncer implements Debouncer {
+        private final Runnable debounced;
+        private final int delay;
+        private Subscription timer;
+
+        RxTimerDebouncer(Runnable debounced, int delayInMillis) {
+            this.debounced = debounced;
+            this.delay = delayInMillis;
+        }
+
+        @Override
+        public synchronized void debounce() {
+            if (this.isPending()) {
+                this.timer.unsubscribe();
+            }
+            this.timer = Observable.timer(this.delay, TimeUnit.MILLISECONDS)
+                .subscribeOn(Schedulers.io())
+                .subscribe(ignore -> {
+                    this.debounced.run();
+                    this.clearTimer();
+                }, (e) -> this.clearTimer());
+        }
+
+        @Override
+        public synchronized boolean isPending() {
+            return Objects.nonNull(this.timer) && !this.timer.isUnsubscribed();
+        }
+
+        private synchronized void clearTimer() {
+            this.timer = null;
+        }
+    }
+}
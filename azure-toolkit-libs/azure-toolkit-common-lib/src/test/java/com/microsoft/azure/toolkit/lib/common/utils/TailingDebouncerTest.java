@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TailingDebouncerTest {
+
+    @Test
+    public void runOnceAfterDelay() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicLong ranAt = new AtomicLong();
+        final TailingDebouncer debouncer = new TailingDebouncer(() -> {
+            ranAt.set(System.nanoTime());
+            latch.countDown();
+        }, 100);
+        final long start = System.nanoTime();
+        debouncer.debounce();
+        Assert.assertTrue(debouncer.isPending());
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(ranAt.get() - start) >= 100);
+        waitUntilIdle(debouncer);
+    }
+
+    @Test
+    public void postponeOnDebounce() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicInteger runs = new AtomicInteger();
+        final AtomicLong ranAt = new AtomicLong();
+        final TailingDebouncer debouncer = new TailingDebouncer(() -> {
+            ranAt.set(System.nanoTime());
+            runs.incrementAndGet();
+            latch.countDown();
+        }, 100);
+        long last = 0;
+        for (int i = 0; i < 10; i++) {
+            debouncer.debounce();
+            last = System.nanoTime();
+            Thread.sleep(30);
+        }
+        Assert.assertEquals("should not run while being debounced", 0, runs.get());
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        waitUntilIdle(debouncer);
+        Thread.sleep(200);
+        Assert.assertEquals(1, runs.get());
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(ranAt.get() - last) >= 100);
+    }
+
+    @Test
+    public void cancel() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicInteger runs = new AtomicInteger();
+        final TailingDebouncer debouncer = new TailingDebouncer(() -> {
+            runs.incrementAndGet();
+            latch.countDown();
+        }, 50);
+        debouncer.debounce();
+        debouncer.cancel();
+        Assert.assertFalse(debouncer.isPending());
+        Thread.sleep(200);
+        Assert.assertEquals(0, runs.get());
+
+        debouncer.debounce(); // re-armed after being cancelled
+        Assert.assertTrue(debouncer.isPending());
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        Assert.assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void manyDebouncers() throws InterruptedException {
+        final int count = 1000;
+        final CountDownLatch latch = new CountDownLatch(count);
+        final AtomicInteger runs = new AtomicInteger();
+        final List<TailingDebouncer> debouncers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            debouncers.add(new TailingDebouncer(() -> {
+                runs.incrementAndGet();
+                latch.countDown();
+            }, 20 + i % 200));
+        }
+        for (int round = 0; round < 5; round++) {
+            debouncers.forEach(TailingDebouncer::debounce);
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Thread.sleep(300);
+        Assert.assertEquals(count, runs.get());
+    }
+
+    @Test
+    public void survivesFailingTimeouts() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        TimingWheel.instance.schedule(new TimingWheel.Timeout() {
+            private final long deadline = System.nanoTime();
+
+            @Override
+            public long getDeadline() {
+                return this.deadline;
+            }
+
+            @Override
+            public void expire(long deadline) {
+                throw new IllegalStateException("expected");
+            }
+        });
+        new TailingDebouncer(latch::countDown, 50).debounce();
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    private static void waitUntilIdle(TailingDebouncer debouncer) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (debouncer.isPending() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertFalse(debouncer.isPending());
+    }
+}
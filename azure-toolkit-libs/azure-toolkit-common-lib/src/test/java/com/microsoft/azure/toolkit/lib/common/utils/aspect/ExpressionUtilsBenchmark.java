@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.utils.aspect;
+
+import com.microsoft.azure.toolkit.lib.common.cache.CacheManager;
+import com.microsoft.azure.toolkit.lib.common.cache.Cacheable;
+
+import java.util.function.Supplier;
+
+/**
+ * microbenchmark of cache hits of {@link CacheManager#aroundCacheable}, whose cost is dominated by rendering the cache
+ * name/key templates with {@link ExpressionUtils}. methods of {@link Service} are woven by ajc as in production.
+ * not run by surefire, run with {@code main(iterations)}.
+ */
+public class ExpressionUtilsBenchmark {
+
+    public static void main(String[] args) {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        final Service service = new Service("/subscriptions/0000/vm");
+        final Region region = new Region("eastus");
+        for (int round = 0; round < 3; round++) { // the first round warms up
+            final String prefix = round == 0 ? "(warmup) " : "";
+            measure(prefix + "aroundCacheable(literal)", iterations, () -> service.listPublishers("0000", region));
+            measure(prefix + "aroundCacheable(simple)", iterations, () -> service.listSizes("0000", region));
+            measure(prefix + "aroundCacheable(groovy)", iterations, () -> service.listRegions("0000", region));
+        }
+    }
+
+    private static void measure(String name, int iterations, Supplier<String> call) {
+        String result = null;
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            result = call.get();
+        }
+        final long nanos = (System.nanoTime() - start) / iterations;
+        System.out.printf("%-36s %,10d ns/op (%s)%n", name, nanos, result);
+    }
+
+    public static class Region {
+        private final String name;
+
+        Region(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+    }
+
+    /**
+     * templates are the same as real usages, e.g. {@code AzureCompute}, {@code AzureAccount}.
+     */
+    public static class Service {
+        private final String id;
+
+        Service(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return this.id;
+        }
+
+        @Cacheable(cacheName = "benchmark/{}/publishers", key = "<cache>")
+        public String listPublishers(String subscriptionId, Region region) {
+            return "publishers";
+        }
+
+        @Cacheable(cacheName = "benchmark/{}/sizes", key = "${subscriptionId}/${region.getName()}")
+        public String listSizes(String subscriptionId, Region region) {
+            return "sizes";
+        }
+
+        @Cacheable(cacheName = "benchmark/{}/regions", key = "$subscriptionId")
+        public String listRegions(String subscriptionId, Region region) {
+            return "regions";
+        }
+    }
+}
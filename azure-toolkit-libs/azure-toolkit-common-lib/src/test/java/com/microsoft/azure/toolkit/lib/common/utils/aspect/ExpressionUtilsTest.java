@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.common.utils.aspect;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ExpressionUtilsTest {
+
+    @Test
+    public void renderPropertyChains() {
+        final MethodInvocation invocation = invocation(new Target("app"), "deploy", new Target("slot"), "dev");
+        Assert.assertEquals("deploy slot to app(dev)", ExpressionUtils.render("deploy ${target.name} to ${this.getName()}(${env})", invocation));
+        Assert.assertEquals("SLOT", ExpressionUtils.render("${target.name.toUpperCase()}", invocation));
+    }
+
+    @Test
+    public void fallbackToGroovy() {
+        final MethodInvocation invocation = invocation(new Target("app"), "deploy", new Target("slot"), "dev");
+        Assert.assertEquals("slot-dev", ExpressionUtils.render("${target.name + '-' + env}", invocation));
+        Assert.assertEquals("null", ExpressionUtils.render("${target.parent?.name}", invocation));
+        Assert.assertTrue(ExpressionUtils.evaluate("env == 'dev'", invocation, false));
+    }
+
+    @Test
+    public void returnTemplateOnAnyError() {
+        final MethodInvocation invocation = invocation(new Target("app"), "deploy", new Target("slot") {
+            @Override
+            public String getName() {
+                throw new IllegalStateException("not loaded");
+            }
+
+            @Override
+            public String toString() {
+                throw new IllegalStateException("not loaded");
+            }
+        }, "dev");
+        Assert.assertEquals("${target}", ExpressionUtils.render("${target}", invocation));
+        Assert.assertEquals("${target.name}", ExpressionUtils.render("${target.name}", invocation));
+        Assert.assertEquals("${env.", ExpressionUtils.render("${env.", invocation));
+    }
+
+    @Test
+    public void invokeGettersOnce() {
+        final AtomicInteger calls = new AtomicInteger();
+        final MethodInvocation invocation = invocation(new Target("app"), "deploy", new Target("slot") {
+            @Override
+            public String getName() {
+                calls.incrementAndGet();
+                throw new IllegalStateException("not loaded");
+            }
+        }, "dev");
+        Assert.assertEquals("${target.name}(${env})", ExpressionUtils.render("${target.name}(${env})", invocation));
+        Assert.assertEquals(1, calls.get()); // not re-evaluated by groovy
+    }
+
+    @Test
+    public void resolveLinksWithoutAccessorByGroovy() {
+        final MethodInvocation invocation = invocation(new Target("app"), "deploy", new Target("slot"), "dev");
+        Assert.assertEquals("slot-dev", ExpressionUtils.render("${target.labels.env}", invocation));
+        Assert.assertEquals("${target.parent.name}", ExpressionUtils.render("${target.parent.name}", invocation)); // null in the middle
+    }
+
+    static MethodInvocation invocation(Object instance, String method, Object... args) {
+        final Method target = Arrays.stream(Target.class.getMethods()).filter(m -> m.getName().equals(method)).findFirst()
+            .orElseThrow(IllegalArgumentException::new);
+        final MethodSignature signature = (MethodSignature) Proxy.newProxyInstance(MethodSignature.class.getClassLoader(),
+            new Class<?>[]{MethodSignature.class}, (proxy, m, a) -> {
+                switch (m.getName()) {
+                    case "getMethod":
+                        return target;
+                    case "getParameterNames":
+                        return new String[]{"target", "env"};
+                    default:
+                        return null;
+                }
+            });
+        final JoinPoint point = (JoinPoint) Proxy.newProxyInstance(JoinPoint.class.getClassLoader(), new Class<?>[]{JoinPoint.class}, (proxy, m, a) -> {
+            switch (m.getName()) {
+                case "getSignature":
+                    return signature;
+                case "getThis":
+                    return instance;
+                case "getArgs":
+                    return args;
+                default:
+                    return null;
+            }
+        });
+        return new MethodInvocation(point);
+    }
+
+    public static class Target {
+        private final String name;
+
+        Target(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public Target getParent() {
+            return null;
+        }
+
+        public Map<String, String> getLabels() {
+            return Collections.singletonMap("env", this.name + "-dev");
+        }
+
+        public void deploy(Target target, String env) {
+        }
+
+        @Override
+        public String toString() {
+            return this.name;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import com.microsoft.azure.toolkit.lib.common.model.Region;
 import com.microsoft.azure.toolkit.lib.compute.virtualmachine.VirtualMachine;
 import com.microsoft.azure.toolkit.lib.compute.virtualmachine.VirtualMachineModule;
 import com.microsoft.azure.toolkit.lib.compute.virtualmachine.VmImage;
+import com.microsoft.azure.toolkit.lib.compute.virtualmachine.VmImageCatalog;
 import com.microsoft.azure.toolkit.lib.compute.virtualmachine.VmImagePublisher;
 import com.microsoft.azure.toolkit.lib.compute.virtualmachine.VmSize;
 import lombok.extern.slf4j.Slf4j;
@@ -113,6 +114,14 @@ public class AzureCompute extends AbstractAzService<ComputeServiceSubscription,
         return Optional.ofNullable(rm).map(m -> m.listSizes(region)).orElse(Collections.emptyList());
     }
 
+    /**
+     * catalog of all vm images, use {@link #listPublishers} to browse it level by level instead.
+     */
+    @Nonnull
+    public VmImageCatalog imageCatalog() {
+        return VmImageCatalog.getInstance();
+    }
+
     public static List<VmImage> getKnownImages() {
         return images;
     }
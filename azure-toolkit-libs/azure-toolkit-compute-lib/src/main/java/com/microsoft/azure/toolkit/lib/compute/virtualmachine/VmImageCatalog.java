@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.compute.virtualmachine;
+
+import com.azure.core.exception.HttpResponseException;
+import com.azure.resourcemanager.compute.fluent.VirtualMachineImagesClient;
+import com.azure.resourcemanager.compute.fluent.models.VirtualMachineImageInner;
+import com.azure.resourcemanager.compute.fluent.models.VirtualMachineImageResourceInner;
+import com.azure.resourcemanager.compute.models.OSDiskImage;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.common.model.Region;
+import com.microsoft.azure.toolkit.lib.compute.AzureCompute;
+import com.microsoft.azure.toolkit.lib.compute.ComputeServiceSubscription;
+import com.microsoft.azure.toolkit.lib.compute.virtualmachine.VmImageIndex.PublisherEntry;
+import com.microsoft.azure.toolkit.lib.compute.virtualmachine.VmImageIndex.SkuEntry;
+import com.microsoft.azure.toolkit.lib.compute.virtualmachine.model.OperatingSystem;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * vm image catalog of regions, crawled(publishers -> offers -> skus -> versions) with bounded parallelism and kept in
+ * a local {@link VmImageIndex} per subscription and region(images available differ between subscriptions, e.g. marketplace
+ * offers), so that queries are answered without network calls until the index expires.
+ * throttled requests are retried with backoff, publishers failed anyway are marked incomplete in the index and
+ * re-crawled after {@link #INCOMPLETE_TTL}.
+ */
+@Slf4j
+public class VmImageCatalog {
+    public static final Duration DEFAULT_TTL = Duration.ofDays(7);
+    public static final Duration INCOMPLETE_TTL = Duration.ofHours(1);
+    private static final int MAX_RETRIES = 5;
+    private static final Duration MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Path DEFAULT_DIR = Paths.get(System.getProperty("user.home"), ".azure", "azure-toolkit", "vm-images");
+    // requests in flight are at most concurrency * OFFER_CONCURRENCY * SKU_CONCURRENCY
+    private static final int OFFER_CONCURRENCY = 4;
+    private static final int SKU_CONCURRENCY = 4;
+    private static final VmImageCatalog instance = new VmImageCatalog(DEFAULT_DIR);
+
+    private final Path dir;
+    private final Map<String, VmImageIndex> indexes = new ConcurrentHashMap<>(); // keyed by "{subscription}/{region}"
+    private final Map<String, Object> locks = new ConcurrentHashMap<>(); // crawls of different keys run in parallel
+    /**
+     * max number of publishers crawled at the same time.
+     */
+    @Getter
+    @Setter
+    private int concurrency = 8;
+    @Getter
+    @Setter
+    private Duration ttl = DEFAULT_TTL;
+
+    private VmImageCatalog(@Nonnull Path dir) {
+        this.dir = dir;
+    }
+
+    public static VmImageCatalog getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return index of the {@code region}, crawled with {@code subscriptionId} if absent or expired.
+     */
+    @Nonnull
+    public VmImageIndex getIndex(@Nonnull String subscriptionId, @Nonnull Region region) {
+        final VmImageIndex index = this.getLocalIndex(subscriptionId, region);
+        if (Objects.nonNull(index) && !this.isExpired(index)) {
+            return index;
+        }
+        synchronized (this.getLock(subscriptionId, region)) {
+            final VmImageIndex current = this.getLocalIndex(subscriptionId, region); // may be crawled meanwhile
+            if (Objects.nonNull(current) && !this.isExpired(current)) {
+                return current;
+            }
+            if (Objects.nonNull(current) && System.currentTimeMillis() - current.getCrawledAt() <= this.ttl.toMillis()) { // incomplete
+                return this.crawl(subscriptionId, region, current);
+            }
+            return this.crawl(subscriptionId, region);
+        }
+    }
+
+    /**
+     * @return local index of the {@code region} crawled with {@code subscriptionId} (possibly expired), null if never crawled.
+     */
+    @Nullable
+    public VmImageIndex getLocalIndex(@Nonnull String subscriptionId, @Nonnull Region region) {
+        final String key = getKey(subscriptionId, region);
+        return Optional.ofNullable(this.indexes.get(key)).orElseGet(() -> {
+            final VmImageIndex index = VmImageIndex.read(this.dir.resolve(key));
+            Optional.ofNullable(index).ifPresent(i -> this.indexes.put(key, i));
+            return index;
+        });
+    }
+
+    public boolean isExpired(@Nonnull VmImageIndex index) {
+        final long now = System.currentTimeMillis();
+        return now - index.getCrawledAt() > this.ttl.toMillis() ||
+            (!index.isComplete() && now - index.getRefreshedAt() > INCOMPLETE_TTL.toMillis());
+    }
+
+    @Nonnull
+    public List<VmImage> findImages(@Nonnull String subscriptionId, @Nonnull Region region, @Nonnull VmImageIndex.Query query) {
+        return this.getIndex(subscriptionId, region).findImages(query);
+    }
+
+    @Nullable
+    public VmImage findLatest(@Nonnull String subscriptionId, @Nonnull Region region, @Nonnull VmImageIndex.Query query) {
+        return this.getIndex(subscriptionId, region).findLatest(query);
+    }
+
+    /**
+     * crawl the whole catalog of the {@code region} and replace its index.
+     */
+    @Nonnull
+    public VmImageIndex crawl(@Nonnull String subscriptionId, @Nonnull Region region) {
+        return this.crawl(subscriptionId, region, null);
+    }
+
+    /**
+     * re-list offers of all publishers and re-crawl only the publishers which are new, incomplete or whose offers
+     * changed, skus and versions of the other publishers are kept until the next full crawl. it's a full crawl if never
+     * crawled.
+     */
+    @Nonnull
+    public VmImageIndex refresh(@Nonnull String subscriptionId, @Nonnull Region region) {
+        synchronized (this.getLock(subscriptionId, region)) {
+            return this.crawl(subscriptionId, region, this.getLocalIndex(subscriptionId, region));
+        }
+    }
+
+    @Nonnull
+    private VmImageIndex crawl(@Nonnull String subscriptionId, @Nonnull Region region, @Nullable VmImageIndex previous) {
+        synchronized (this.getLock(subscriptionId, region)) {
+            return this.doCrawl(subscriptionId, region, previous);
+        }
+    }
+
+    @Nonnull
+    private VmImageIndex doCrawl(@Nonnull String subscriptionId, @Nonnull Region region, @Nullable VmImageIndex previous) {
+        final VirtualMachineImagesClient client = getClient(subscriptionId);
+        final String location = region.getName();
+        final long start = System.currentTimeMillis();
+        final Map<String, PublisherEntry> publishers = retryOnThrottling(client.listPublishersAsync(location))
+            .flatMapIterable(l -> l)
+            .map(VirtualMachineImageResourceInner::name)
+            .flatMap(publisher -> this.crawlPublisher(client, location, publisher, previous), this.concurrency)
+            .collectMap(PublisherEntry::getName, p -> p, () -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER))
+            .block();
+        final long crawledAt = Objects.isNull(previous) ? start : previous.getCrawledAt();
+        final VmImageIndex index = new VmImageIndex(location, crawledAt, start, Objects.requireNonNull(publishers));
+        final String key = getKey(subscriptionId, region);
+        this.indexes.put(key, index);
+        index.write(this.dir.resolve(key));
+        log.debug("crawled {} publishers/{} skus of vm images in {} within {}ms", publishers.size(), index.getSkuCount(), location, System.currentTimeMillis() - start);
+        if (!index.isComplete()) {
+            final long failed = publishers.values().stream().filter(p -> !p.isComplete()).count();
+            log.warn("failed to crawl vm images of {} publisher(s) in {}, they will be re-crawled after {}", failed, location, INCOMPLETE_TTL);
+        }
+        return index;
+    }
+
+    @Nonnull
+    private Mono<PublisherEntry> crawlPublisher(@Nonnull VirtualMachineImagesClient client, @Nonnull String location, @Nonnull String publisher, @Nullable VmImageIndex previous) {
+        final Optional<PublisherEntry> old = VmImageIndex.getPublisher(previous, publisher);
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        return retryOnThrottling(client.listOffersAsync(location, publisher))
+            .map(l -> l.stream().map(VirtualMachineImageResourceInner::name).sorted().collect(Collectors.toList()))
+            .flatMap(offers -> {
+                if (old.isPresent() && old.get().isComplete() && old.get().getOffers().equals(offers)) {
+                    return Mono.just(old.get());
+                }
+                return Flux.fromIterable(offers)
+                    .flatMap(offer -> this.crawlOffer(client, location, publisher, offer, failed), OFFER_CONCURRENCY)
+                    .collectList()
+                    .map(skus -> new PublisherEntry(publisher, offers, skus, !failed.get()));
+            })
+            .onErrorResume(e -> {
+                if (isNotFound(e)) { // publishers without offers available to the subscription
+                    log.debug("no vm images of publisher {} in {}", publisher, location);
+                    return Mono.empty();
+                }
+                log.debug("failed to crawl vm images of publisher {} in {}", publisher, location, e);
+                return Mono.just(old.map(PublisherEntry::toIncomplete)
+                    .orElseGet(() -> new PublisherEntry(publisher, Collections.emptyList(), Collections.emptyList(), false)));
+            });
+    }
+
+    @Nonnull
+    private Flux<SkuEntry> crawlOffer(@Nonnull VirtualMachineImagesClient client, @Nonnull String location, @Nonnull String publisher, @Nonnull String offer,
+                                      @Nonnull AtomicBoolean failed) {
+        return retryOnThrottling(client.listSkusAsync(location, publisher, offer))
+            .flatMapIterable(l -> l)
+            .map(VirtualMachineImageResourceInner::name)
+            .flatMap(sku -> this.crawlSku(client, location, publisher, offer, sku, failed), SKU_CONCURRENCY)
+            .onErrorResume(e -> {
+                log.debug("failed to crawl vm images of offer {}/{} in {}", publisher, offer, location, e);
+                failed.set(true);
+                return Flux.empty();
+            });
+    }
+
+    /**
+     * list versions of the sku and get details(os and hyper-v generation) of only the latest version.
+     */
+    @Nonnull
+    private Mono<SkuEntry> crawlSku(@Nonnull VirtualMachineImagesClient client, @Nonnull String location, @Nonnull String publisher, @Nonnull String offer,
+                                    @Nonnull String sku, @Nonnull AtomicBoolean failed) {
+        return retryOnThrottling(client.listAsync(location, publisher, offer, sku))
+            .map(l -> VmImageIndex.sortVersions(l.stream().map(VirtualMachineImageResourceInner::name).collect(Collectors.toList())))
+            .flatMap(versions -> {
+                if (versions.isEmpty()) {
+                    return Mono.just(new SkuEntry(publisher, offer, sku, null, null, Collections.emptyList()));
+                }
+                final String latest = versions.get(versions.size() - 1);
+                return retryOnThrottling(client.getAsync(location, publisher, offer, sku, latest))
+                    .map(image -> new SkuEntry(publisher, offer, sku, getOperatingSystem(image), getHyperVGeneration(image), versions))
+                    .onErrorResume(e -> { // versions are kept, but the sku is not queryable until os is known.
+                        log.debug("failed to get vm image {}/{}/{}/{} in {}", publisher, offer, sku, latest, location, e);
+                        failed.set(true);
+                        return Mono.just(new SkuEntry(publisher, offer, sku, null, null, versions));
+                    });
+            })
+            .onErrorResume(e -> {
+                log.debug("failed to crawl vm images of sku {}/{}/{} in {}", publisher, offer, sku, location, e);
+                failed.set(true);
+                return Mono.empty();
+            });
+    }
+
+    @Nonnull
+    private Object getLock(@Nonnull String subscriptionId, @Nonnull Region region) {
+        return this.locks.computeIfAbsent(getKey(subscriptionId, region), k -> new Object());
+    }
+
+    /**
+     * @return key of the index, which is also its relative path, i.e. {@code ~/.azure/azure-toolkit/vm-images/{subscription}/{region}}.
+     */
+    @Nonnull
+    private static String getKey(@Nonnull String subscriptionId, @Nonnull Region region) {
+        return subscriptionId.toLowerCase() + "/" + region.getName().toLowerCase();
+    }
+
+    /**
+     * retry throttled(429) requests with exponential backoff.
+     */
+    @Nonnull
+    private static <T> Mono<T> retryOnThrottling(@Nonnull Mono<T> request) {
+        return request.retryWhen(Retry.backoff(MAX_RETRIES, MIN_BACKOFF).filter(e -> getStatusCode(e) == 429));
+    }
+
+    private static boolean isNotFound(@Nonnull Throwable e) {
+        return getStatusCode(e) == 404;
+    }
+
+    private static int getStatusCode(@Nonnull Throwable e) {
+        final Throwable cause = Exceptions.unwrap(e);
+        return cause instanceof HttpResponseException && Objects.nonNull(((HttpResponseException) cause).getResponse()) ?
+            ((HttpResponseException) cause).getResponse().getStatusCode() : -1;
+    }
+
+    @Nullable
+    private static OperatingSystem getOperatingSystem(@Nonnull VirtualMachineImageInner image) {
+        return Optional.ofNullable(image.osDiskImage()).map(OSDiskImage::operatingSystem).map(os -> OperatingSystem.fromString(os.name())).orElse(null);
+    }
+
+    @Nullable
+    private static String getHyperVGeneration(@Nonnull VirtualMachineImageInner image) {
+        return Optional.ofNullable(image.hyperVGeneration()).map(Object::toString).orElse(null);
+    }
+
+    @Nonnull
+    private static VirtualMachineImagesClient getClient(@Nonnull String subscriptionId) {
+        final ComputeServiceSubscription subscription = Objects.requireNonNull(Azure.az(AzureCompute.class).get(subscriptionId, null));
+        return Objects.requireNonNull(subscription.getRemote()).serviceClient().getVirtualMachineImages();
+    }
+}
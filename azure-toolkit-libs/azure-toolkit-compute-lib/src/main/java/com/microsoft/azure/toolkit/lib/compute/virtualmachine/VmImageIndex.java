@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.compute.virtualmachine;
+
+import com.azure.resourcemanager.compute.models.ImageReference;
+import com.microsoft.azure.toolkit.lib.compute.virtualmachine.model.OperatingSystem;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * local index of the vm image catalog(publishers -> offers -> skus -> versions) of a region, stored in a compact binary
+ * format:
+ * <pre>
+ * int magic, short version, UTF region, long crawledAt, long refreshedAt, int publisherCount,
+ * {UTF publisher, boolean complete, int offerCount, {UTF offer} * offerCount, int skuCount, {UTF offer, UTF sku, UTF os, UTF hyperVGeneration, int versionCount, {UTF version} * versionCount} * skuCount} * publisherCount
+ * </pre>
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+public class VmImageIndex {
+    private static final int MAGIC = 0x415a5649; // AZVI
+    private static final short VERSION = 3;
+    public static final Comparator<String> VERSION_ORDER = VmImageIndex::compareVersions;
+
+    @Nonnull
+    private final String region;
+    /**
+     * time of the last full crawl, from which the TTL counts.
+     */
+    private final long crawledAt;
+    /**
+     * time of the last(full or incremental) refresh.
+     */
+    private final long refreshedAt;
+    /**
+     * publisher name(case-insensitive) -> offers and skus.
+     */
+    @Nonnull
+    private final Map<String, PublisherEntry> publishers;
+
+    /**
+     * @return images of skus matching the {@code query}, skus of which os is unknown are skipped.
+     */
+    @Nonnull
+    public List<VmImage> findImages(@Nonnull Query query) {
+        return this.findSkus(query).stream()
+            .filter(s -> Objects.nonNull(s.getOs()))
+            .flatMap(s -> s.getVersions().stream().map(s::toImage))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @return image of the highest version among all skus matching the {@code query}.
+     */
+    @Nullable
+    public VmImage findLatest(@Nonnull Query query) {
+        return this.findSkus(query).stream()
+            .filter(s -> Objects.nonNull(s.getOs()) && !s.getVersions().isEmpty())
+            .max(Comparator.comparing(SkuEntry::getLatestVersion, VERSION_ORDER))
+            .map(s -> s.toImage(s.getLatestVersion()))
+            .orElse(null);
+    }
+
+    @Nonnull
+    public List<SkuEntry> findSkus(@Nonnull Query query) {
+        return this.publishers.values().stream()
+            .filter(p -> StringUtils.isBlank(query.publisher) || StringUtils.equalsIgnoreCase(query.publisher, p.getName()))
+            .flatMap(p -> p.getSkus().stream())
+            .filter(query::matches)
+            .collect(Collectors.toList());
+    }
+
+    public int getSkuCount() {
+        return this.publishers.values().stream().mapToInt(p -> p.getSkus().size()).sum();
+    }
+
+    /**
+     * @return false if any publisher failed to be crawled completely(e.g. throttled), such publishers are re-crawled on refresh.
+     */
+    public boolean isComplete() {
+        return this.publishers.values().stream().allMatch(PublisherEntry::isComplete);
+    }
+
+    @Nullable
+    static VmImageIndex read(@Nonnull Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                log.debug("ignore incompatible vm image index {}", file);
+                return null;
+            }
+            final String region = in.readUTF();
+            final long crawledAt = in.readLong();
+            final long refreshedAt = in.readLong();
+            final int publisherCount = in.readInt();
+            final Map<String, PublisherEntry> publishers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (int i = 0; i < publisherCount; i++) {
+                final String publisher = in.readUTF();
+                final boolean complete = in.readBoolean();
+                final List<String> offers = readStrings(in);
+                final int skuCount = in.readInt();
+                final List<SkuEntry> skus = new ArrayList<>(skuCount);
+                for (int j = 0; j < skuCount; j++) {
+                    final String offer = in.readUTF();
+                    final String sku = in.readUTF();
+                    final OperatingSystem os = OperatingSystem.fromString(in.readUTF()); // null if unknown or empty
+                    final String hyperVGeneration = StringUtils.defaultIfEmpty(in.readUTF(), null);
+                    skus.add(new SkuEntry(publisher, offer, sku, os, hyperVGeneration, readStrings(in)));
+                }
+                publishers.put(publisher, new PublisherEntry(publisher, offers, skus, complete));
+            }
+            return new VmImageIndex(region, crawledAt, refreshedAt, publishers);
+        } catch (IOException | RuntimeException e) {
+            log.debug("failed to read vm image index {}", file, e);
+            return null;
+        }
+    }
+
+    void write(@Nonnull Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            final Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeUTF(this.region);
+                out.writeLong(this.crawledAt);
+                out.writeLong(this.refreshedAt);
+                out.writeInt(this.publishers.size());
+                for (final PublisherEntry publisher : this.publishers.values()) {
+                    out.writeUTF(publisher.getName());
+                    out.writeBoolean(publisher.isComplete());
+                    writeStrings(out, publisher.getOffers());
+                    out.writeInt(publisher.getSkus().size());
+                    for (final SkuEntry sku : publisher.getSkus()) {
+                        out.writeUTF(sku.getOffer());
+                        out.writeUTF(sku.getSku());
+                        out.writeUTF(Objects.isNull(sku.getOs()) ? "" : sku.getOs().name()); // by name, so that reordering enum constants is safe
+                        out.writeUTF(StringUtils.defaultString(sku.getHyperVGeneration()));
+                        writeStrings(out, sku.getVersions());
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.debug("failed to write vm image index {}", file, e);
+        }
+    }
+
+    @Nonnull
+    private static List<String> readStrings(@Nonnull DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        final List<String> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(in.readUTF());
+        }
+        return result;
+    }
+
+    private static void writeStrings(@Nonnull DataOutputStream out, @Nonnull List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (final String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * compare versions like {@code 22.04.202310010} segment by segment, numerically if both segments are numbers.
+     */
+    static int compareVersions(@Nonnull String v1, @Nonnull String v2) {
+        final String[] s1 = v1.split("\\.");
+        final String[] s2 = v2.split("\\.");
+        for (int i = 0; i < Math.min(s1.length, s2.length); i++) {
+            final int result = NumberUtils.isDigits(s1[i]) && NumberUtils.isDigits(s2[i]) ?
+                Long.compare(NumberUtils.toLong(s1[i]), NumberUtils.toLong(s2[i])) : s1[i].compareToIgnoreCase(s2[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(s1.length, s2.length);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class PublisherEntry {
+        @Nonnull
+        private final String name;
+        /**
+         * sorted offer names, compared on incremental refresh to tell whether the publisher changed.
+         */
+        @Nonnull
+        private final List<String> offers;
+        @Nonnull
+        private final List<SkuEntry> skus;
+        /**
+         * false if listing offers/skus/versions of the publisher failed, in which case entries crawled before are kept.
+         */
+        private final boolean complete;
+
+        @Nonnull
+        PublisherEntry toIncomplete() {
+            return new PublisherEntry(this.name, this.offers, this.skus, false);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class SkuEntry {
+        @Nonnull
+        private final String publisher;
+        @Nonnull
+        private final String offer;
+        @Nonnull
+        private final String sku;
+        /**
+         * os and hyper-v generation of the latest version, null if unknown.
+         */
+        @Nullable
+        private final OperatingSystem os;
+        @Nullable
+        private final String hyperVGeneration;
+        /**
+         * versions in ascending order.
+         */
+        @Nonnull
+        private final List<String> versions;
+
+        @Nullable
+        public String getLatestVersion() {
+            return this.versions.isEmpty() ? null : this.versions.get(this.versions.size() - 1);
+        }
+
+        /**
+         * @throws IllegalStateException if os of the sku is unknown.
+         */
+        @Nonnull
+        public VmImage toImage(@Nonnull String version) {
+            if (Objects.isNull(this.os)) {
+                throw new IllegalStateException(String.format("os of vm image %s:%s:%s is unknown", this.publisher, this.offer, this.sku));
+            }
+            return new VmImage(this.os, new ImageReference().withPublisher(this.publisher).withOffer(this.offer).withSku(this.sku).withVersion(version));
+        }
+    }
+
+    /**
+     * e.g. the latest Ubuntu LTS gen2 image: {@code Query.builder().publisher("Canonical").offer("ubuntu").sku("lts-gen2").build()}
+     */
+    @Getter
+    @Builder
+    public static class Query {
+        /**
+         * publisher name, case-insensitive.
+         */
+        @Nullable
+        private final String publisher;
+        /**
+         * regex(case-insensitive) that offer names contain.
+         */
+        @Nullable
+        private final String offer;
+        /**
+         * regex(case-insensitive) that sku names contain.
+         */
+        @Nullable
+        private final String sku;
+        @Nullable
+        private final OperatingSystem os;
+        /**
+         * e.g. {@code V1} or {@code V2}
+         */
+        @Nullable
+        private final String hyperVGeneration;
+
+        boolean matches(@Nonnull SkuEntry entry) {
+            return matches(this.offer, entry.getOffer()) && matches(this.sku, entry.getSku()) &&
+                (Objects.isNull(this.os) || this.os == entry.getOs()) &&
+                (StringUtils.isBlank(this.hyperVGeneration) || StringUtils.equalsIgnoreCase(this.hyperVGeneration, entry.getHyperVGeneration()));
+        }
+
+        private static boolean matches(@Nullable String regex, @Nonnull String value) {
+            return StringUtils.isBlank(regex) || Pattern.compile(regex, Pattern.CASE_INSENSITIVE).matcher(value).find();
+        }
+    }
+
+    @Nonnull
+    static List<String> sortVersions(@Nonnull List<String> versions) {
+        final List<String> result = new ArrayList<>(versions);
+        result.sort(VERSION_ORDER);
+        return Collections.unmodifiableList(result);
+    }
+
+    @Nonnull
+    static Optional<PublisherEntry> getPublisher(@Nullable VmImageIndex index, @Nonnull String publisher) {
+        return Optional.ofNullable(index).map(i -> i.getPublishers().get(publisher));
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.compute.virtualmachine;
+
+import com.microsoft.azure.toolkit.lib.compute.virtualmachine.VmImageIndex.PublisherEntry;
+import com.microsoft.azure.toolkit.lib.compute.virtualmachine.VmImageIndex.Query;
+import com.microsoft.azure.toolkit.lib.compute.virtualmachine.VmImageIndex.SkuEntry;
+import com.microsoft.azure.toolkit.lib.compute.virtualmachine.model.OperatingSystem;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+public class VmImageIndexTest {
+
+    @Test
+    public void writeAndRead() throws IOException {
+        final Path file = Files.createTempDirectory("vm-images").resolve("eastus");
+        try {
+            final VmImageIndex index = newIndex();
+            index.write(file);
+            final String raw = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+            Assert.assertTrue(raw.contains("Linux") && raw.contains("Windows")); // stored by name rather than ordinal
+            final VmImageIndex read = VmImageIndex.read(file);
+            Assert.assertNotNull(read);
+            Assert.assertEquals("eastus", read.getRegion());
+            Assert.assertEquals(1000L, read.getCrawledAt());
+            Assert.assertEquals(2000L, read.getRefreshedAt());
+            Assert.assertFalse(read.isComplete());
+            Assert.assertEquals(index.getSkuCount(), read.getSkuCount());
+            final PublisherEntry canonical = read.getPublishers().get("CANONICAL"); // case-insensitive
+            Assert.assertNotNull(canonical);
+            Assert.assertTrue(canonical.isComplete());
+            Assert.assertEquals(Arrays.asList("0001-com-ubuntu-server-jammy", "ubuntuserver"), canonical.getOffers());
+            final SkuEntry jammy = canonical.getSkus().get(0);
+            Assert.assertEquals(OperatingSystem.Linux, jammy.getOs());
+            Assert.assertEquals("V2", jammy.getHyperVGeneration());
+            Assert.assertEquals(Arrays.asList("22.04.202309250", "22.04.202310010"), jammy.getVersions());
+            final PublisherEntry unknown = read.getPublishers().get("Unknown");
+            Assert.assertFalse(unknown.isComplete());
+            Assert.assertNull(unknown.getSkus().get(0).getOs());
+            Assert.assertNull(unknown.getSkus().get(0).getHyperVGeneration());
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(file.getParent());
+        }
+    }
+
+    @Test
+    public void readMissingOrIncompatibleIndex() throws IOException {
+        final Path file = Files.createTempFile("vm-images", ".bin");
+        try {
+            Files.write(file, "not an index".getBytes(StandardCharsets.UTF_8));
+            Assert.assertNull(VmImageIndex.read(file));
+            Files.delete(file);
+            Assert.assertNull(VmImageIndex.read(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void compareVersions() {
+        Assert.assertTrue(VmImageIndex.compareVersions("1.2.10", "1.2.9") > 0);
+        Assert.assertTrue(VmImageIndex.compareVersions("22.04.202310010", "22.04.202309250") > 0);
+        Assert.assertTrue(VmImageIndex.compareVersions("1.0", "1.0.1") < 0);
+        Assert.assertTrue(VmImageIndex.compareVersions("2.0.0-beta", "2.0.0-Alpha") > 0);
+        Assert.assertEquals(0, VmImageIndex.compareVersions("1.01.0", "1.1.0"));
+        Assert.assertEquals(Arrays.asList("1.0", "1.2.9", "1.2.10", "10.0"), VmImageIndex.sortVersions(Arrays.asList("10.0", "1.2.10", "1.0", "1.2.9")));
+    }
+
+    @Test
+    public void findImagesByQuery() {
+        final VmImageIndex index = newIndex();
+        final List<String> jammy = index.findImages(Query.builder().publisher("canonical").offer("jammy").build()).stream()
+            .map(VmImage::getVersion).collect(Collectors.toList());
+        Assert.assertEquals(Arrays.asList("22.04.202309250", "22.04.202310010"), jammy);
+        Assert.assertEquals(3, index.findSkus(Query.builder().publisher("Canonical").build()).size());
+        Assert.assertEquals(2, index.findSkus(Query.builder().sku("^\\d+_04-lts").build()).size());
+        Assert.assertEquals(1, index.findSkus(Query.builder().hyperVGeneration("v2").build()).size());
+        Assert.assertEquals(1, index.findSkus(Query.builder().os(OperatingSystem.Windows).build()).size());
+        Assert.assertTrue(index.findSkus(Query.builder().publisher("Microsoft").build()).isEmpty());
+    }
+
+    @Test
+    public void findLatest() {
+        final VmImageIndex index = newIndex();
+        final VmImage latest = index.findLatest(Query.builder().publisher("Canonical").os(OperatingSystem.Linux).build());
+        Assert.assertNotNull(latest);
+        Assert.assertEquals("22_04-lts-gen2", latest.getSku());
+        Assert.assertEquals("22.04.202310010", latest.getVersion());
+        Assert.assertNull(index.findLatest(Query.builder().publisher("Canonical").sku("no-versions").build()));
+    }
+
+    @Test
+    public void skipSkusOfUnknownOs() {
+        final VmImageIndex index = newIndex();
+        final Query query = Query.builder().publisher("Unknown").build();
+        Assert.assertEquals(1, index.findSkus(query).size());
+        Assert.assertTrue(index.findImages(query).isEmpty());
+        Assert.assertNull(index.findLatest(query));
+        try {
+            index.findSkus(query).get(0).toImage("1.0");
+            Assert.fail("image of unknown os should not be created");
+        } catch (final IllegalStateException e) {
+            Assert.assertTrue(e.getMessage().contains("unknown"));
+        }
+    }
+
+    private static VmImageIndex newIndex() {
+        final Map<String, PublisherEntry> publishers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        publishers.put("Canonical", new PublisherEntry("Canonical", Arrays.asList("0001-com-ubuntu-server-jammy", "ubuntuserver"), Arrays.asList(
+            new SkuEntry("Canonical", "0001-com-ubuntu-server-jammy", "22_04-lts-gen2", OperatingSystem.Linux, "V2", Arrays.asList("22.04.202309250", "22.04.202310010")),
+            new SkuEntry("Canonical", "ubuntuserver", "18_04-lts", OperatingSystem.Linux, "V1", Arrays.asList("18.04.202109280", "18.04.202304100")),
+            new SkuEntry("Canonical", "ubuntuserver", "no-versions", null, null, Collections.emptyList())), true));
+        publishers.put("MicrosoftWindowsServer", new PublisherEntry("MicrosoftWindowsServer", Collections.singletonList("WindowsServer"), Collections.singletonList(
+            new SkuEntry("MicrosoftWindowsServer", "WindowsServer", "2019-Datacenter", OperatingSystem.Windows, "V1", Collections.singletonList("17763.4974.231011"))), true));
+        publishers.put("Unknown", new PublisherEntry("Unknown", Collections.singletonList("offer"), Collections.singletonList(
+            new SkuEntry("Unknown", "offer", "sku", null, null, Collections.singletonList("1.0"))), false));
+        return new VmImageIndex("eastus", 1000L, 2000L, publishers);
+    }
+}
@@ -57,6 +57,18 @@ public class AzureEventHubsNamespace extends AbstractAzService<EventHubsNamespac
                 .authenticate(account.getTokenCredential(subscriptionId), azureProfile);
     }
 
+    /**
+     * release cached producers of event hubs before the cache is cleared(e.g. on signing out).
+     */
+    @Override
+    public void clear() {
+        this.listCachedResources().stream()
+                .flatMap(s -> s.eventHubsNamespaces().listCachedResources().stream())
+                .flatMap(n -> n.instances().listCachedResources().stream())
+                .forEach(EventHubsInstance::closeProducer);
+        super.clear();
+    }
+
     @Nonnull
     @Override
     public String getResourceTypeName() {
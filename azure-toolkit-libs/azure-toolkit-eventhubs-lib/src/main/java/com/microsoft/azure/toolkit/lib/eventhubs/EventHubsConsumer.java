@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.eventhubs;
+
+import com.azure.messaging.eventhubs.EventHubConsumerAsyncClient;
+import com.azure.messaging.eventhubs.models.PartitionEvent;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * receives events from all partitions(starting from the latest) with a single consumer client and subscription.
+ */
+@Slf4j
+public class EventHubsConsumer implements Closeable {
+    private final Receiver receiver;
+    @Getter
+    private final ThroughputCounter counter = new ThroughputCounter();
+    @Nullable
+    private Disposable subscription;
+
+    public EventHubsConsumer(@Nonnull EventHubConsumerAsyncClient client) {
+        this(new ClientReceiver(client));
+    }
+
+    public EventHubsConsumer(@Nonnull Receiver receiver) {
+        this.receiver = receiver;
+    }
+
+    public synchronized void start(@Nonnull Consumer<PartitionEvent> handler, @Nonnull Consumer<Throwable> onError) {
+        if (this.isStarted()) {
+            return;
+        }
+        this.subscription = this.receiver.receive()
+            .doOnNext(e -> this.counter.record(1, e.getData().getBody().length))
+            .subscribe(handler, onError);
+    }
+
+    public synchronized boolean isStarted() {
+        return Objects.nonNull(this.subscription) && !this.subscription.isDisposed();
+    }
+
+    /**
+     * stop receiving and release the client, the consumer can't be restarted after closed.
+     */
+    @Override
+    public synchronized void close() {
+        if (Objects.nonNull(this.subscription)) {
+            this.subscription.dispose();
+            this.subscription = null;
+        }
+        this.receiver.close();
+    }
+
+    /**
+     * the part of the event hubs consumer client used by {@link EventHubsConsumer}, so that it can be replaced, e.g.
+     * by an in-process double to measure throughput offline.
+     */
+    public interface Receiver extends Closeable {
+        /**
+         * @return events of all partitions, starting from the latest.
+         */
+        @Nonnull
+        Flux<PartitionEvent> receive();
+
+        @Override
+        void close();
+    }
+
+    @RequiredArgsConstructor
+    private static class ClientReceiver implements Receiver {
+        private final EventHubConsumerAsyncClient client;
+
+        @Nonnull
+        @Override
+        public Flux<PartitionEvent> receive() {
+            return this.client.receive(false);
+        }
+
+        @Override
+        public void close() {
+            this.client.close();
+        }
+    }
+}
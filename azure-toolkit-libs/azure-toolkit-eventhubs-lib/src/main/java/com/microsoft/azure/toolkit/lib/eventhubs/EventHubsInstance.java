@@ -5,7 +5,6 @@
 package com.microsoft.azure.toolkit.lib.eventhubs;
 
 import com.azure.messaging.eventhubs.*;
-import com.azure.messaging.eventhubs.models.EventPosition;
 import com.azure.resourcemanager.eventhubs.EventHubsManager;
 import com.azure.resourcemanager.eventhubs.fluent.EventHubManagementClient;
 import com.azure.resourcemanager.eventhubs.fluent.models.EventhubInner;
@@ -24,7 +23,8 @@ import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.model.Deletable;
 import com.microsoft.azure.toolkit.lib.common.utils.Utils;
 import org.apache.commons.lang3.StringUtils;
-import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -35,8 +35,9 @@ public class EventHubsInstance extends AbstractAzResource<EventHubsInstance, Eve
     @Nullable
     private EntityStatus status;
     @Nullable
-    private EventHubConsumerAsyncClient consumerAsyncClient;
-    private final List<Disposable> receivers = new ArrayList<>();
+    private EventHubsProducer producer;
+    @Nullable
+    private EventHubsConsumer consumer;
     @Nullable
     private IAzureMessager messager;
     protected EventHubsInstance(@Nonnull String name, @Nonnull EventHubsInstanceModule module) {
@@ -53,6 +54,20 @@ public class EventHubsInstance extends AbstractAzResource<EventHubsInstance, Eve
         this.status = Optional.ofNullable(newRemote).map(EventHub::innerModel).map(EventhubInner::status).orElse(null);
     }
 
+    @Override
+    public void invalidateCache() {
+        super.invalidateCache();
+        // connection string may be changed, a new producer is created on next sending. closing may take long to send
+        // queued events, so the detached producer is closed in background.
+        Optional.ofNullable(this.detachProducer()).ifPresent(p -> Mono.fromRunnable(p::close).subscribeOn(Schedulers.boundedElastic()).subscribe());
+    }
+
+    @Override
+    public void deleteFromCache() {
+        this.closeProducer();
+        super.deleteFromCache();
+    }
+
     @Nonnull
     @Override
     public List<AbstractAzResourceModule<?, ?, ?>> getSubModules() {
@@ -89,61 +104,91 @@ public class EventHubsInstance extends AbstractAzResource<EventHubsInstance, Eve
         updateStatus(EntityStatus.SEND_DISABLED);
     }
 
-    public boolean isListening() {
-        return Objects.nonNull(this.consumerAsyncClient);
+    public synchronized boolean isListening() {
+        return Objects.nonNull(this.consumer);
     }
 
     public boolean sendMessage(String message) {
-        try (final EventHubProducerClient producer = new EventHubClientBuilder()
-                .connectionString(getOrCreateConnectionString(Collections.singletonList(AccessRights.SEND)))
-                .buildProducerClient()) {
-            EventDataBatch eventDataBatch = producer.createBatch();
-            final EventData eventData =  new EventData(message);
-            if (!eventDataBatch.tryAdd(eventData)) {
-                producer.send(eventDataBatch);
-                eventDataBatch = producer.createBatch();
-                if (!eventDataBatch.tryAdd(eventData)) {
-                    throw new AzureToolkitRuntimeException("Event is too large for an empty batch. Max size: "
-                            + eventDataBatch.getMaxSizeInBytes());
-                }
-            }
-            if (eventDataBatch.getCount() > 0) {
-                producer.send(eventDataBatch);
-                return true;
-            }
+        try {
+            this.sendMessageAsync(message).block();
+            return true;
         } catch (final Exception e) {
             throw new AzureToolkitRuntimeException(e);
         }
-        return false;
+    }
+
+    /**
+     * messages are sent in batches through a producer cached by this instance.
+     *
+     * @return completes when the batch containing the message is sent.
+     */
+    @Nonnull
+    public Mono<Void> sendMessageAsync(String message) {
+        return this.getOrCreateProducer().send(new EventData(message));
+    }
+
+    @Nullable
+    public synchronized ThroughputCounter getSendingThroughput() {
+        return Optional.ofNullable(this.producer).map(EventHubsProducer::getCounter).orElse(null);
+    }
+
+    @Nullable
+    public synchronized ThroughputCounter getReceivingThroughput() {
+        return Optional.ofNullable(this.consumer).map(EventHubsConsumer::getCounter).orElse(null);
+    }
+
+    /**
+     * send queued messages and release the cached producer.
+     */
+    public void closeProducer() {
+        Optional.ofNullable(this.detachProducer()).ifPresent(EventHubsProducer::close); // don't block others while closing
+    }
+
+    @Nullable
+    private synchronized EventHubsProducer detachProducer() {
+        final EventHubsProducer producer = this.producer;
+        this.producer = null;
+        return producer;
     }
 
     public synchronized void startListening() {
+        if (this.isListening()) {
+            return;
+        }
         final AzureConfiguration config = Azure.az().config();
         final String consumerGroupName = config.getEventHubsConsumerGroup();
-        messager = AzureMessager.getMessager();
+        final IAzureMessager messager = AzureMessager.getMessager();
+        this.messager = messager;
         messager.info(AzureString.format("Start listening to event hub ({0}) for consumerGroup ({1})...\n", getName(), consumerGroupName));
         messager.info("You can change default consumer group in Azure Settings\n");
-        remoteOptional().ifPresent(remote -> remote.partitionIds().forEach(partitionId -> {
-            this.consumerAsyncClient = new EventHubClientBuilder()
-                    .connectionString(getOrCreateConnectionString(Collections.singletonList(AccessRights.LISTEN)))
-                    .consumerGroup(consumerGroupName)
-                    .buildAsyncConsumerClient();
-            messager.info(AzureString.format("Created receiver for partition ({0})\n", partitionId));
-            Optional.ofNullable(this.consumerAsyncClient).ifPresent(client ->
-                    receivers.add(client.receiveFromPartition(partitionId, EventPosition.latest())
-                            .subscribe(partitionEvent -> {
-                                messager.info(AzureString.format("Message Received from partition (%s): ", partitionId));
-                                messager.debug(AzureString.format("\"%s\"\n", partitionEvent.getData().getBodyAsString()));
-                            })));
-        }));
+        if (!remoteOptional().isPresent()) {
+            return;
+        }
+        this.consumer = new EventHubsConsumer(new EventHubClientBuilder()
+                .connectionString(getOrCreateConnectionString(Collections.singletonList(AccessRights.LISTEN)))
+                .consumerGroup(consumerGroupName)
+                .buildAsyncConsumerClient());
+        messager.info("Created receiver for all partitions\n");
+        this.consumer.start(partitionEvent -> {
+            messager.info(AzureString.format("Message Received from partition (%s): ", partitionEvent.getPartitionContext().getPartitionId()));
+            messager.debug(AzureString.format("\"%s\"\n", partitionEvent.getData().getBodyAsString()));
+        }, error -> messager.warning(AzureString.format("Failed to receive messages from event hub ({0}): {1}\n", getName(), error.getMessage())));
     }
 
     public synchronized void stopListening() {
-        Optional.ofNullable(consumerAsyncClient).ifPresent(EventHubConsumerAsyncClient::close);
+        Optional.ofNullable(this.consumer).ifPresent(EventHubsConsumer::close);
         Optional.ofNullable(messager).ifPresent(m -> m.info(AzureString.format("Stop listening to event hub ({0})\n", getName())));
-        this.consumerAsyncClient = null;
-        this.receivers.forEach(Disposable::dispose);
-        this.receivers.clear();
+        this.consumer = null;
+    }
+
+    @Nonnull
+    private synchronized EventHubsProducer getOrCreateProducer() {
+        if (Objects.isNull(this.producer)) {
+            this.producer = new EventHubsProducer(new EventHubClientBuilder()
+                    .connectionString(getOrCreateConnectionString(Collections.singletonList(AccessRights.SEND)))
+                    .buildAsyncProducerClient());
+        }
+        return this.producer;
     }
 
     public String getOrCreateListenConnectionString() {
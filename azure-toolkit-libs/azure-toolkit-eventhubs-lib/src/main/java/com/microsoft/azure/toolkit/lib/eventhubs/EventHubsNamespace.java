@@ -45,6 +45,11 @@ public class EventHubsNamespace extends AbstractAzResource<EventHubsNamespace, E
         return remote.innerModel().status();
     }
 
+    @Nonnull
+    public EventHubsInstanceModule instances() {
+        return this.instanceModule;
+    }
+
     public List<EventHubsInstance> getInstances() {
         return this.instanceModule.list();
     }
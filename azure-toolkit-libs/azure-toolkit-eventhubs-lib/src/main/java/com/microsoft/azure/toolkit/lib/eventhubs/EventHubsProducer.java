@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.eventhubs;
+
+import com.azure.messaging.eventhubs.EventData;
+import com.azure.messaging.eventhubs.EventDataBatch;
+import com.azure.messaging.eventhubs.EventHubProducerAsyncClient;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * long-lived producer which packs events sent within {@code linger} into {@link EventDataBatch}es(as many as the size
+ * limit requires) and sends them one group after another, so that sending many small events costs few round trips.
+ */
+@Slf4j
+public class EventHubsProducer implements Closeable {
+    public static final Duration DEFAULT_LINGER = Duration.ofMillis(20);
+    private static final int MAX_GROUP_SIZE = 4096;
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Sender sender;
+    private final Sinks.Many<Pending> queue = Sinks.many().unicast().onBackpressureBuffer();
+    private final Sinks.Empty<Void> drained = Sinks.empty();
+    private final Disposable pipeline;
+    @Getter
+    private final ThroughputCounter counter = new ThroughputCounter();
+    private volatile boolean closed;
+
+    public EventHubsProducer(@Nonnull EventHubProducerAsyncClient client) {
+        this(new ClientSender(client), DEFAULT_LINGER);
+    }
+
+    public EventHubsProducer(@Nonnull Sender sender, @Nonnull Duration linger) {
+        this.sender = sender;
+        this.pipeline = this.queue.asFlux()
+            .bufferTimeout(MAX_GROUP_SIZE, linger)
+            .onBackpressureBuffer() // bufferTimeout doesn't respect backpressure while a group is being sent
+            .concatMap(group -> this.send(group, 0))
+            .doFinally(s -> this.drained.tryEmitEmpty())
+            .subscribe();
+    }
+
+    /**
+     * @return completes when the batch containing the event is sent.
+     */
+    @Nonnull
+    public Mono<Void> send(@Nonnull EventData event) {
+        return Mono.create(sink -> {
+            final Sinks.EmitResult result;
+            synchronized (this.queue) { // emissions to the sink must be serialized
+                result = this.closed ? Sinks.EmitResult.FAIL_TERMINATED : this.queue.tryEmitNext(new Pending(event, sink));
+            }
+            if (result.isFailure()) {
+                sink.error(new AzureToolkitRuntimeException("producer is closed."));
+            }
+        });
+    }
+
+    /**
+     * send the events already queued and release the client.
+     */
+    @Override
+    public void close() {
+        synchronized (this.queue) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.queue.tryEmitComplete();
+        }
+        try {
+            this.drained.asMono().block(CLOSE_TIMEOUT);
+        } catch (final RuntimeException e) {
+            log.debug("timeout to send queued events before closing producer", e);
+            this.pipeline.dispose();
+        }
+        this.sender.close();
+    }
+
+    @Nonnull
+    private Mono<Void> send(@Nonnull List<Pending> group, int from) {
+        if (from >= group.size()) {
+            return Mono.empty();
+        }
+        return this.sender.createBatch().flatMap(batch -> {
+            final List<Pending> events = new ArrayList<>();
+            int next = from;
+            long bytes = 0;
+            while (next < group.size()) {
+                final Pending pending = group.get(next);
+                final boolean added;
+                try {
+                    added = batch.tryAdd(pending.event);
+                } catch (final RuntimeException e) { // e.g. AmqpException if the event exceeds the max message size
+                    pending.sink.error(e);
+                    next++;
+                    continue;
+                }
+                if (!added) {
+                    break;
+                }
+                events.add(pending);
+                bytes += pending.event.getBody().length;
+                next++;
+            }
+            if (events.isEmpty()) {
+                if (next < group.size()) {
+                    group.get(next).sink.error(new AzureToolkitRuntimeException("Event is too large for an empty batch. Max size: " + batch.getMaxSizeInBytes()));
+                    next++;
+                }
+                return this.send(group, next);
+            }
+            final int count = events.size();
+            final long size = bytes;
+            final int rest = next;
+            return this.sender.send(batch)
+                .doOnSuccess(v -> {
+                    this.counter.record(count, size);
+                    events.forEach(p -> p.sink.success());
+                })
+                .onErrorResume(e -> {
+                    events.forEach(p -> p.sink.error(e));
+                    return Mono.empty();
+                })
+                .then(Mono.defer(() -> this.send(group, rest)));
+        }).onErrorResume(e -> { // failed to create batch
+            group.subList(from, group.size()).forEach(p -> p.sink.error(e));
+            return Mono.empty();
+        });
+    }
+
+    @RequiredArgsConstructor
+    private static class Pending {
+        private final EventData event;
+        private final MonoSink<Void> sink;
+    }
+
+    /**
+     * the part of the event hubs producer client used by {@link EventHubsProducer}, so that it can be replaced, e.g.
+     * by an in-process double to measure throughput offline.
+     */
+    public interface Sender extends Closeable {
+        @Nonnull
+        Mono<? extends Batch> createBatch();
+
+        @Nonnull
+        Mono<Void> send(@Nonnull Batch batch);
+
+        @Override
+        void close();
+    }
+
+    public interface Batch {
+        boolean tryAdd(@Nonnull EventData event);
+
+        int getMaxSizeInBytes();
+    }
+
+    @RequiredArgsConstructor
+    private static class ClientSender implements Sender {
+        private final EventHubProducerAsyncClient client;
+
+        @Nonnull
+        @Override
+        public Mono<ClientBatch> createBatch() {
+            return this.client.createBatch().map(ClientBatch::new);
+        }
+
+        @Nonnull
+        @Override
+        public Mono<Void> send(@Nonnull Batch batch) {
+            return this.client.send(((ClientBatch) batch).batch);
+        }
+
+        @Override
+        public void close() {
+            this.client.close();
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class ClientBatch implements Batch {
+        private final EventDataBatch batch;
+
+        @Override
+        public boolean tryAdd(@Nonnull EventData event) {
+            return this.batch.tryAdd(event);
+        }
+
+        @Override
+        public int getMaxSizeInBytes() {
+            return this.batch.getMaxSizeInBytes();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.eventhubs;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * thread safe counter of events/bytes/batches transferred since it's created or reset.
+ */
+public class ThroughputCounter {
+    private final LongAdder events = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private volatile long startNanos = System.nanoTime();
+
+    public void record(int events, long bytes) {
+        this.events.add(events);
+        this.bytes.add(bytes);
+        this.batches.increment();
+    }
+
+    public long getEvents() {
+        return this.events.sum();
+    }
+
+    public long getBytes() {
+        return this.bytes.sum();
+    }
+
+    public long getBatches() {
+        return this.batches.sum();
+    }
+
+    public double getEventsPerSecond() {
+        return this.getEvents() / this.getElapsedSeconds();
+    }
+
+    public double getBytesPerSecond() {
+        return this.getBytes() / this.getElapsedSeconds();
+    }
+
+    public void reset() {
+        this.events.reset();
+        this.bytes.reset();
+        this.batches.reset();
+        this.startNanos = System.nanoTime();
+    }
+
+    private double getElapsedSeconds() {
+        return Math.max(1, System.nanoTime() - this.startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d events(%d bytes) in %d batches, %.1f events/s", getEvents(), getBytes(), getBatches(), getEventsPerSecond());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+package com.microsoft.azure.toolkit.lib.eventhubs;
+
+import com.azure.core.amqp.exception.AmqpException;
+import com.azure.messaging.eventhubs.EventData;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class EventHubsProducerTest {
+    private static final int MESSAGES = 100_000;
+
+    @Test
+    public void sendAndReceive() {
+        final InProcessEventHub hub = new InProcessEventHub(4, 64 * 1024);
+        final EventHubsConsumer consumer = new EventHubsConsumer(hub);
+        final Set<String> partitions = ConcurrentHashMap.newKeySet();
+        final List<Throwable> errors = new CopyOnWriteArrayList<>();
+        consumer.start(e -> partitions.add(e.getPartitionContext().getPartitionId()), errors::add);
+
+        final EventHubsProducer producer = new EventHubsProducer(hub, Duration.ofMillis(5));
+        Flux.range(0, MESSAGES)
+            .flatMap(i -> producer.send(new EventData("message-" + i)), 256)
+            .blockLast();
+        producer.close();
+        consumer.close();
+
+        Assert.assertTrue(errors.isEmpty());
+        Assert.assertEquals(MESSAGES, producer.getCounter().getEvents());
+        Assert.assertEquals(MESSAGES, consumer.getCounter().getEvents());
+        Assert.assertEquals(producer.getCounter().getBytes(), consumer.getCounter().getBytes());
+        Assert.assertEquals(hub.getSentBatches().get(), producer.getCounter().getBatches());
+        Assert.assertTrue("events should be sent in batches", producer.getCounter().getBatches() < MESSAGES / 10);
+        Assert.assertEquals(4, partitions.size());
+        Assert.assertTrue(hub.isClosed());
+    }
+
+    @Test
+    public void sendTooLargeEvent() {
+        final InProcessEventHub hub = new InProcessEventHub(1, 1024);
+        final EventHubsProducer producer = new EventHubsProducer(hub, Duration.ofMillis(5));
+        try {
+            producer.send(new EventData(new byte[2048])).block();
+            Assert.fail("event larger than batch should be rejected");
+        } catch (final RuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("too large"));
+        }
+        producer.send(new EventData("small")).block();
+        Assert.assertEquals(1, producer.getCounter().getEvents());
+        producer.close();
+    }
+
+    @Test
+    public void tooLargeEventDoesNotFailOthersInGroup() {
+        final InProcessEventHub hub = new InProcessEventHub(1, 1024);
+        final EventHubsProducer producer = new EventHubsProducer(hub, Duration.ofMillis(200));
+        final Mono<Void> first = producer.send(new EventData("first")).cache();
+        final Mono<Void> large = producer.send(new EventData(new byte[2048])).cache();
+        final Mono<Void> last = producer.send(new EventData("last")).cache();
+        // subscribe all before any is sent, so that they are packed in the same group
+        first.subscribe(v -> {}, e -> {});
+        large.subscribe(v -> {}, e -> {});
+        last.subscribe(v -> {}, e -> {});
+        first.block();
+        last.block();
+        try {
+            large.block();
+            Assert.fail("event larger than batch should be rejected");
+        } catch (final AmqpException e) {
+            Assert.assertTrue(e.getMessage().contains("too large"));
+        }
+        Assert.assertEquals(2, producer.getCounter().getEvents());
+        Assert.assertEquals(1, producer.getCounter().getBatches());
+        producer.close();
+    }
+}
@@ -126,9 +126,17 @@ public class SpringCloudApp extends AbstractAzResource<SpringCloudApp, SpringClo
 
     @Nullable
     public String getLogStreamingEndpoint(String instanceName) {
+        return Optional.ofNullable(this.getLogStreamingEndpoint()).map(e -> e + "/" + instanceName).orElse(null);
+    }
+
+    /**
+     * @return log streaming endpoint of instances, i.e. without instance name.
+     */
+    @Nullable
+    public String getLogStreamingEndpoint() {
         return Optional.ofNullable(this.getRemote()).map(SpringApp::activeDeploymentName).map(d -> {
             final String endpoint = this.getRemote().parent().listTestKeys().primaryTestEndpoint();
-            return String.format("%s/api/logstream/apps/%s/instances/%s", endpoint.replace(".test", ""), this.getName(), instanceName);
+            return String.format("%s/api/logstream/apps/%s/instances", endpoint.replace(".test", ""), this.getName());
         }).orElse(null);
     }
 
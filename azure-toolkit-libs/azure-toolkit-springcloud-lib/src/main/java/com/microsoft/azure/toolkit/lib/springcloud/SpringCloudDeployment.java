@@ -18,17 +18,12 @@ import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResource;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
-import lombok.SneakyThrows;
+import com.microsoft.azure.toolkit.lib.common.utils.StreamingLogReader;
 import org.apache.commons.lang3.StringUtils;
 import reactor.core.publisher.Flux;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.*;
 
 @SuppressWarnings("unused")
@@ -100,40 +95,45 @@ public class SpringCloudDeployment extends AbstractAzResource<SpringCloudDeploym
     }
 
     @Nonnull
-    @SneakyThrows
     public Flux<String> streamLogs(final String instance) {
         return streamLogs(instance, 0, 10, 0, true);
     }
 
     @Nonnull
-    @SneakyThrows
     public Flux<String> streamLogs(final String instance, int sinceSeconds, int tailLines, int limitBytes, boolean follow) {
         final String endpoint = this.getParent().getLogStreamingEndpoint(instance);
         if (Objects.isNull(endpoint)) {
             return Flux.empty();
         }
-        final URL url = new URL(String.format("%s?tailLines=%s&follow=%s&sinceSeconds=%s&limitBytes=%s", endpoint, tailLines, follow, sinceSeconds, limitBytes));
-        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestMethod("GET");
+        return StreamingLogReader.readLines(getLogStreamingUrl(endpoint, sinceSeconds, tailLines, limitBytes, follow), getLogStreamingHeaders());
+    }
+
+    /**
+     * stream logs of multiple instances at once, merged and ordered by timestamp.
+     */
+    @Nonnull
+    public Flux<StreamingLogReader.LogLine> streamLogs(@Nonnull final Collection<String> instances, int sinceSeconds, int tailLines, int limitBytes, boolean follow) {
+        final String endpoint = this.getParent().getLogStreamingEndpoint();
+        if (Objects.isNull(endpoint) || instances.isEmpty()) {
+            return Flux.empty();
+        }
+        final Map<String, String> headers = getLogStreamingHeaders();
+        final Map<String, Flux<String>> streams = new LinkedHashMap<>();
+        instances.forEach(i -> streams.put(i, StreamingLogReader.readLines(getLogStreamingUrl(endpoint + "/" + i, sinceSeconds, tailLines, limitBytes, follow), headers)));
+        return StreamingLogReader.merge(streams, StreamingLogReader.DEFAULT_REORDER_WINDOW);
+    }
+
+    @Nonnull
+    private static String getLogStreamingUrl(@Nonnull final String endpoint, int sinceSeconds, int tailLines, int limitBytes, boolean follow) {
+        return String.format("%s?tailLines=%s&follow=%s&sinceSeconds=%s&limitBytes=%s", endpoint, tailLines, follow, sinceSeconds, limitBytes);
+    }
+
+    @Nonnull
+    private Map<String, String> getLogStreamingHeaders() {
         final String password = this.getParent().getParent().getTestKey();
         final String userPass = "primary:" + password;
         final String basicAuth = "Basic " + new String(Base64.getEncoder().encode(userPass.getBytes()));
-        connection.setRequestProperty("Authorization", basicAuth);
-        connection.setUseCaches(false);
-        connection.setDoOutput(true);
-        return Flux.create((fluxSink) -> {
-            try {
-                final InputStream is = connection.getInputStream();
-                BufferedReader rd = new BufferedReader(new InputStreamReader(is));
-                String line;
-                while ((line = rd.readLine()) != null) {
-                    fluxSink.next(line);
-                }
-                rd.close();
-            } catch (final Exception e) {
-                throw new AzureToolkitRuntimeException(e);
-            }
-        });
+        return Collections.singletonMap("Authorization", basicAuth);
     }
 
     @AzureOperation(name = "internal/springcloud.wait_until_deployment_ready.deployment|app", params = {"this.getName()", "this.getParent().getName()"})
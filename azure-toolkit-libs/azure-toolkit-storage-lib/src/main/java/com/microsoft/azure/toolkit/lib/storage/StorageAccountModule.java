@@ -52,6 +52,12 @@ public class StorageAccountModule extends AbstractAzResourceModule<StorageAccoun
         return new StorageAccount(name, Objects.requireNonNull(resourceGroupName), this);
     }
 
+    @Nullable
+    @Override
+    protected Object getRemoteFingerprint(@Nonnull com.azure.resourcemanager.storage.models.StorageAccount remote) {
+        return getInnerModelFingerprint(remote);
+    }
+
     @Nonnull
     @Override
     public String getResourceTypeName() {
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.storage.blob;
+
+import com.azure.core.util.polling.LongRunningOperationStatus;
+import com.azure.core.util.polling.PollResponse;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.models.AccessTier;
+import com.azure.storage.blob.models.BlobCopyInfo;
+import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.ListBlobsOptions;
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
+import com.microsoft.azure.toolkit.lib.common.operation.OperationThreadContext;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * bulk delete/copy/tier change of all blobs under a prefix(virtual directory) of a container. blobs are enumerated
+ * page by page (so memory stays flat no matter how many blobs there are), grouped into batches of {@link #BATCH_SIZE}
+ * and processed with bounded concurrency, progress and failures are reported per batch.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class BlobBulkOperations {
+    public static final int BATCH_SIZE = 256;
+    @Nonnull
+    private final BlobContainerClient client;
+    /**
+     * max number of batches processed at the same time.
+     */
+    @Setter
+    private int batchConcurrency = 4;
+    /**
+     * max number of requests in flight of each batch.
+     */
+    @Setter
+    private int requestConcurrency = 16;
+    @Setter
+    @Nonnull
+    private IAzureMessager messager = AzureMessager.getMessager();
+
+    /**
+     * delete all blobs under {@code prefix}, and the blob of {@code prefix} itself if it exists and all blobs under it
+     * are deleted(so that a partially deleted directory is still listed).
+     */
+    @Nonnull
+    public Result delete(@Nonnull String prefix) {
+        final Result result = this.execute("delete", prefix, item -> this.client.getBlobClient(item.getName()).deleteIfExists());
+        if (result.getFailures().isEmpty()) {
+            this.client.getBlobClient(prefix).deleteIfExists();
+        }
+        return result;
+    }
+
+    /**
+     * set access tier of all blobs under {@code prefix}.
+     */
+    @Nonnull
+    public Result setAccessTier(@Nonnull String prefix, @Nonnull AccessTier tier) {
+        return this.execute("set tier of", prefix, item -> this.client.getBlobClient(item.getName()).setAccessTier(tier));
+    }
+
+    /**
+     * copy all blobs under {@code prefix} to {@code targetPrefix} of {@code target} container (server side, the copies
+     * are only started, not waited for completion).
+     */
+    @Nonnull
+    public Result copy(@Nonnull String prefix, @Nonnull BlobContainerClient target, @Nonnull String targetPrefix) {
+        return this.execute("copy", prefix, item -> {
+            final String sourceUrl = this.client.getBlobClient(item.getName()).getBlobUrl();
+            final String targetName = targetPrefix + StringUtils.removeStart(item.getName(), prefix);
+            final PollResponse<BlobCopyInfo> response = target.getBlobClient(targetName).beginCopy(sourceUrl, null).poll();
+            if (response.getStatus() == LongRunningOperationStatus.FAILED) {
+                throw new IllegalStateException(String.format("failed to copy blob to %s", targetName));
+            }
+        });
+    }
+
+    @Nonnull
+    private Result execute(@Nonnull String action, @Nonnull String prefix, @Nonnull Consumer<BlobItem> operation) {
+        final Result result = new Result();
+        final AtomicInteger batches = new AtomicInteger();
+        final OperationThreadContext context = OperationThreadContext.current().derive();
+        final Iterable<BlobItem> blobs = this.client.listBlobs(new ListBlobsOptions().setPrefix(prefix), null); // fetched page by page lazily
+        Flux.fromIterable(blobs)
+            .buffer(BATCH_SIZE)
+            .flatMap(batch -> Mono.fromCallable(() -> this.executeBatch(batches.incrementAndGet(), batch, operation, context))
+                .subscribeOn(Schedulers.boundedElastic()), Math.max(1, this.batchConcurrency))
+            .doOnNext(batch -> {
+                result.merge(batch);
+                final String message = "Batch {0}: {1} blob(s) {2}: {3} succeeded, {4} failed (total: {5} succeeded, {6} failed).";
+                final AzureString progress = AzureString.format(message, batch.getIndex(), action, prefix,
+                    batch.getSucceeded(), batch.getFailures().size(), result.getSucceeded(), result.getFailures().size());
+                if (batch.getFailures().isEmpty()) {
+                    this.messager.info(progress);
+                } else {
+                    this.messager.warning(progress);
+                    batch.getFailures().forEach(f -> log.debug("failed to {} blob {}: {}", action, f.getKey(), f.getValue()));
+                }
+            })
+            .blockLast();
+        return result;
+    }
+
+    @Nonnull
+    private BatchResult executeBatch(int index, @Nonnull List<BlobItem> batch, @Nonnull Consumer<BlobItem> operation,
+                                     @Nonnull OperationThreadContext context) {
+        final AtomicInteger succeeded = new AtomicInteger();
+        final Queue<Pair<String, String>> failures = new ConcurrentLinkedQueue<>();
+        Flux.fromIterable(batch)
+            .flatMap(item -> Mono.fromRunnable(() -> context.run(() -> {
+                try {
+                    operation.accept(item);
+                    succeeded.incrementAndGet();
+                } catch (final RuntimeException e) {
+                    failures.add(Pair.of(item.getName(), e.getMessage()));
+                }
+            })).subscribeOn(Schedulers.boundedElastic()), Math.max(1, this.requestConcurrency))
+            .blockLast();
+        return new BatchResult(index, succeeded.get(), new ArrayList<>(failures));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class BatchResult {
+        private final int index;
+        private final int succeeded;
+        /**
+         * name and error message of blobs failed.
+         */
+        private final List<Pair<String, String>> failures;
+    }
+
+    @Getter
+    public static class Result {
+        private int succeeded;
+        private final List<Pair<String, String>> failures = Collections.synchronizedList(new ArrayList<>());
+
+        private synchronized void merge(@Nonnull BatchResult batch) {
+            this.succeeded += batch.getSucceeded();
+            this.failures.addAll(batch.getFailures());
+        }
+    }
+}
@@ -61,6 +61,14 @@ public class BlobContainer extends AbstractAzResource<BlobContainer, StorageAcco
         return Optional.ofNullable(module.getBlobServiceClient()).map(c -> c.getBlobContainerClient(this.getName())).orElse(null);
     }
 
+    /**
+     * @return bulk operations(delete, copy, tier change) on blobs under a prefix of this container.
+     */
+    @Nullable
+    public BlobBulkOperations getBulkOperations() {
+        return Optional.ofNullable(this.getClient()).map(BlobBulkOperations::new).orElse(null);
+    }
+
     public boolean exists(String blobPath) {
         return Optional.ofNullable(this.getClient()).map(c -> c.getBlobClient(blobPath)).map(BlobClientBase::exists).orElse(false);
     }
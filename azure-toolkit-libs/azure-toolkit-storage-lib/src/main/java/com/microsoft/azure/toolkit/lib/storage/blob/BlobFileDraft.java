@@ -66,7 +66,7 @@ public class BlobFileDraft extends BlobFile implements StorageFile.Draft<BlobFil
         final IAzureMessager messager = AzureMessager.getMessager();
         if (Objects.nonNull(this.sourceFile)) {
             messager.info(AzureString.format("Start uploading file ({0}).", sourceFile.getFileName()));
-            client.uploadFromFile(this.sourceFile.toString());
+            BlobTransferService.getInstance().upload(this.sourceFile, client.getBlockBlobClient(), false, messager);
             messager.success(AzureString.format("File ({0}) is successfully uploaded.", sourceFile.getFileName()));
         } else {
             messager.info(AzureString.format("Start creating Blob ({0}).", fullPath));
@@ -90,7 +90,7 @@ public class BlobFileDraft extends BlobFile implements StorageFile.Draft<BlobFil
         final IAzureMessager messager = AzureMessager.getMessager();
         messager.info(AzureString.format("Start updating Blob ({0})", fullPath));
         if (Objects.nonNull(this.sourceFile)) {
-            client.uploadFromFile(this.sourceFile.toString(), true);
+            BlobTransferService.getInstance().upload(this.sourceFile, client.getBlockBlobClient(), true, messager);
         }
         messager.info(AzureString.format("Blob ({0}) is successfully updated.", fullPath));
         return Objects.requireNonNull(module.loadResourceFromAzure(this.getName(), this.getParent().getResourceGroupName()));
@@ -6,20 +6,30 @@
 package com.microsoft.azure.toolkit.lib.storage.blob;
 
 import com.azure.core.http.rest.PagedIterable;
+import com.azure.core.http.rest.PagedResponse;
 import com.azure.core.util.paging.ContinuablePage;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobItemProperties;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.ListBlobsOptions;
 import com.azure.storage.blob.specialized.BlobClientBase;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.model.AzResource;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.nio.file.Paths;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -55,9 +65,51 @@ public class BlobFileModule extends AbstractAzResourceModule<BlobFile, IBlobFile
     @Nullable
     @Override
     protected BlobItem loadResourceFromAzure(@Nonnull String name, @Nullable String resourceGroup) {
-        return this.loadResourcesFromAzure()
-            .filter(r -> Objects.equals(Paths.get(r.getName()).getFileName().toString(), name))
-            .findAny().orElse(null);
+        final BlobContainerClient client = this.getClient();
+        if (Objects.isNull(client)) {
+            return null;
+        }
+        final String parentPath = this.parent.getPath();
+        final String path = StringUtils.isEmpty(parentPath) || parentPath.endsWith("/") ? parentPath + name : parentPath + "/" + name;
+        try { // file: get its properties directly instead of listing the whole directory.
+            return toBlobItem(path, client.getBlobClient(path).getProperties());
+        } catch (final BlobStorageException e) {
+            if (e.getStatusCode() != 404) {
+                throw e;
+            }
+        }
+        // virtual directory: exists if any blob is under its prefix, only the first page(of size 1) is fetched.
+        final ListBlobsOptions options = new ListBlobsOptions().setPrefix(path + "/").setMaxResultsPerPage(1);
+        final Iterator<PagedResponse<BlobItem>> pages = client.listBlobsByHierarchy("/", options, null).iterableByPage(1).iterator();
+        final boolean exists = pages.hasNext() && !pages.next().getValue().isEmpty();
+        return exists ? new BlobItem().setName(path + "/").setIsPrefix(true).setMetadata(new HashMap<>()).setProperties(new BlobItemProperties()) : null;
+    }
+
+    @Nonnull
+    private static BlobItem toBlobItem(@Nonnull String path, @Nonnull BlobProperties properties) {
+        final BlobItemProperties itemProperties = new BlobItemProperties()
+            .setCreationTime(properties.getCreationTime())
+            .setLastModified(properties.getLastModified())
+            .setETag(properties.getETag())
+            .setContentLength(properties.getBlobSize())
+            .setContentType(properties.getContentType())
+            .setContentEncoding(properties.getContentEncoding())
+            .setContentLanguage(properties.getContentLanguage())
+            .setContentMd5(properties.getContentMd5())
+            .setContentDisposition(properties.getContentDisposition())
+            .setCacheControl(properties.getCacheControl())
+            .setBlobType(properties.getBlobType())
+            .setAccessTier(properties.getAccessTier())
+            .setLeaseStatus(properties.getLeaseStatus())
+            .setLeaseState(properties.getLeaseState())
+            .setLeaseDuration(properties.getLeaseDuration());
+        return new BlobItem().setName(path).setIsPrefix(false).setProperties(itemProperties).setMetadata(properties.getMetadata());
+    }
+
+    @Nullable
+    @Override
+    protected Object getRemoteFingerprint(@Nonnull BlobItem remote) {
+        return Optional.ofNullable(remote.getProperties()).map(BlobItemProperties::getETag).orElse(null);
     }
 
     @Override
@@ -78,15 +130,13 @@ public class BlobFileModule extends AbstractAzResourceModule<BlobFile, IBlobFile
         if (Objects.isNull(containerClient)) {
             return;
         }
-        final PagedIterable<BlobItem> files = containerClient.listBlobsByHierarchy(current.getName());
-        for (BlobItem file : files) {
-            if (BooleanUtils.isTrue(file.isPrefix())) {
-                deleteDirectory(file);
-            } else {
-                containerClient.getBlobClient(file.getName()).deleteIfExists();
-            }
+        final BlobBulkOperations.Result result = new BlobBulkOperations(containerClient).delete(current.getName());
+        final List<Pair<String, String>> failures = result.getFailures();
+        if (!failures.isEmpty()) {
+            final Pair<String, String> first = failures.get(0);
+            throw new AzureToolkitRuntimeException(String.format("failed to delete %d of %d blob(s) in directory \"%s\", e.g. \"%s\": %s",
+                failures.size(), failures.size() + result.getSucceeded(), current.getName(), first.getKey(), first.getValue()));
         }
-        containerClient.getBlobClient(current.getName()).deleteIfExists();
     }
 
     @Nonnull
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.storage.blob;
+
+import com.azure.core.util.Context;
+import com.azure.storage.blob.models.Block;
+import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.BlockListType;
+import com.azure.storage.blob.specialized.BlockBlobClient;
+import com.google.common.hash.Hashing;
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
+import com.microsoft.azure.toolkit.lib.common.operation.OperationThreadContext;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * uploads files as block blobs: blocks are staged concurrently, each with its MD5 verified by the service, and
+ * committed at last. block ids are derived from the file(path, size and modification time) and the block index, so
+ * that an interrupted upload of the same file is resumed from the uncommitted blocks already staged.
+ */
+@Slf4j
+@Getter
+@Setter
+public class BlobTransferService {
+    public static final long DEFAULT_BLOCK_SIZE = 8L * 1024 * 1024;
+    public static final int DEFAULT_CONCURRENCY = 8;
+    private static final long MAX_BLOCKS = 50_000;
+    private static final int PROGRESS_STEP = 10; // in percentage
+    private static final BlobTransferService instance = new BlobTransferService();
+
+    private long blockSize = DEFAULT_BLOCK_SIZE;
+    private int concurrency = DEFAULT_CONCURRENCY;
+    /**
+     * send MD5 of every block so that the service verifies its integrity.
+     */
+    private boolean verifyMd5 = true;
+
+    public static BlobTransferService getInstance() {
+        return instance;
+    }
+
+    public void upload(@Nonnull Path file, @Nonnull BlockBlobClient client, boolean overwrite) {
+        this.upload(file, client, overwrite, AzureMessager.getMessager());
+    }
+
+    public void upload(@Nonnull Path file, @Nonnull BlockBlobClient client, boolean overwrite, @Nonnull IAzureMessager messager) {
+        final long size;
+        final String version;
+        try {
+            size = Files.size(file);
+            version = Hashing.sha256().hashString(file.toAbsolutePath() + "|" + size + "|" + Files.getLastModifiedTime(file).toMillis(),
+                StandardCharsets.UTF_8).toString().substring(0, 16);
+        } catch (IOException e) {
+            throw new AzureToolkitRuntimeException(String.format("failed to read file '%s'", file), e);
+        }
+        final long actualBlockSize = Math.max(this.blockSize, (size + MAX_BLOCKS - 1) / MAX_BLOCKS);
+        final int blocks = (int) ((size + actualBlockSize - 1) / actualBlockSize);
+        final List<String> ids = new ArrayList<>(blocks);
+        for (int i = 0; i < blocks; i++) {
+            ids.add(Base64.getEncoder().encodeToString(String.format("%s-%06d", version, i).getBytes(StandardCharsets.UTF_8)));
+        }
+        if (!overwrite && client.exists()) { // fail fast instead of failing to commit after all blocks are staged.
+            throw new AzureToolkitRuntimeException(String.format("blob '%s' already exists.", client.getBlobName()));
+        }
+        final Map<String, Long> staged = this.getUncommittedBlocks(client);
+        final AtomicLong transferred = new AtomicLong();
+        final AtomicLong reported = new AtomicLong();
+        final Queue<RuntimeException> failures = new ConcurrentLinkedQueue<>();
+        // each block is staged in its own operation context derived from the current one.
+        final List<OperationThreadContext> contexts = IntStream.range(0, blocks)
+            .mapToObj(i -> OperationThreadContext.current().derive()).collect(Collectors.toList());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Flux.range(0, blocks)
+                .flatMap(i -> Mono.fromRunnable(() -> contexts.get(i).run(() -> {
+                    final long offset = i * actualBlockSize;
+                    final int length = (int) Math.min(actualBlockSize, size - offset);
+                    try {
+                        if (!Objects.equals(staged.get(ids.get(i)), (long) length)) { // already staged by an interrupted upload otherwise
+                            this.stageBlock(client, channel, ids.get(i), offset, length);
+                        }
+                    } catch (final RuntimeException e) { // `OperationThreadContext.run` swallows exceptions
+                        failures.add(e);
+                        return;
+                    }
+                    this.reportProgress(messager, file, transferred.addAndGet(length), reported, size);
+                })).subscribeOn(Schedulers.boundedElastic()), Math.max(1, this.concurrency))
+                .blockLast();
+        } catch (IOException e) {
+            throw new AzureToolkitRuntimeException(String.format("failed to upload file '%s'", file), e);
+        }
+        if (!failures.isEmpty()) {
+            throw new AzureToolkitRuntimeException(String.format("failed to upload file '%s'", file), failures.peek());
+        }
+        log.debug("commit {} blocks({} resumed) of {} to blob {}", blocks, staged.size(), file, client.getBlobName());
+        client.commitBlockList(ids, overwrite);
+    }
+
+    private void stageBlock(@Nonnull BlockBlobClient client, @Nonnull FileChannel channel, @Nonnull String id, long offset, int length) {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IOException("unexpected end of file");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final byte[] data = buffer.array();
+        final byte[] md5 = this.verifyMd5 ? md5(data) : null;
+        client.stageBlockWithResponse(id, new ByteArrayInputStream(data), length, md5, null, null, Context.NONE);
+    }
+
+    @Nonnull
+    private Map<String, Long> getUncommittedBlocks(@Nonnull BlockBlobClient client) {
+        try {
+            return client.listBlocks(BlockListType.UNCOMMITTED).getUncommittedBlocks().stream()
+                .collect(Collectors.toMap(Block::getName, Block::getSizeLong, (a, b) -> b));
+        } catch (BlobStorageException e) {
+            if (e.getStatusCode() == 404 || BlobErrorCode.BLOB_NOT_FOUND.equals(e.getErrorCode())) { // nothing staged yet
+                return Collections.emptyMap();
+            }
+            throw e;
+        }
+    }
+
+    private void reportProgress(@Nonnull IAzureMessager messager, @Nonnull Path file, long transferred, @Nonnull AtomicLong reported, long size) {
+        final long percentage = size == 0 ? 100 : transferred * 100 / size;
+        final long step = percentage / PROGRESS_STEP * PROGRESS_STEP;
+        long last = reported.get();
+        while (step > last) { // retry, a concurrent report of a lower step must not swallow this one.
+            if (reported.compareAndSet(last, step)) {
+                messager.info(AzureString.format("Uploading file ({0}): {1}%", file.getFileName(), step));
+                return;
+            }
+            last = reported.get();
+        }
+    }
+
+    @Nonnull
+    private static byte[] md5(@Nonnull byte[] data) {
+        try {
+            return MessageDigest.getInstance("MD5").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new AzureToolkitRuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.lib.storage.blob;
+
+import com.azure.core.util.Context;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.Block;
+import com.azure.storage.blob.models.BlockList;
+import com.azure.storage.blob.models.BlockListType;
+import com.azure.storage.blob.specialized.BlockBlobClient;
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessager;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class BlobTransferServiceTest {
+    private static final int BLOCK_SIZE = 1024;
+    private static final int BLOCKS = 10;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private BlobTransferService service;
+    private Path file;
+    private byte[] content;
+
+    @Before
+    public void setUp() throws IOException {
+        this.service = new BlobTransferService();
+        this.service.setBlockSize(BLOCK_SIZE);
+        this.service.setConcurrency(4);
+        this.content = new byte[BLOCK_SIZE * BLOCKS];
+        for (int i = 0; i < this.content.length; i++) {
+            this.content[i] = (byte) i;
+        }
+        this.file = this.folder.newFile("artifact.zip").toPath();
+        Files.write(this.file, this.content);
+    }
+
+    @Test
+    public void uploadAndCommitAllBlocks() {
+        final BlockBlobClient client = mockClient(Collections.emptyList());
+        this.service.upload(this.file, client, true, Mockito.mock(IAzureMessager.class));
+        final List<String> ids = getCommittedIds(client);
+        Assert.assertEquals(BLOCKS, ids.size());
+        Assert.assertEquals(BLOCKS, ids.stream().distinct().count());
+        Mockito.verify(client, Mockito.times(BLOCKS)).stageBlockWithResponse(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class),
+            ArgumentMatchers.eq((long) BLOCK_SIZE), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(Context.class));
+    }
+
+    @Test
+    public void resumeFromStagedBlocks() {
+        final BlockBlobClient first = mockClient(Collections.emptyList());
+        this.service.upload(this.file, first, true, Mockito.mock(IAzureMessager.class));
+        final List<String> ids = getCommittedIds(first);
+
+        // the first 3 blocks are staged by an interrupted upload, the 4th is staged partially
+        final List<Block> staged = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            staged.add(new Block().setName(ids.get(i)).setSizeLong(i < 3 ? BLOCK_SIZE : BLOCK_SIZE / 2));
+        }
+        final BlockBlobClient client = mockClient(staged);
+        this.service.upload(this.file, client, true, Mockito.mock(IAzureMessager.class));
+        final ArgumentCaptor<String> stagedIds = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(client, Mockito.times(BLOCKS - 3)).stageBlockWithResponse(stagedIds.capture(), ArgumentMatchers.any(InputStream.class),
+            ArgumentMatchers.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(Context.class));
+        Assert.assertFalse(stagedIds.getAllValues().contains(ids.get(0)));
+        Assert.assertTrue(stagedIds.getAllValues().contains(ids.get(3)));
+        Assert.assertEquals(ids, getCommittedIds(client));
+    }
+
+    @Test
+    public void sendMd5OfEveryBlock() throws Exception {
+        final BlockBlobClient client = mockClient(Collections.emptyList());
+        this.service.setConcurrency(1);
+        this.service.upload(this.file, client, true, Mockito.mock(IAzureMessager.class));
+        final ArgumentCaptor<byte[]> md5s = ArgumentCaptor.forClass(byte[].class);
+        Mockito.verify(client, Mockito.times(BLOCKS)).stageBlockWithResponse(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class),
+            ArgumentMatchers.anyLong(), md5s.capture(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(Context.class));
+        for (int i = 0; i < BLOCKS; i++) {
+            final byte[] block = Arrays.copyOfRange(this.content, i * BLOCK_SIZE, (i + 1) * BLOCK_SIZE);
+            Assert.assertArrayEquals(MessageDigest.getInstance("MD5").digest(block), md5s.getAllValues().get(i));
+        }
+
+        final BlockBlobClient unverified = mockClient(Collections.emptyList());
+        this.service.setVerifyMd5(false);
+        this.service.upload(this.file, unverified, true, Mockito.mock(IAzureMessager.class));
+        Mockito.verify(unverified, Mockito.times(BLOCKS)).stageBlockWithResponse(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class),
+            ArgumentMatchers.anyLong(), ArgumentMatchers.isNull(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(Context.class));
+    }
+
+    @Test
+    public void reportEveryProgressStepOnce() {
+        final BlockBlobClient client = mockClient(Collections.emptyList());
+        final IAzureMessager messager = Mockito.mock(IAzureMessager.class);
+        this.service.upload(this.file, client, true, messager);
+        final ArgumentCaptor<AzureString> messages = ArgumentCaptor.forClass(AzureString.class);
+        Mockito.verify(messager, Mockito.atLeastOnce()).info(messages.capture());
+        final List<String> reported = messages.getAllValues().stream().map(AzureString::toString).collect(Collectors.toList());
+        Assert.assertEquals(BLOCKS, reported.size()); // each block is 10% of the file
+        Assert.assertTrue(reported.stream().anyMatch(m -> m.endsWith("100%")));
+    }
+
+    @Test
+    public void failFastIfBlobExists() {
+        final BlockBlobClient client = mockClient(Collections.emptyList());
+        Mockito.doReturn(true).when(client).exists();
+        try {
+            this.service.upload(this.file, client, false, Mockito.mock(IAzureMessager.class));
+            Assert.fail("uploading to an existing blob without overwriting should fail");
+        } catch (final AzureToolkitRuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("already exists"));
+        }
+        Mockito.verify(client, Mockito.never()).stageBlockWithResponse(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class),
+            ArgumentMatchers.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(Context.class));
+    }
+
+    @Test
+    public void uploadIfBlobNotFound() {
+        final BlockBlobClient client = mockClient(Collections.emptyList());
+        final BlobStorageException notFound = Mockito.mock(BlobStorageException.class);
+        Mockito.doReturn(404).when(notFound).getStatusCode();
+        Mockito.doThrow(notFound).when(client).listBlocks(BlockListType.UNCOMMITTED);
+        this.service.upload(this.file, client, false, Mockito.mock(IAzureMessager.class));
+        Assert.assertEquals(BLOCKS, getCommittedIds(client).size());
+    }
+
+    @Test
+    public void failIfListingBlocksIsForbidden() {
+        final BlockBlobClient client = mockClient(Collections.emptyList());
+        final BlobStorageException forbidden = Mockito.mock(BlobStorageException.class);
+        Mockito.doReturn(403).when(forbidden).getStatusCode();
+        Mockito.doThrow(forbidden).when(client).listBlocks(BlockListType.UNCOMMITTED);
+        try {
+            this.service.upload(this.file, client, true, Mockito.mock(IAzureMessager.class));
+            Assert.fail("errors other than 'not found' should be thrown");
+        } catch (final BlobStorageException e) {
+            Assert.assertSame(forbidden, e);
+        }
+    }
+
+    @Test
+    public void failWithoutCommittingIfStagingFails() {
+        final BlockBlobClient client = mockClient(Collections.emptyList());
+        Mockito.doReturn(null).doThrow(new IllegalStateException("network error")).doReturn(null)
+            .when(client).stageBlockWithResponse(ArgumentMatchers.anyString(), ArgumentMatchers.any(InputStream.class),
+                ArgumentMatchers.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(Context.class));
+        try {
+            this.service.upload(this.file, client, true, Mockito.mock(IAzureMessager.class));
+            Assert.fail("failure of staging a block should be thrown");
+        } catch (final AzureToolkitRuntimeException e) {
+            Assert.assertEquals("network error", e.getCause().getMessage());
+        }
+        Mockito.verify(client, Mockito.never()).commitBlockList(ArgumentMatchers.anyList(), ArgumentMatchers.anyBoolean());
+    }
+
+    private static BlockBlobClient mockClient(List<Block> uncommitted) {
+        final BlockBlobClient client = Mockito.mock(BlockBlobClient.class);
+        Mockito.doReturn("artifact.zip").when(client).getBlobName();
+        Mockito.doReturn(new BlockList().setUncommittedBlocks(uncommitted)).when(client).listBlocks(BlockListType.UNCOMMITTED);
+        return client;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> getCommittedIds(BlockBlobClient client) {
+        final ArgumentCaptor<List<String>> ids = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(client).commitBlockList(ids.capture(), ArgumentMatchers.anyBoolean());
+        return ids.getValue();
+    }
+}
@@ -75,6 +75,23 @@ public class DeployMojo extends AbstractWebAppMojo {
     @Parameter(property = "webapp.deploymentStatusMaxRefreshTimes")
     protected Long deploymentStatusMaxRefreshTimes;
 
+    /**
+     * Boolean flag to skip artifacts whose content is not changed since last incremental deployment.
+     * @since 2.10.0
+     */
+    @Getter
+    @Parameter(property = "webapp.incrementalDeploy", defaultValue = "false")
+    protected boolean incrementalDeploy;
+
+    /**
+     * Max number of independent artifacts (static files, libs and scripts) deployed concurrently, artifacts are deployed
+     * one by one by default.
+     * @since 2.10.0
+     */
+    @Getter
+    @Parameter(property = "webapp.deployParallelism", defaultValue = "1")
+    protected int deployParallelism;
+
     @Override
     @AzureOperation(name = "user/webapp.deploy_app")
     protected void doExecute() throws AzureExecutionException {
@@ -138,6 +155,8 @@ public class DeployMojo extends AbstractWebAppMojo {
         final DeployWebAppTask deployWebAppTask = new DeployWebAppTask(target, artifacts, this.getRestartSite(), this.getWaitDeploymentComplete());
         Optional.ofNullable(this.getDeploymentStatusRefreshInterval()).ifPresent(deployWebAppTask::setDeploymentStatusRefreshInterval);
         Optional.ofNullable(this.getDeploymentStatusMaxRefreshTimes()).ifPresent(deployWebAppTask::setDeploymentStatusMaxRefreshTimes);
+        deployWebAppTask.setIncremental(this.isIncrementalDeploy());
+        deployWebAppTask.setDeployParallelism(this.getDeployParallelism());
         deployWebAppTask.doExecute();
     }
 